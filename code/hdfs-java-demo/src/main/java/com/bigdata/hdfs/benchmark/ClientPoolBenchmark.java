@@ -0,0 +1,82 @@
+package com.bigdata.hdfs.benchmark;
+
+import com.bigdata.hdfs.config.HDFSConfig;
+import com.bigdata.hdfs.util.HDFSClientPool;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+
+/**
+ * 连接池启动延迟对比测试
+ * 对比"每次操作新建FileSystem"和"从连接池复用FileSystem"两种方式下，
+ * 一次 获取连接 + getFileStatus + 释放连接 的平均耗时
+ * 
+ * 用法: ClientPoolBenchmark [HDFS地址] [迭代次数]
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class ClientPoolBenchmark {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ClientPoolBenchmark.class);
+    
+    public static void main(String[] args) {
+        String hdfsUri = args.length > 0 ? args[0] : HDFSConfig.getInstance().getHdfsUri();
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Path probePath = new Path("/");
+        
+        try {
+            logger.info("=== 连接池启动延迟对比测试: {}, 迭代 {} 次 ===", hdfsUri, iterations);
+            
+            // 1. 每次操作新建连接
+            long[] coldStats = new long[2];
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                Configuration conf = new Configuration();
+                conf.set("fs.defaultFS", hdfsUri);
+                try (FileSystem fs = FileSystem.newInstance(URI.create(hdfsUri), conf)) {
+                    fs.getFileStatus(probePath);
+                }
+                record(coldStats, System.nanoTime() - start);
+            }
+            
+            // 2. 从连接池复用连接
+            long[] pooledStats = new long[2];
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                try (HDFSClientPool.Lease lease = HDFSClientPool.acquire(hdfsUri)) {
+                    lease.getFileSystem().getFileStatus(probePath);
+                }
+                record(pooledStats, System.nanoTime() - start);
+            }
+            
+            report("每次新建连接", coldStats, iterations);
+            report("连接池复用", pooledStats, iterations);
+            
+        } catch (Exception e) {
+            logger.error("连接池对比测试异常", e);
+        } finally {
+            HDFSClientPool.closeIdle();
+        }
+    }
+    
+    /**
+     * 记录一次耗时：stats[0]为累计耗时，stats[1]为最大耗时
+     */
+    private static void record(long[] stats, long elapsedNanos) {
+        stats[0] += elapsedNanos;
+        stats[1] = Math.max(stats[1], elapsedNanos);
+    }
+    
+    private static void report(String name, long[] stats, int iterations) {
+        logger.info("{}: 平均 {} 毫秒/次, 最大 {} 毫秒, 总计 {} 毫秒",
+                   name,
+                   String.format("%.3f", stats[0] / 1e6 / iterations),
+                   String.format("%.3f", stats[1] / 1e6),
+                   String.format("%.1f", stats[0] / 1e6));
+    }
+}
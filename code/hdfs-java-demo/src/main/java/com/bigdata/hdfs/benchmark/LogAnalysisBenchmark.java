@@ -0,0 +1,82 @@
+package com.bigdata.hdfs.benchmark;
+
+import com.bigdata.hdfs.config.HDFSConfig;
+import com.bigdata.hdfs.project.LogAnalyzer;
+import com.bigdata.hdfs.project.LogGenerator;
+import com.bigdata.hdfs.project.LogStatistics;
+import com.bigdata.hdfs.util.HDFSUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+/**
+ * 日志并行分析扩展性测试
+ * 用LogGenerator生成模拟访问日志并上传，分别以1、2、4……个线程调用LogAnalyzer.analyze，输出吞吐量和相对单线程的加速比
+ * 
+ * 用法: LogAnalysisBenchmark [文件系统地址] [日志大小MB] [最大线程数]
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogAnalysisBenchmark {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogAnalysisBenchmark.class);
+    
+    public static void main(String[] args) {
+        String fsUri = args.length > 0 ? args[0] : HDFSConfig.getInstance().getHdfsUri();
+        int logSizeMb = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        String targetDir = HDFSConfig.getInstance().getProperty("temp.dir", "/tmp/hdfs-java-demo") + "/log-analysis-benchmark";
+        String logPath = targetDir + "/access.log";
+        
+        HDFSUtil hdfsUtil = null;
+        File localFile = null;
+        
+        try {
+            localFile = createLocalLogFile(logSizeMb);
+            hdfsUtil = new HDFSUtil(fsUri, (short) 1);
+            hdfsUtil.createDirectory(targetDir);
+            hdfsUtil.uploadFile(localFile.getPath(), logPath);
+            
+            logger.info("=== 日志并行分析扩展性测试: {}, 日志 {} MB ===", fsUri, logSizeMb);
+            LogAnalyzer analyzer = new LogAnalyzer();
+            
+            // 预热
+            analyzer.analyze(hdfsUtil, logPath, maxThreads);
+            
+            double singleThreadSeconds = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                long start = System.nanoTime();
+                LogStatistics statistics = analyzer.analyze(hdfsUtil, logPath, threads);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                if (threads == 1) {
+                    singleThreadSeconds = seconds;
+                }
+                logger.info(String.format("%2d 线程: %8.1f MB/s, 加速比 %.2fx, 请求数 %d",
+                    threads, logSizeMb / seconds, singleThreadSeconds / seconds, statistics.getTotalRequests()));
+            }
+            
+        } catch (Exception e) {
+            logger.error("日志并行分析扩展性测试异常", e);
+        } finally {
+            if (hdfsUtil != null) {
+                hdfsUtil.deleteFile(targetDir, true);
+                hdfsUtil.close();
+            }
+            if (localFile != null) {
+                localFile.delete();
+            }
+        }
+    }
+    
+    private static File createLocalLogFile(int sizeMb) throws Exception {
+        File file = File.createTempFile("log-analysis-benchmark", ".log");
+        try (OutputStream out = new FileOutputStream(file)) {
+            new LogGenerator(42).write(out, sizeMb * 1024L * 1024L);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,175 @@
+package com.bigdata.hdfs.benchmark;
+
+import com.bigdata.hdfs.project.ApacheLogParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 日志解析性能对比测试
+ * 在内存中生成访问日志，对比LogAnalyzer原来的正则表达式解析（逐行解码为字符串、七个捕获组、Long.parseLong）
+ * 与ApacheLogParser字节级解析的每行耗时；另外对比SimpleDateFormat与ApacheLogParser.getEpochSecond解析时间戳的耗时。
+ * 每轮之前先预热，使JIT编译完成后再计时
+ * 
+ * 用法: LogParserBenchmark [行数] [轮数]
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogParserBenchmark {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogParserBenchmark.class);
+    
+    private static final Pattern LOG_PATTERN = Pattern.compile(
+        "^(\\S+) \\S+ \\S+ \\[([\\w:/]+\\s[+\\-]\\d{4})\\] \"(\\S+) (\\S+) (\\S+)\" (\\d{3}) (\\d+)");
+    
+    public static void main(String[] args) {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        byte[] data = generateLog(lineCount);
+        int[] lineStarts = new int[lineCount + 1];
+        int line = 0;
+        lineStarts[0] = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == '\n') {
+                lineStarts[++line] = i + 1;
+            }
+        }
+        
+        logger.info("=== 日志解析性能对比测试: {} 行, {} MB, {} 轮 ===", lineCount, data.length / 1024 / 1024, rounds);
+        
+        // 预热
+        regexParse(data, lineStarts, lineCount);
+        byteParse(data, lineStarts, lineCount);
+        
+        long regexNanos = 0;
+        long byteNanos = 0;
+        long checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            checksum += regexParse(data, lineStarts, lineCount);
+            regexNanos += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            checksum -= byteParse(data, lineStarts, lineCount);
+            byteNanos += System.nanoTime() - start;
+        }
+        
+        long totalLines = (long) lineCount * rounds;
+        double totalMb = data.length / (1024.0 * 1024.0) * rounds;
+        logger.info(String.format("正则表达式解析: %.1f ns/行, %.1f MB/s", (double) regexNanos / totalLines, totalMb / (regexNanos / 1e9)));
+        logger.info(String.format("字节级解析: %.1f ns/行, %.1f MB/s", (double) byteNanos / totalLines, totalMb / (byteNanos / 1e9)));
+        logger.info(String.format("加速比: %.1fx", (double) regexNanos / byteNanos));
+        if (checksum != 0) {
+            logger.error("两种解析方式的结果不一致");
+        }
+        
+        // 时间戳解析对比
+        simpleDateFormatTimestamps(data, lineStarts, lineCount);
+        byteTimestamps(data, lineStarts, lineCount);
+        long dateFormatNanos = 0;
+        long decoderNanos = 0;
+        checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            checksum += simpleDateFormatTimestamps(data, lineStarts, lineCount);
+            dateFormatNanos += System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            checksum -= byteTimestamps(data, lineStarts, lineCount);
+            decoderNanos += System.nanoTime() - start;
+        }
+        logger.info(String.format("字节级解析+SimpleDateFormat: %.1f ns/行", (double) dateFormatNanos / totalLines));
+        logger.info(String.format("字节级解析+时间戳解码: %.1f ns/行", (double) decoderNanos / totalLines));
+        if (checksum != 0) {
+            logger.error("两种时间戳解析方式的结果不一致");
+        }
+    }
+    
+    /**
+     * 字节级解析后取出时间戳字符串，再用SimpleDateFormat解析
+     */
+    private static long simpleDateFormatTimestamps(byte[] data, int[] lineStarts, int lineCount) {
+        ApacheLogParser parser = new ApacheLogParser();
+        SimpleDateFormat format = new SimpleDateFormat("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+        long sum = 0;
+        try {
+            for (int i = 0; i < lineCount; i++) {
+                if (parser.parse(data, lineStarts[i], lineStarts[i + 1] - 1)) {
+                    sum += format.parse(parser.getTimestamp()).getTime() / 1000;
+                }
+            }
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+        return sum;
+    }
+    
+    private static long byteTimestamps(byte[] data, int[] lineStarts, int lineCount) {
+        ApacheLogParser parser = new ApacheLogParser();
+        long sum = 0;
+        for (int i = 0; i < lineCount; i++) {
+            if (parser.parse(data, lineStarts[i], lineStarts[i + 1] - 1)) {
+                sum += parser.getEpochSecond();
+            }
+        }
+        return sum;
+    }
+    
+    /**
+     * 与原LogAnalyzer相同的解析方式：解码整行为字符串后用正则匹配
+     */
+    private static long regexParse(byte[] data, int[] lineStarts, int lineCount) {
+        long totalBytes = 0;
+        for (int i = 0; i < lineCount; i++) {
+            String line = new String(data, lineStarts[i], lineStarts[i + 1] - lineStarts[i] - 1, StandardCharsets.UTF_8);
+            Matcher matcher = LOG_PATTERN.matcher(line);
+            if (matcher.matches()) {
+                String ip = matcher.group(1);
+                String method = matcher.group(3);
+                String statusCode = matcher.group(6);
+                totalBytes += Long.parseLong(matcher.group(7)) + ip.length() + method.length() + statusCode.length();
+            }
+        }
+        return totalBytes;
+    }
+    
+    private static long byteParse(byte[] data, int[] lineStarts, int lineCount) {
+        ApacheLogParser parser = new ApacheLogParser();
+        long totalBytes = 0;
+        for (int i = 0; i < lineCount; i++) {
+            if (parser.parse(data, lineStarts[i], lineStarts[i + 1] - 1)) {
+                // 3为状态码的位数，与正则路径累加的字段长度保持一致
+                totalBytes += parser.getResponseSize() + (parser.getIpEnd() - parser.getIpStart())
+                    + (parser.getMethodEnd() - parser.getMethodStart()) + 3;
+            }
+        }
+        return totalBytes;
+    }
+    
+    private static byte[] generateLog(int lineCount) {
+        String[] methods = {"GET", "POST", "PUT", "DELETE"};
+        String[] urls = {"/index.html", "/api/users", "/api/orders", "/images/logo.png", "/css/style.css"};
+        int[] statusCodes = {200, 404, 500, 301, 403};
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(lineCount * 90);
+        for (int i = 0; i < lineCount; i++) {
+            String line = String.format("10.%d.%d.%d - - [25/Dec/2023:10:%02d:%02d +0800] \"%s %s HTTP/1.1\" %d %d\n",
+                random.nextInt(256), random.nextInt(256), random.nextInt(256), random.nextInt(60), random.nextInt(60),
+                methods[random.nextInt(methods.length)], urls[random.nextInt(urls.length)],
+                statusCodes[random.nextInt(statusCodes.length)], random.nextInt(10000) + 100);
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, bytes.length);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bigdata.hdfs.benchmark;
+
+import com.bigdata.hdfs.project.LogStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 日志IP统计内存测试
+ * 在内存中生成访问日志（少量高频IP加上大量只出现几次的IP），分别用精确模式和近似模式的LogStatistics统计，
+ * 输出统计结构占用的堆内存、耗时、Top-10与精确结果的重合数以及不同IP数的相对误差
+ *
+ * 用法: LogSketchBenchmark [日志行数] [不同IP数]
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogSketchBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogSketchBenchmark.class);
+
+    private static final int TOP_N = 10;
+
+    public static void main(String[] args) {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int distinctIps = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+
+        try {
+            logger.info("=== 日志IP统计内存测试: {} 行, 约 {} 个不同IP ===", lineCount, distinctIps);
+
+            LogStatistics exact = run("精确模式", LogStatistics::new, lineCount, distinctIps);
+            List<Map.Entry<String, Long>> exactTop = exact.getTopIps(TOP_N);
+            long exactDistinct = exact.getDistinctIpCount();
+            exact = null;
+
+            LogStatistics approximate = run("近似模式", () -> LogStatistics.approximate(100), lineCount, distinctIps);
+            List<Map.Entry<String, Long>> approximateTop = approximate.getTopIps(TOP_N);
+
+            Set<String> exactKeys = new HashSet<>();
+            exactTop.forEach(entry -> exactKeys.add(entry.getKey()));
+            long overlap = approximateTop.stream().filter(entry -> exactKeys.contains(entry.getKey())).count();
+            double distinctError = Math.abs(approximate.getDistinctIpCount() - exactDistinct) / (double) exactDistinct;
+
+            logger.info(String.format("Top-%d 重合: %d/%d, 不同IP数: 精确 %d, 近似 %d (误差 %.2f%%)",
+                TOP_N, overlap, TOP_N, exactDistinct, approximate.getDistinctIpCount(), distinctError * 100));
+            for (int i = 0; i < Math.min(exactTop.size(), approximateTop.size()); i++) {
+                logger.info(String.format("%2d. %-16s %10d | %-16s %10d", i + 1,
+                    exactTop.get(i).getKey(), exactTop.get(i).getValue(),
+                    approximateTop.get(i).getKey(), approximateTop.get(i).getValue()));
+            }
+
+        } catch (Exception e) {
+            logger.error("日志IP统计内存测试异常", e);
+        }
+    }
+
+    /**
+     * 创建统计结果并输入模拟日志，输出耗时和统计结构占用的堆内存
+     */
+    private static LogStatistics run(String name, Supplier<LogStatistics> factory, int lineCount, int distinctIps) {
+        long before = usedMemory();
+        LogStatistics statistics = factory.get();
+        Random random = new Random(42);
+        byte[] line = new byte[256];
+        long start = System.nanoTime();
+        for (int i = 0; i < lineCount; i++) {
+            // 一半请求来自前1000个IP中的少数热点（近似Zipf分布），其余请求均匀分布在所有IP上
+            int ipIndex = random.nextBoolean()
+                ? (int) Math.pow(1000, random.nextDouble()) - 1
+                : random.nextInt(distinctIps);
+            String text = String.format("10.%d.%d.%d - - [25/Dec/2023:10:00:01 +0800] \"GET /index.html HTTP/1.1\" 200 %d",
+                ipIndex >>> 16 & 0xFF, ipIndex >>> 8 & 0xFF, ipIndex & 0xFF, 100 + (i & 1023));
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(bytes, 0, line, 0, bytes.length);
+            statistics.accept(line, bytes.length);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long memory = usedMemory() - before;
+        logger.info(String.format("%s: %.1f 秒, 统计结构约 %.1f MB", name, seconds, memory / 1024.0 / 1024.0));
+        return statistics;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
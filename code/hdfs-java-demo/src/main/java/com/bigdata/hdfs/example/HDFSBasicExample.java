@@ -1,6 +1,8 @@
 package com.bigdata.hdfs.example;
 
 import com.bigdata.hdfs.util.HDFSUtil;
+import com.bigdata.hdfs.util.PackedFileReader;
+import com.bigdata.hdfs.util.SmallFilePacker;
 import org.apache.hadoop.fs.FileStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +70,10 @@ public class HDFSBasicExample {
             logger.info("=== 8. 删除文件测试 ===");
             hdfsUtil.deleteFile("/user/bigdata/test.txt", false);
             
+            // 9. 小文件打包
+            logger.info("=== 9. 小文件打包测试 ===");
+            packSmallFiles(hdfsUtil);
+            
             logger.info("=== HDFS基础操作测试完成 ===");
             
         } catch (Exception e) {
@@ -80,6 +86,31 @@ public class HDFSBasicExample {
         }
     }
     
+    /**
+     * 将大量小文件打包到容器文件中，再按名称读取单个条目
+     * 打包后的目录可以直接作为WordCount的输入
+     * 
+     * @param hdfsUtil HDFS工具类
+     */
+    private static void packSmallFiles(HDFSUtil hdfsUtil) {
+        String containerDir = "/user/bigdata/packed";
+        try (SmallFilePacker packer = hdfsUtil.openPacker(containerDir)) {
+            for (int i = 0; i < 1000; i++) {
+                packer.add("/user/bigdata/small/file" + i + ".txt", "这是第 " + i + " 个小文件的内容");
+            }
+        } catch (Exception e) {
+            logger.error("小文件打包异常", e);
+            return;
+        }
+        
+        try (PackedFileReader reader = hdfsUtil.openPackedReader(containerDir)) {
+            byte[] content = reader.read("/user/bigdata/small/file42.txt");
+            logger.info("读取打包条目 file42.txt: {}", new String(content, "UTF-8"));
+        } catch (Exception e) {
+            logger.error("读取打包条目异常", e);
+        }
+    }
+    
     /**
      * 创建本地测试文件
      */
@@ -1,14 +1,21 @@
 package com.bigdata.hdfs.example;
 
-import org.apache.hadoop.conf.Configuration;
+import com.bigdata.hdfs.util.BlockParallelReader;
+import com.bigdata.hdfs.util.HDFSClientPool;
 import org.apache.hadoop.fs.*;
 import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HDFS大文件处理示例
@@ -22,12 +29,12 @@ public class HDFSLargeFileExample {
     private static final Logger logger = LoggerFactory.getLogger(HDFSLargeFileExample.class);
     
     public static void main(String[] args) {
+        HDFSClientPool.Lease lease = null;
+        
         try {
-            Configuration conf = new Configuration();
-            conf.set("fs.defaultFS", "hdfs://10.132.144.24:9000");
-            System.setProperty("HADOOP_USER_NAME", "hadoop");
-            
-            FileSystem fs = FileSystem.get(URI.create("hdfs://10.132.144.24:9000"), conf);
+            // 从连接池获取共享的HDFS连接
+            lease = HDFSClientPool.acquire("hdfs://10.132.144.24:9000");
+            FileSystem fs = lease.getFileSystem();
             
             // 1. 创建大文件
             createLargeFile(fs);
@@ -38,10 +45,19 @@ public class HDFSLargeFileExample {
             // 3. 分块读取大文件
             blockReadLargeFile(fs);
             
-            fs.close();
+            // 4. 按HDFS块并行读取大文件
+            parallelBlockReadLargeFile(fs);
+            
+            // 5. 压缩存储大文件并自动识别格式读取
+            compressLargeFile(fs);
             
         } catch (Exception e) {
             logger.error("大文件处理异常", e);
+        } finally {
+            // 释放连接引用
+            if (lease != null) {
+                lease.close();
+            }
         }
     }
     
@@ -184,4 +200,109 @@ public class HDFSLargeFileExample {
             IOUtils.closeStream(in);
         }
     }
+    
+    /**
+     * 按HDFS块并行读取大文件
+     * 根据块位置信息切分文件，多个线程使用定位读同时读取不同的块
+     * 
+     * @param fs 文件系统对象
+     */
+    private static void parallelBlockReadLargeFile(FileSystem fs) {
+        try {
+            Path largePath = new Path("/user/bigdata/large_file.txt");
+            
+            if (!fs.exists(largePath)) {
+                logger.error("大文件不存在: {}", largePath);
+                return;
+            }
+            
+            // 4个线程并行读取，每次定位读4MB
+            BlockParallelReader reader = new BlockParallelReader(fs, 4, 4 * 1024 * 1024);
+            AtomicInteger chunkCount = new AtomicInteger();
+            
+            long startTime = System.currentTimeMillis();
+            
+            // 有序交付：数据片按文件偏移顺序到达，可以直接拼接处理
+            long totalRead = reader.read(largePath, (offset, buffer, length) -> {
+                chunkCount.incrementAndGet();
+                
+                // 处理读取的数据片
+                // processBlock(buffer, length);
+                
+                logger.info("已读取数据片 {}, 偏移 {}, 大小 {} 字节", chunkCount.get(), offset, length);
+            }, true);
+            
+            long endTime = System.currentTimeMillis();
+            logger.info("并行分块读取完成，总共读取 {} 字节（{} 个数据片），耗时 {} 毫秒", 
+                       totalRead, chunkCount.get(), endTime - startTime);
+            
+        } catch (Exception e) {
+            logger.error("并行分块读取大文件异常", e);
+        }
+    }
+    
+    /**
+     * 压缩存储大文件
+     * 按扩展名从CompressionCodecFactory获取压缩格式写入，读取时同样按扩展名自动识别并解压
+     * 
+     * @param fs 文件系统对象
+     */
+    private static void compressLargeFile(FileSystem fs) {
+        FSDataInputStream in = null;
+        BufferedReader reader = null;
+        Decompressor decompressor = null;
+        
+        try {
+            Path largePath = new Path("/user/bigdata/large_file.txt");
+            Path compressedPath = new Path("/user/bigdata/large_file.txt.gz");
+            
+            if (!fs.exists(largePath)) {
+                logger.error("大文件不存在: {}", largePath);
+                return;
+            }
+            
+            CompressionCodecFactory codecFactory = new CompressionCodecFactory(fs.getConf());
+            CompressionCodec codec = codecFactory.getCodec(compressedPath);
+            
+            // 压缩写入：原始数据经过压缩输出流写入HDFS，网络和磁盘上只传输压缩后的数据；
+            // 压缩器从CodecPool借用并在写完后归还，避免每个文件都创建新的压缩器
+            in = fs.open(largePath);
+            Compressor compressor = CodecPool.getCompressor(codec);
+            try (FSDataOutputStream raw = fs.create(compressedPath, true)) {
+                CompressionOutputStream out = codec.createOutputStream(raw, compressor);
+                IOUtils.copyBytes(in, out, 1024 * 1024, false);
+                // 只写出压缩尾部，底层输出流由外层关闭
+                out.finish();
+            } finally {
+                CodecPool.returnCompressor(compressor);
+            }
+            IOUtils.closeStream(in);
+            
+            long rawSize = fs.getFileStatus(largePath).getLen();
+            long compressedSize = fs.getFileStatus(compressedPath).getLen();
+            logger.info("压缩完成: {} 字节 -> {} 字节，压缩比 {}", rawSize, compressedSize, 
+                       String.format("%.2f", (double) rawSize / compressedSize));
+            
+            // 读取时按扩展名识别压缩格式
+            CompressionCodec readCodec = codecFactory.getCodec(compressedPath);
+            in = fs.open(compressedPath);
+            decompressor = CodecPool.getDecompressor(readCodec);
+            reader = new BufferedReader(new InputStreamReader(readCodec.createInputStream(in, decompressor), "UTF-8"));
+            
+            int lineCount = 0;
+            while (reader.readLine() != null) {
+                lineCount++;
+            }
+            logger.info("压缩文件读取完成，总共读取 {} 行", lineCount);
+            
+        } catch (Exception e) {
+            logger.error("压缩存储大文件异常", e);
+        } finally {
+            IOUtils.closeStream(reader);
+            IOUtils.closeStream(in);
+            if (decompressor != null) {
+                CodecPool.returnDecompressor(decompressor);
+            }
+        }
+    }
 }
\ No newline at end of file
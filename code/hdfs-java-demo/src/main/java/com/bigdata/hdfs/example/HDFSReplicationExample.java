@@ -1,6 +1,7 @@
 package com.bigdata.hdfs.example;
 
 import com.bigdata.hdfs.util.HDFSUtil;
+import com.bigdata.hdfs.util.ReplicationReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -168,6 +169,16 @@ public class HDFSReplicationExample {
         logger.info("批量设置副本数（递归）:");
         int count2 = hdfsUtil.setBatchReplication("/test/batch_replication", (short) 3, true);
         logger.info("成功设置 {} 个文件的副本数", count2);
+        
+        // 演练模式：统计将副本数降为1会释放多少空间，不做任何修改
+        logger.info("批量设置副本数（演练模式）:");
+        ReplicationReport dryRunReport = hdfsUtil.setBatchReplication("/test/batch_replication", (short) 1, true, 8, 0, true);
+        logger.info("将修改 {} 个文件的副本数，可释放 {} 字节", dryRunReport.getChangedFiles(), dryRunReport.getBytesToRelease());
+        
+        // 并发设置并限流：8个线程，每秒最多100次setReplication调用
+        logger.info("批量设置副本数（并发+限流）:");
+        ReplicationReport report = hdfsUtil.setBatchReplication("/test/batch_replication", (short) 2, true, 8, 100, false);
+        logger.info("批量设置结果: {}", report);
     }
     
     /**
@@ -0,0 +1,425 @@
+package com.bigdata.hdfs.project;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Apache访问日志解析器
+ * 直接在UTF-8字节数组上单遍扫描解析通用日志格式（Common Log Format）和组合日志格式（Combined Log Format），
+ * 字段以偏移量和基本类型的形式暴露，解析过程不分配对象。同一个实例可以反复解析不同的行，但不是线程安全的。
+ * 
+ * 快速路径无法解析的行（如字段之间有多个空白）再用正则表达式重新匹配，匹配成功后将字段整理为标准格式写入内部缓冲区，
+ * 因此只有格式异常的行才会产生额外开销
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class ApacheLogParser {
+    
+    // 与快速路径等价的正则表达式，只用于格式异常的行
+    private static final Pattern FALLBACK_PATTERN = Pattern.compile(
+        "^(\\S+)\\s+\\S+\\s+\\S+\\s+\\[([\\w:/]+\\s[+\\-]\\d{4})\\]\\s+\"(\\S+)\\s+(\\S+)\\s+(\\S+)\"\\s+(\\d{3})\\s+(\\d+|-)(\\s.*)?$");
+    
+    /**
+     * 时间戳无法解析时getEpochSecond的返回值
+     */
+    public static final long INVALID_TIMESTAMP = Long.MIN_VALUE;
+    
+    // 时间戳 dd/MMM/yyyy:HH:mm:ss +zzzz 的固定长度
+    private static final int TIMESTAMP_LENGTH = 26;
+    
+    private byte[] buffer;
+    private int ipStart;
+    private int ipEnd;
+    private int timestampStart;
+    private int timestampEnd;
+    private int methodStart;
+    private int methodEnd;
+    private int urlStart;
+    private int urlEnd;
+    private int protocolStart;
+    private int protocolEnd;
+    private int status;
+    private long responseSize;
+    
+    private byte[] fallbackBuffer = new byte[256];
+    private long fallbackCount;
+    
+    /**
+     * 解析一行日志
+     * 
+     * @param bytes 包含日志行的字节数组
+     * @param start 行起始偏移
+     * @param end 行结束偏移（不包含），行尾的\r会被忽略
+     * @return 解析成功返回true，此时可以通过getter读取字段
+     */
+    public boolean parse(byte[] bytes, int start, int end) {
+        if (parseFast(bytes, start, end)) {
+            return true;
+        }
+        return parseFallback(bytes, start, end);
+    }
+    
+    private boolean parseFast(byte[] b, int start, int end) {
+        if (end > start && b[end - 1] == '\r') {
+            end--;
+        }
+        int p = start;
+        
+        // 客户端IP
+        ipStart = p;
+        p = tokenEnd(b, p, end);
+        if (p <= ipStart || p >= end || b[p] != ' ') {
+            return false;
+        }
+        ipEnd = p;
+        
+        // 标识符和用户名，通常为 -
+        p = skipToken(b, p + 1, end);
+        if (p < 0) {
+            return false;
+        }
+        p = skipToken(b, p, end);
+        if (p < 0 || p >= end || b[p] != '[') {
+            return false;
+        }
+        
+        // [时间戳]
+        timestampStart = p + 1;
+        p = indexOf(b, timestampStart, end, (byte) ']');
+        if (p < 0) {
+            return false;
+        }
+        timestampEnd = p;
+        p++;
+        if (p + 1 >= end || b[p] != ' ' || b[p + 1] != '"') {
+            return false;
+        }
+        
+        // "方法 URL 协议"
+        methodStart = p + 2;
+        p = tokenEnd(b, methodStart, end);
+        if (p <= methodStart || p >= end || b[p] != ' ') {
+            return false;
+        }
+        methodEnd = p;
+        urlStart = p + 1;
+        p = tokenEnd(b, urlStart, end);
+        if (p <= urlStart || p >= end || b[p] != ' ') {
+            return false;
+        }
+        urlEnd = p;
+        protocolStart = p + 1;
+        p = indexOf(b, protocolStart, end, (byte) '"');
+        if (p <= protocolStart || tokenEnd(b, protocolStart, p) != p) {
+            return false;
+        }
+        protocolEnd = p;
+        p++;
+        
+        // 状态码：三位数字
+        if (p + 4 > end || b[p] != ' ' || !isDigit(b[p + 1]) || !isDigit(b[p + 2]) || !isDigit(b[p + 3])) {
+            return false;
+        }
+        status = (b[p + 1] - '0') * 100 + (b[p + 2] - '0') * 10 + (b[p + 3] - '0');
+        p += 4;
+        
+        // 响应大小：数字或 -（无响应体），之后可以是行尾或组合格式的Referer/User-Agent
+        if (p + 1 >= end || b[p] != ' ') {
+            return false;
+        }
+        p++;
+        if (b[p] == '-') {
+            responseSize = 0;
+            p++;
+        } else {
+            long size = 0;
+            int digitsStart = p;
+            while (p < end && isDigit(b[p])) {
+                size = size * 10 + (b[p] - '0');
+                p++;
+            }
+            if (p == digitsStart || p - digitsStart > 18) {
+                return false;
+            }
+            responseSize = size;
+        }
+        if (p != end && b[p] != ' ') {
+            return false;
+        }
+        
+        buffer = b;
+        return true;
+    }
+    
+    /**
+     * 正则回退路径：匹配成功后按标准格式重写到内部缓冲区，再由快速路径解析
+     */
+    private boolean parseFallback(byte[] bytes, int start, int end) {
+        String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        Matcher matcher = FALLBACK_PATTERN.matcher(line.trim());
+        if (!matcher.matches()) {
+            return false;
+        }
+        fallbackCount++;
+        
+        String normalized = matcher.group(1) + " - - [" + matcher.group(2).replaceAll("\\s+", " ") + "] \""
+            + matcher.group(3) + " " + matcher.group(4) + " " + matcher.group(5) + "\" "
+            + matcher.group(6) + " " + matcher.group(7);
+        byte[] normalizedBytes = normalized.getBytes(StandardCharsets.UTF_8);
+        if (normalizedBytes.length > fallbackBuffer.length) {
+            fallbackBuffer = new byte[normalizedBytes.length * 2];
+        }
+        System.arraycopy(normalizedBytes, 0, fallbackBuffer, 0, normalizedBytes.length);
+        return parseFast(fallbackBuffer, 0, normalizedBytes.length);
+    }
+    
+    /**
+     * 返回从p开始的非空白字段的结束位置
+     */
+    private static int tokenEnd(byte[] b, int p, int end) {
+        while (p < end && b[p] != ' ' && b[p] != '\t') {
+            p++;
+        }
+        return p;
+    }
+    
+    /**
+     * 跳过一个非空字段及其后的单个空格，返回下一个字段的起始位置，格式不符返回-1
+     */
+    private static int skipToken(byte[] b, int p, int end) {
+        int tokenEnd = tokenEnd(b, p, end);
+        if (tokenEnd == p || tokenEnd >= end || b[tokenEnd] != ' ') {
+            return -1;
+        }
+        return tokenEnd + 1;
+    }
+    
+    private static int indexOf(byte[] b, int p, int end, byte target) {
+        for (int i = p; i < end; i++) {
+            if (b[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    /**
+     * 获取字段所在的字节数组，回退路径解析的行指向内部缓冲区而不是传入的数组
+     * 
+     * @return 字节数组
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+    
+    public int getIpStart() {
+        return ipStart;
+    }
+    
+    public int getIpEnd() {
+        return ipEnd;
+    }
+    
+    public int getTimestampStart() {
+        return timestampStart;
+    }
+    
+    public int getTimestampEnd() {
+        return timestampEnd;
+    }
+    
+    public int getMethodStart() {
+        return methodStart;
+    }
+    
+    public int getMethodEnd() {
+        return methodEnd;
+    }
+    
+    public int getUrlStart() {
+        return urlStart;
+    }
+    
+    public int getUrlEnd() {
+        return urlEnd;
+    }
+    
+    public int getProtocolStart() {
+        return protocolStart;
+    }
+    
+    public int getProtocolEnd() {
+        return protocolEnd;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    /**
+     * 获取响应大小，日志中为 - 时返回0
+     * 
+     * @return 响应字节数
+     */
+    public long getResponseSize() {
+        return responseSize;
+    }
+    
+    /**
+     * 将客户端地址解析为IPv4整数，不创建字符串
+     * 
+     * @return 无符号32位地址（0 ~ 2^32-1），不是点分十进制IPv4地址（如IPv6地址、主机名）时返回-1
+     */
+    public long getIpv4() {
+        long address = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+        for (int i = ipStart; i < ipEnd; i++) {
+            byte c = buffer[i];
+            if (c == '.') {
+                if (digits == 0 || ++dots > 3) {
+                    return -1;
+                }
+                address = (address << 8) | octet;
+                octet = 0;
+                digits = 0;
+            } else if (isDigit(c) && digits < 3) {
+                octet = octet * 10 + (c - '0');
+                digits++;
+                if (octet > 255) {
+                    return -1;
+                }
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0 || dots != 3) {
+            return -1;
+        }
+        return (address << 8) | octet;
+    }
+    
+    /**
+     * 将时间戳（dd/MMM/yyyy:HH:mm:ss +zzzz）直接从字节解析为UTC秒数
+     * 按固定位置读取数字并按公历直接计算天数，不使用SimpleDateFormat，也不创建对象
+     * 
+     * @return 自1970-01-01T00:00:00Z起的秒数，格式不正确时返回INVALID_TIMESTAMP
+     */
+    public long getEpochSecond() {
+        if (timestampEnd - timestampStart != TIMESTAMP_LENGTH) {
+            return INVALID_TIMESTAMP;
+        }
+        byte[] b = buffer;
+        int p = timestampStart;
+        if (b[p + 2] != '/' || b[p + 6] != '/' || b[p + 11] != ':' || b[p + 14] != ':' || b[p + 17] != ':'
+                || b[p + 20] != ' ') {
+            return INVALID_TIMESTAMP;
+        }
+        int day = digits(b, p, 2);
+        int month = month(b[p + 3], b[p + 4], b[p + 5]);
+        int year = digits(b, p + 7, 4);
+        int hour = digits(b, p + 12, 2);
+        int minute = digits(b, p + 15, 2);
+        int second = digits(b, p + 18, 2);
+        int zoneHours = digits(b, p + 22, 2);
+        int zoneMinutes = digits(b, p + 24, 2);
+        byte zoneSign = b[p + 21];
+        // 任一字段包含非数字字符时为-1，按位或之后为负数
+        if ((day | month | year | hour | minute | second | zoneHours | zoneMinutes) < 0
+                || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 60 || zoneMinutes > 59
+                || (zoneSign != '+' && zoneSign != '-')) {
+            return INVALID_TIMESTAMP;
+        }
+        long zoneOffset = (zoneHours * 60L + zoneMinutes) * 60;
+        long localSeconds = daysFromCivil(year, month, day) * 86400 + hour * 3600L + minute * 60L + second;
+        return zoneSign == '+' ? localSeconds - zoneOffset : localSeconds + zoneOffset;
+    }
+    
+    /**
+     * 解析固定位数的十进制数，包含非数字字符时返回-1
+     */
+    private static int digits(byte[] b, int p, int count) {
+        int value = 0;
+        for (int i = p; i < p + count; i++) {
+            if (!isDigit(b[i])) {
+                return -1;
+            }
+            value = value * 10 + (b[i] - '0');
+        }
+        return value;
+    }
+    
+    /**
+     * 解析英文月份缩写
+     * 
+     * @return 1~12，无法识别时返回-1
+     */
+    private static int month(byte c0, byte c1, byte c2) {
+        switch ((c0 << 16) | (c1 << 8) | c2) {
+            case ('J' << 16) | ('a' << 8) | 'n': return 1;
+            case ('F' << 16) | ('e' << 8) | 'b': return 2;
+            case ('M' << 16) | ('a' << 8) | 'r': return 3;
+            case ('A' << 16) | ('p' << 8) | 'r': return 4;
+            case ('M' << 16) | ('a' << 8) | 'y': return 5;
+            case ('J' << 16) | ('u' << 8) | 'n': return 6;
+            case ('J' << 16) | ('u' << 8) | 'l': return 7;
+            case ('A' << 16) | ('u' << 8) | 'g': return 8;
+            case ('S' << 16) | ('e' << 8) | 'p': return 9;
+            case ('O' << 16) | ('c' << 8) | 't': return 10;
+            case ('N' << 16) | ('o' << 8) | 'v': return 11;
+            case ('D' << 16) | ('e' << 8) | 'c': return 12;
+            default: return -1;
+        }
+    }
+    
+    /**
+     * 公历日期到1970-01-01的天数（Howard Hinnant的days_from_civil算法）
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+    
+    /**
+     * 获取通过正则回退路径解析的行数
+     * 
+     * @return 回退次数
+     */
+    public long getFallbackCount() {
+        return fallbackCount;
+    }
+    
+    /**
+     * 以下方法会创建新的字符串，只应在需要字符串形式时调用
+     */
+    public String getIp() {
+        return new String(buffer, ipStart, ipEnd - ipStart, StandardCharsets.UTF_8);
+    }
+    
+    public String getTimestamp() {
+        return new String(buffer, timestampStart, timestampEnd - timestampStart, StandardCharsets.UTF_8);
+    }
+    
+    public String getMethod() {
+        return new String(buffer, methodStart, methodEnd - methodStart, StandardCharsets.UTF_8);
+    }
+    
+    public String getUrl() {
+        return new String(buffer, urlStart, urlEnd - urlStart, StandardCharsets.UTF_8);
+    }
+    
+    public String getProtocol() {
+        return new String(buffer, protocolStart, protocolEnd - protocolStart, StandardCharsets.UTF_8);
+    }
+}
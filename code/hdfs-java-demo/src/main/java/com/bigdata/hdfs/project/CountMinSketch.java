@@ -0,0 +1,149 @@
+package com.bigdata.hdfs.project;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count-Min计数草图
+ * 用depth行、每行width个计数器近似统计每个键的出现次数，内存占用固定为 depth * width * 8 字节，与键的数量无关。
+ * 
+ * 误差界：width = ⌈e/ε⌉、depth = ⌈ln(1/δ)⌉ 时，估计值不小于真实值，并且以不低于 1-δ 的概率
+ * 不超过 真实值 + ε·N（N为所有计数之和）。相同参数创建的草图可以合并
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public final class CountMinSketch {
+    
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+    
+    /**
+     * 构造函数
+     * 
+     * @param epsilon 相对误差ε（相对于计数总和），如0.0001
+     * @param delta 误差超出界限的概率δ，如0.01
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("epsilon和delta必须在(0, 1)之间");
+        }
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / delta));
+        this.counters = new long[depth * width];
+    }
+    
+    private CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        this.counters = new long[depth * width];
+    }
+    
+    /**
+     * 累加计数
+     * 
+     * @param key 键（调用方负责将键编码为long）
+     * @param count 增量
+     * @return 累加后的估计值
+     */
+    public long add(long key, long count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + bucket(key, row);
+            counters[index] += count;
+            estimate = Math.min(estimate, counters[index]);
+        }
+        return estimate;
+    }
+    
+    /**
+     * 估计键的出现次数
+     * 
+     * @param key 键
+     * @return 估计值，不小于真实值
+     */
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + bucket(key, row)]);
+        }
+        return estimate;
+    }
+    
+    /**
+     * 合并另一个相同参数的草图
+     * 
+     * @param other 另一个草图
+     */
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("只能合并相同参数的Count-Min草图");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+    }
+    
+    /**
+     * 获取计数器占用的内存（字节）
+     * 
+     * @return 字节数
+     */
+    public long getMemoryBytes() {
+        return counters.length * 8L;
+    }
+    
+    /**
+     * 序列化草图
+     * 
+     * @param out 输出
+     * @throws IOException 写入异常
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(width);
+        for (long counter : counters) {
+            out.writeLong(counter);
+        }
+    }
+    
+    /**
+     * 反序列化草图
+     * 
+     * @param in 输入
+     * @return 草图
+     * @throws IOException 读取异常或数据无效
+     */
+    static CountMinSketch read(DataInput in) throws IOException {
+        int depth = in.readInt();
+        int width = in.readInt();
+        if (depth <= 0 || width <= 0 || (long) depth * width > Integer.MAX_VALUE) {
+            throw new IOException("无效的Count-Min草图大小: " + depth + " x " + width);
+        }
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+        for (int i = 0; i < sketch.counters.length; i++) {
+            sketch.counters[i] = in.readLong();
+        }
+        return sketch;
+    }
+    
+    private int bucket(long key, int row) {
+        // 每行使用不同的种子，种子固定以保证不同实例可以合并
+        long h = mix64(key + (row + 1) * 0x9E3779B97F4A7C15L);
+        return (int) ((h >>> 1) % width);
+    }
+    
+    /**
+     * MurmurHash3的64位终结函数
+     */
+    static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,191 @@
+package com.bigdata.hdfs.project;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * int到long的开放寻址哈希表
+ * 键和值分别存放在int[]和long[]中，线性探测解决冲突，更新计数时不创建任何对象。
+ * 每个条目约占24字节（负载因子0.5），而HashMap&lt;String, Integer&gt;每个条目需要上百字节并且每次更新都会装箱。
+ * 不是线程安全的，不支持删除
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+final class IntLongHashMap {
+    
+    private static final int MIN_CAPACITY = 16;
+    
+    // 0作为空槽标记，键为0的条目单独存放
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean hasZeroKey;
+    private long zeroValue;
+    
+    IntLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+    
+    IntLongHashMap(int expectedSize) {
+        allocate(tableSizeFor(Math.max(MIN_CAPACITY, expectedSize * 2)));
+    }
+    
+    /**
+     * 将指定键的值加上delta，键不存在时视为0
+     */
+    void addTo(int key, long delta) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue += delta;
+            return;
+        }
+        int index = hash(key) & mask;
+        while (true) {
+            int existing = keys[index];
+            if (existing == key) {
+                values[index] += delta;
+                return;
+            }
+            if (existing == 0) {
+                keys[index] = key;
+                values[index] = delta;
+                if (++size > resizeThreshold) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    /**
+     * 获取指定键的值，不存在返回0
+     */
+    long get(int key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int index = hash(key) & mask;
+        while (true) {
+            int existing = keys[index];
+            if (existing == key) {
+                return values[index];
+            }
+            if (existing == 0) {
+                return 0;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * 遍历所有条目，顺序不确定
+     */
+    void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+    
+    /**
+     * 将另一个表的计数累加到当前表
+     */
+    void addAll(IntLongHashMap other) {
+        other.forEach(this::addTo);
+    }
+    
+    /**
+     * 序列化所有条目
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        if (hasZeroKey) {
+            out.writeInt(0);
+            out.writeLong(zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                out.writeInt(keys[i]);
+                out.writeLong(values[i]);
+            }
+        }
+    }
+    
+    /**
+     * 反序列化，表的容量按条目数预先分配
+     */
+    static IntLongHashMap read(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("无效的条目数: " + size);
+        }
+        IntLongHashMap map = new IntLongHashMap(size);
+        for (int i = 0; i < size; i++) {
+            map.addTo(in.readInt(), in.readLong());
+        }
+        return map;
+    }
+    
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        size = hasZeroKey ? 1 : 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int index = hash(key) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+                size++;
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2;
+    }
+    
+    /**
+     * 打散键的分布，IP地址的低位往往集中在少数网段
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return n < 0 ? 1 << 30 : Math.max(n, MIN_CAPACITY);
+    }
+    
+    /**
+     * 条目遍历回调
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(int key, long value);
+    }
+}
@@ -1,15 +1,21 @@
 package com.bigdata.hdfs.project;
 
+import com.bigdata.hdfs.util.ByteRange;
 import com.bigdata.hdfs.util.HDFSUtil;
+import org.apache.hadoop.fs.FileStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.StringReader;
-import java.util.HashMap;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
 
 /**
  * 日志文件分析器
@@ -22,154 +28,341 @@ public class LogAnalyzer {
     
     private static final Logger logger = LoggerFactory.getLogger(LogAnalyzer.class);
     
-    // Apache日志格式正则表达式
-    private static final String LOG_PATTERN = 
-        "^(\\S+) \\S+ \\S+ \\[([\\w:/]+\\s[+\\-]\\d{4})\\] \"(\\S+) (\\S+) (\\S+)\" (\\d{3}) (\\d+)";
+    // 报告中展示的IP排行数量
+    private static final int TOP_IP_COUNT = 10;
     
-    private static final Pattern pattern = Pattern.compile(LOG_PATTERN);
+    // 近似模式下Top-K候选集的大小，多跟踪一些候选可以提高前几名排序的准确性
+    private static final int TOP_IP_CANDIDATES = 100;
+    
+    private static final String LOG_FILE_PATH = "/user/bigdata/access.log";
+    
+    // 生成的测试日志大小和随机种子
+    private static final long TEST_LOG_BYTES = 16L * 1024 * 1024;
+    private static final long TEST_LOG_SEED = 42;
+    
+    // 增量分析的检查点文件
+    private static final String CHECKPOINT_PATH = "/user/bigdata/access.log.checkpoint";
+    
+    // 时间序列的基础时间桶宽度（秒），小时窗口和滑动窗口都由分钟桶汇总
+    private static final long TIME_BUCKET_SECONDS = 60;
+    
+    // 与请求中位时间相距超过该值的时间戳视为异常（如年份写错），不计入时间窗口
+    private static final long MAX_TIME_DISTANCE_SECONDS = 366L * 24 * 3600;
+    
+    // 时间序列输出文件，扩展名为.gz时自动压缩
+    private static final String TIME_SERIES_PATH = "/user/bigdata/access_timeseries.tsv.gz";
+    
+    // 完整统计结果的列式二进制文件，供下游作业通过LogResultReader读取
+    private static final String RESULT_PATH = "/user/bigdata/log_analysis_result.lgr";
     
     public static void main(String[] args) {
         LogAnalyzer analyzer = new LogAnalyzer();
+        HDFSUtil hdfsUtil = null;
+        int parallelism = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        // 第二个参数为 approximate 时使用草图统计IP，内存占用与不同IP的数量无关
+        boolean approximate = args.length > 1 && "approximate".equalsIgnoreCase(args[1]);
+        // 第三个参数为 incremental 时从检查点继续，只分析上次之后追加的日志
+        boolean incremental = args.length > 2 && "incremental".equalsIgnoreCase(args[2]);
+        // 第四个参数为日志路径，可以是目录或通配符（增量模式只支持单个未压缩文件），不指定时分析生成的测试日志
+        String logPath = args.length > 3 ? args[3] : LOG_FILE_PATH;
         
         try {
-            // 1. 创建测试日志文件
-            analyzer.createTestLogFile();
+            // 整个分析过程共用一个HDFS连接
+            hdfsUtil = new HDFSUtil("hdfs://10.132.144.24:9000");
+            
+            // 1. 创建测试日志文件（增量模式下日志由Web服务器持续追加，不重新生成）
+            if (!incremental && LOG_FILE_PATH.equals(logPath)) {
+                analyzer.createTestLogFile(hdfsUtil);
+            }
             
             // 2. 分析日志文件
-            analyzer.analyzeLogFile("/user/bigdata/access.log");
+            analyzer.analyzeLogFile(hdfsUtil, logPath, parallelism, approximate, incremental);
             
         } catch (Exception e) {
             logger.error("日志分析异常", e);
+        } finally {
+            if (hdfsUtil != null) {
+                hdfsUtil.close();
+            }
         }
     }
     
     /**
      * 创建测试日志文件
+     * 由LogGenerator流式生成，IP和URL服从Zipf分布，固定种子保证每次生成的内容相同
+     * 
+     * @param hdfsUtil HDFS工具类
      */
-    private void createTestLogFile() {
-        try {
-            HDFSUtil hdfsUtil = new HDFSUtil("hdfs://10.132.144.24:9000");
-            
-            // 创建模拟的Apache访问日志
-            StringBuilder logContent = new StringBuilder();
-            String[] ips = {"192.168.1.100", "192.168.1.101", "192.168.1.102", "10.0.0.1", "10.0.0.2"};
-            String[] methods = {"GET", "POST", "PUT", "DELETE"};
-            String[] urls = {"/index.html", "/api/users", "/api/orders", "/images/logo.png", "/css/style.css"};
-            int[] statusCodes = {200, 404, 500, 301, 403};
-            
-            for (int i = 0; i < 1000; i++) {
-                String ip = ips[i % ips.length];
-                String method = methods[i % methods.length];
-                String url = urls[i % urls.length];
-                int statusCode = statusCodes[i % statusCodes.length];
-                int responseSize = (int) (Math.random() * 10000) + 100;
-                
-                String logLine = String.format(
-                    "%s - - [25/Dec/2023:10:%02d:%02d +0800] \"%s %s HTTP/1.1\" %d %d\n",
-                    ip, i / 60, i % 60, method, url, statusCode, responseSize
-                );
-                
-                logContent.append(logLine);
-            }
-            
-            // 上传到HDFS
-            hdfsUtil.writeFile("/user/bigdata/access.log", logContent.toString());
-            logger.info("测试日志文件创建完成");
-            
-            hdfsUtil.close();
-            
-        } catch (Exception e) {
-            logger.error("创建测试日志文件异常", e);
+    private void createTestLogFile(HDFSUtil hdfsUtil) {
+        LogGenerator generator = new LogGenerator(TEST_LOG_SEED);
+        long[] lines = new long[1];
+        if (hdfsUtil.writeFile(LOG_FILE_PATH, hdfsUtil.getReplicationFactor(), false,
+                               out -> lines[0] = generator.write(out, TEST_LOG_BYTES))) {
+            logger.info("测试日志文件创建完成: {} 行", lines[0]);
         }
     }
     
     /**
      * 分析日志文件
      * 
-     * @param logFilePath 日志文件路径
+     * @param hdfsUtil HDFS工具类
+     * @param logFilePath 日志文件路径、目录或通配符（增量模式只支持单个未压缩文件）
+     * @param parallelism 并发分析线程数
+     * @param approximate 是否使用近似模式统计IP
+     * @param incremental 是否从检查点继续增量分析
      */
-    private void analyzeLogFile(String logFilePath) {
+    private void analyzeLogFile(HDFSUtil hdfsUtil, String logFilePath, int parallelism, boolean approximate,
+                                boolean incremental) {
+        LogTimeSeries timeSeries;
         try {
-            HDFSUtil hdfsUtil = new HDFSUtil("hdfs://10.132.144.24:9000");
-            
-            // 读取日志文件内容
-            String logContent = hdfsUtil.readFile(logFilePath);
-            if (logContent == null) {
+            long startTime = System.currentTimeMillis();
+            LogStatistics statistics = incremental
+                ? analyzeIncremental(hdfsUtil, logFilePath, CHECKPOINT_PATH, parallelism, approximate)
+                : analyze(hdfsUtil, logFilePath, parallelism, approximate);
+            if (statistics == null) {
                 logger.error("无法读取日志文件: {}", logFilePath);
                 return;
             }
             
-            // 分析统计
-            Map<String, Integer> ipCount = new HashMap<>();
-            Map<String, Integer> statusCount = new HashMap<>();
-            Map<String, Integer> methodCount = new HashMap<>();
-            long totalBytes = 0;
-            int totalRequests = 0;
-            
-            BufferedReader reader = new BufferedReader(new StringReader(logContent));
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                Matcher matcher = pattern.matcher(line);
-                
-                if (matcher.matches()) {
-                    String ip = matcher.group(1);
-                    String method = matcher.group(3);
-                    String statusCode = matcher.group(6);
-                    String responseSize = matcher.group(7);
-                    
-                    // 统计IP访问次数
-                    ipCount.put(ip, ipCount.getOrDefault(ip, 0) + 1);
-                    
-                    // 统计状态码
-                    statusCount.put(statusCode, statusCount.getOrDefault(statusCode, 0) + 1);
-                    
-                    // 统计请求方法
-                    methodCount.put(method, methodCount.getOrDefault(method, 0) + 1);
-                    
-                    // 累计响应大小
-                    totalBytes += Long.parseLong(responseSize);
-                    totalRequests++;
-                }
+            long totalBytes = statistics.getTotalBytes();
+            long totalRequests = statistics.getTotalRequests();
+            if (totalRequests == 0) {
+                logger.warn("日志文件中没有可解析的记录: {}", logFilePath);
+                return;
+            }
+            if (statistics.getFallbackLines() > 0) {
+                logger.info("格式不规范的日志行: {} 行（已通过正则表达式解析）", statistics.getFallbackLines());
             }
             
             // 输出分析结果
             logger.info("=== 日志分析结果 ===");
+            logger.info("分析耗时: {} 毫秒（{} 个线程）", System.currentTimeMillis() - startTime, parallelism);
             logger.info("总请求数: {}", totalRequests);
             logger.info("总响应字节数: {} ({} MB)", totalBytes, totalBytes / 1024 / 1024);
             logger.info("平均响应大小: {} 字节", totalBytes / totalRequests);
             
-            logger.info("\n=== IP访问统计 ===");
-            ipCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .forEach(entry -> logger.info("{}: {} 次", entry.getKey(), entry.getValue()));
+            List<Map.Entry<String, Long>> topIps = statistics.getTopIps(TOP_IP_COUNT);
+            long distinctIps = statistics.getDistinctIpCount();
+            Map<String, Long> statusCount = statistics.getStatusCount();
+            Map<String, Long> methodCount = statistics.getMethodCount();
+            
+            logger.info("\n=== IP访问统计{} ===", approximate ? "（近似）" : "");
+            logger.info("不同IP数: {}", distinctIps);
+            topIps.forEach(entry -> logger.info("{}: {} 次", entry.getKey(), entry.getValue()));
             
             logger.info("\n=== 状态码统计 ===");
             statusCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .forEach(entry -> logger.info("{}: {} 次", entry.getKey(), entry.getValue()));
             
             logger.info("\n=== 请求方法统计 ===");
             methodCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .forEach(entry -> logger.info("{}: {} 次", entry.getKey(), entry.getValue()));
             
-            // 保存分析结果到HDFS
-            saveAnalysisResult(hdfsUtil, ipCount, statusCount, methodCount, totalRequests, totalBytes);
+            // 年份写错等远离日志主体时间范围的行计为无效时间戳，不参与时间窗口统计
+            timeSeries = statistics.getTimeSeries();
+            long outliers = timeSeries.discardOutliers(MAX_TIME_DISTANCE_SECONDS);
+            if (outliers > 0) {
+                logger.warn("时间戳远离日志时间范围的日志行: {} 行（未计入时间窗口）", outliers);
+            }
             
-            hdfsUtil.close();
+            // 保存分析结果到HDFS，文本报告和列式结果先于时间序列保存，不受时间序列异常的影响
+            saveAnalysisResult(hdfsUtil, topIps, distinctIps, approximate, statusCount, methodCount, totalRequests, totalBytes);
+            saveColumnarResult(hdfsUtil, statistics);
             
         } catch (Exception e) {
             logger.error("分析日志文件异常", e);
+            return;
+        }
+        
+        try {
+            logger.info("\n=== 每小时请求统计 ===");
+            for (LogTimeSeries.Window window : timeSeries.getWindows(3600, 3600)) {
+                logger.info("{}: {} 次请求, {} 字节, 5xx {} 次", Instant.ofEpochSecond(window.getStart()),
+                            window.getRequests(), window.getBytes(), window.getStatusClassCount(5));
+            }
+            if (timeSeries.getInvalidTimestamps() > 0) {
+                logger.warn("时间戳无法解析或超出日志时间范围的日志行: {} 行（未计入时间窗口）", timeSeries.getInvalidTimestamps());
+            }
+            saveTimeSeries(hdfsUtil, timeSeries);
+            
+        } catch (Exception e) {
+            logger.error("时间序列统计异常", e);
+        }
+    }
+    
+    /**
+     * 统计日志文件
+     * 路径可以是单个文件、目录或通配符（如按小时轮转的 /logs/2024-01-01/*.log.gz），匹配到的所有文件一起统计。
+     * 未压缩的文件按换行边界切分为多个字节区间，压缩文件整体读取，所有任务按大小从大到小在线程池中并行解析，
+     * 每个线程累计到自己的LogStatistics，最后合并
+     * 
+     * @param hdfsUtil HDFS工具类
+     * @param logFilePath 日志文件路径、目录或通配符
+     * @param parallelism 并发分析线程数
+     * @return 统计结果，读取失败返回null
+     */
+    public LogStatistics analyze(HDFSUtil hdfsUtil, String logFilePath, int parallelism) {
+        return analyze(hdfsUtil, logFilePath, parallelism, false);
+    }
+    
+    /**
+     * 统计日志文件，可选择近似模式
+     * 近似模式下IP排行和不同IP数由固定大小的草图给出，误差界见LogStatistics
+     * 
+     * @param hdfsUtil HDFS工具类
+     * @param logFilePath 日志文件路径、目录或通配符
+     * @param parallelism 并发分析线程数
+     * @param approximate 是否使用近似模式统计IP
+     * @return 统计结果，读取失败返回null
+     */
+    public LogStatistics analyze(HDFSUtil hdfsUtil, String logFilePath, int parallelism, boolean approximate) {
+        List<LogStatistics> partials = hdfsUtil.readLineBytesGlob(logFilePath, parallelism,
+                                                                  statisticsFactory(approximate));
+        if (partials == null) {
+            return null;
+        }
+        LogStatistics statistics = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            statistics.merge(partials.get(i));
+        }
+        return statistics;
+    }
+    
+    /**
+     * 增量统计日志文件
+     * 从检查点记录的偏移开始，只读取之后追加的完整行并合并到检查点中的统计结果，然后更新检查点。
+     * 末尾写了一半的行留到下一次分析。检查点不存在、属于其他文件或统计模式不同，
+     * 以及日志文件变短或开头内容变化（被截断或轮转）时，从头全量分析。只支持未压缩的日志文件
+     * 
+     * @param hdfsUtil HDFS工具类
+     * @param logFilePath 日志文件路径
+     * @param checkpointPath 检查点文件路径
+     * @param parallelism 并发分析线程数
+     * @param approximate 是否使用近似模式统计IP
+     * @return 截至最后一个完整行的统计结果，读取失败返回null
+     */
+    public LogStatistics analyzeIncremental(HDFSUtil hdfsUtil, String logFilePath, String checkpointPath,
+                                            int parallelism, boolean approximate) {
+        FileStatus status = hdfsUtil.getFileStatus(logFilePath);
+        if (status == null) {
+            return null;
+        }
+        long fileLength = status.getLen();
+        
+        LogCheckpoint checkpoint = loadCheckpoint(hdfsUtil, checkpointPath);
+        if (checkpoint != null && !canResume(hdfsUtil, checkpoint, logFilePath, fileLength, approximate)) {
+            checkpoint = null;
+        }
+        LogStatistics statistics = checkpoint != null ? checkpoint.statistics : statisticsFactory(approximate).get();
+        long startOffset = checkpoint != null ? checkpoint.offset : 0;
+        
+        long endOffset = hdfsUtil.findLastLineEnd(logFilePath, startOffset, fileLength);
+        if (endOffset < 0) {
+            return null;
         }
+        if (endOffset > startOffset) {
+            List<LogStatistics> partials = hdfsUtil.readLineBytesParallel(logFilePath, startOffset, endOffset,
+                                                                          parallelism, statisticsFactory(approximate));
+            if (partials == null) {
+                return null;
+            }
+            partials.forEach(statistics::merge);
+        }
+        logger.info("增量分析: {} 读取区间 [{}, {})，共 {} 字节", logFilePath, startOffset, endOffset, endOffset - startOffset);
+        
+        int headLength = (int) Math.min(LogCheckpoint.HEAD_BYTES, endOffset);
+        long headChecksum = headChecksum(hdfsUtil, logFilePath, headLength);
+        if (headChecksum < 0) {
+            logger.error("无法计算日志文件头校验和，检查点未更新: {}", logFilePath);
+            return statistics;
+        }
+        try {
+            LogCheckpoint updated = new LogCheckpoint(logFilePath, fileLength, endOffset, headLength, headChecksum, statistics);
+            // 原子写入，分析中断时旧检查点仍然完整
+            if (hdfsUtil.writeFile(checkpointPath, updated.toBytes(), hdfsUtil.getReplicationFactor(), true)) {
+                logger.info("检查点已更新: {} (偏移 {})", checkpointPath, endOffset);
+            }
+        } catch (Exception e) {
+            logger.error("保存检查点异常: {}", checkpointPath, e);
+        }
+        return statistics;
+    }
+    
+    private static Supplier<LogStatistics> statisticsFactory(boolean approximate) {
+        return approximate
+            ? () -> LogStatistics.approximate(TOP_IP_CANDIDATES).withTimeSeries(TIME_BUCKET_SECONDS)
+            : () -> new LogStatistics().withTimeSeries(TIME_BUCKET_SECONDS);
+    }
+    
+    /**
+     * 读取检查点，不存在或无法解析时返回null
+     */
+    private LogCheckpoint loadCheckpoint(HDFSUtil hdfsUtil, String checkpointPath) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(hdfsUtil.openInputStream(checkpointPath)))) {
+            return LogCheckpoint.read(in);
+        } catch (FileNotFoundException e) {
+            logger.info("检查点不存在，执行全量分析: {}", checkpointPath);
+            return null;
+        } catch (Exception e) {
+            logger.warn("检查点无法读取，执行全量分析: {}", checkpointPath, e);
+            return null;
+        }
+    }
+    
+    /**
+     * 检查能否从检查点继续分析
+     */
+    private boolean canResume(HDFSUtil hdfsUtil, LogCheckpoint checkpoint, String logFilePath, long fileLength,
+                              boolean approximate) {
+        if (!checkpoint.logPath.equals(logFilePath)) {
+            logger.info("检查点属于其他日志文件 {}，执行全量分析", checkpoint.logPath);
+            return false;
+        }
+        if (checkpoint.statistics.isApproximate() != approximate) {
+            logger.info("检查点的统计模式与本次不同，执行全量分析");
+            return false;
+        }
+        LogTimeSeries timeSeries = checkpoint.statistics.getTimeSeries();
+        if (timeSeries == null || timeSeries.getBucketSeconds() != TIME_BUCKET_SECONDS) {
+            logger.info("检查点的时间桶宽度与本次不同，执行全量分析");
+            return false;
+        }
+        if (fileLength < checkpoint.fileLength) {
+            logger.info("日志文件变短（{} -> {} 字节），可能已被截断或轮转，执行全量分析", checkpoint.fileLength, fileLength);
+            return false;
+        }
+        if (headChecksum(hdfsUtil, logFilePath, checkpoint.headLength) != checkpoint.headChecksum) {
+            logger.info("日志文件开头的内容发生变化，可能已被轮转，执行全量分析");
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * 计算文件开头length个字节的CRC32，读取失败返回-1
+     */
+    private static long headChecksum(HDFSUtil hdfsUtil, String logFilePath, int length) {
+        CRC32 crc = new CRC32();
+        if (length > 0) {
+            try {
+                crc.update(hdfsUtil.readRanges(logFilePath, Collections.singletonList(new ByteRange(0, length))).get(0));
+            } catch (IOException e) {
+                logger.warn("读取日志文件开头失败: {}", logFilePath, e);
+                return -1;
+            }
+        }
+        return crc.getValue();
     }
     
     /**
      * 保存分析结果到HDFS
      */
-    private void saveAnalysisResult(HDFSUtil hdfsUtil, Map<String, Integer> ipCount, 
-                                   Map<String, Integer> statusCount, Map<String, Integer> methodCount,
-                                   int totalRequests, long totalBytes) {
+    private void saveAnalysisResult(HDFSUtil hdfsUtil, List<Map.Entry<String, Long>> topIps, 
+                                   long distinctIps, boolean approximate,
+                                   Map<String, Long> statusCount, Map<String, Long> methodCount,
+                                   long totalRequests, long totalBytes) {
         try {
             StringBuilder result = new StringBuilder();
             result.append("=== 日志分析报告 ===\n");
@@ -178,17 +371,15 @@ public class LogAnalyzer {
             result.append("总体统计:\n");
             result.append("总请求数: ").append(totalRequests).append("\n");
             result.append("总响应字节数: ").append(totalBytes).append("\n");
-            result.append("平均响应大小: ").append(totalBytes / totalRequests).append(" 字节\n\n");
+            result.append("平均响应大小: ").append(totalBytes / totalRequests).append(" 字节\n");
+            result.append("不同IP数: ").append(distinctIps).append(approximate ? "（近似值）" : "").append("\n\n");
             
-            result.append("IP访问排行:\n");
-            ipCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(10)
-                .forEach(entry -> result.append(entry.getKey()).append(": ").append(entry.getValue()).append(" 次\n"));
+            result.append("IP访问排行").append(approximate ? "（近似值）" : "").append(":\n");
+            topIps.forEach(entry -> result.append(entry.getKey()).append(": ").append(entry.getValue()).append(" 次\n"));
             
             result.append("\n状态码统计:\n");
             statusCount.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .forEach(entry -> result.append(entry.getKey()).append(": ").append(entry.getValue()).append(" 次\n"));
             
             // 保存到HDFS
@@ -199,4 +390,51 @@ public class LogAnalyzer {
             logger.error("保存分析结果异常", e);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 保存时间序列到HDFS
+     * 每个窗口一行，制表符分隔：窗口类型、起始时间（UTC）、请求数、响应字节数、1xx~5xx次数。
+     * 包括每分钟和每小时的滚动窗口，以及每分钟滑动一次的5分钟窗口
+     */
+    private void saveTimeSeries(HDFSUtil hdfsUtil, LogTimeSeries timeSeries) {
+        try {
+            StringBuilder result = new StringBuilder();
+            result.append("window\tstart\trequests\tbytes\t1xx\t2xx\t3xx\t4xx\t5xx\n");
+            appendWindows(result, "1m", timeSeries.getWindows(60, 60));
+            appendWindows(result, "1h", timeSeries.getWindows(3600, 3600));
+            appendWindows(result, "5m/1m", timeSeries.getWindows(300, 60));
+            
+            hdfsUtil.writeFile(TIME_SERIES_PATH, result.toString());
+            logger.info("时间序列已保存到: {}", TIME_SERIES_PATH);
+            
+        } catch (Exception e) {
+            logger.error("保存时间序列异常", e);
+        }
+    }
+    
+    /**
+     * 保存完整统计结果到HDFS
+     * 文本报告只保留Top-10的IP，列式文件保存全部统计值，格式见LogResultWriter
+     */
+    private void saveColumnarResult(HDFSUtil hdfsUtil, LogStatistics statistics) {
+        try {
+            byte[] data = LogResultWriter.toBytes(statistics);
+            if (hdfsUtil.writeFile(RESULT_PATH, data, hdfsUtil.getReplicationFactor(), true)) {
+                logger.info("列式统计结果已保存到: {} ({} 字节)", RESULT_PATH, data.length);
+            }
+        } catch (Exception e) {
+            logger.error("保存列式统计结果异常", e);
+        }
+    }
+    
+    private static void appendWindows(StringBuilder result, String label, List<LogTimeSeries.Window> windows) {
+        for (LogTimeSeries.Window window : windows) {
+            result.append(label).append('\t').append(Instant.ofEpochSecond(window.getStart()))
+                  .append('\t').append(window.getRequests()).append('\t').append(window.getBytes());
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                result.append('\t').append(window.getStatusClassCount(statusClass));
+            }
+            result.append('\n');
+        }
+    }
+}
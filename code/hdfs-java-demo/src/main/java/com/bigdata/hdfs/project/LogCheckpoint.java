@@ -0,0 +1,88 @@
+package com.bigdata.hdfs.project;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 增量日志分析的检查点
+ * 记录日志文件路径、上次分析时的文件长度、已处理到的偏移（最后一个完整行的结束位置）、
+ * 文件开头若干字节的CRC32校验和，以及截至该偏移的统计结果。
+ * 下次分析时只读取偏移之后追加的行并合并到统计结果中；文件变短或开头内容变化说明日志被截断或轮转，需要全量重新分析
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+final class LogCheckpoint {
+
+    static final int MAGIC = 0x4C474350; // "LGCP"
+    static final int VERSION = 2;
+
+    // 参与校验和计算的文件头字节数
+    static final int HEAD_BYTES = 4096;
+
+    final String logPath;
+    final long fileLength;
+    final long offset;
+    final int headLength;
+    final long headChecksum;
+    final LogStatistics statistics;
+
+    LogCheckpoint(String logPath, long fileLength, long offset, int headLength, long headChecksum,
+                  LogStatistics statistics) {
+        this.logPath = logPath;
+        this.fileLength = fileLength;
+        this.offset = offset;
+        this.headLength = headLength;
+        this.headChecksum = headChecksum;
+        this.statistics = statistics;
+    }
+
+    /**
+     * 序列化检查点
+     *
+     * @return 检查点文件内容
+     * @throws IOException 序列化异常
+     */
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(logPath);
+            out.writeLong(fileLength);
+            out.writeLong(offset);
+            out.writeInt(headLength);
+            out.writeLong(headChecksum);
+            statistics.write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 读取检查点
+     *
+     * @param in 输入
+     * @return 检查点
+     * @throws IOException 读取异常，格式或版本不匹配
+     */
+    static LogCheckpoint read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("无效的日志分析检查点文件");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("不支持的检查点版本: " + version);
+        }
+        String logPath = in.readUTF();
+        long fileLength = in.readLong();
+        long offset = in.readLong();
+        int headLength = in.readInt();
+        long headChecksum = in.readLong();
+        if (offset < 0 || offset > fileLength || headLength < 0 || headLength > offset) {
+            throw new IOException("检查点中的偏移无效: offset=" + offset + ", fileLength=" + fileLength);
+        }
+        return new LogCheckpoint(logPath, fileLength, offset, headLength, headChecksum, LogStatistics.read(in));
+    }
+}
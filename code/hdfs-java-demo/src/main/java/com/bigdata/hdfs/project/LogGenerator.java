@@ -0,0 +1,372 @@
+package com.bigdata.hdfs.project;
+
+import com.bigdata.hdfs.config.HDFSConfig;
+import com.bigdata.hdfs.util.HDFSUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * 模拟访问日志生成器
+ * 按组合日志格式（Combined Log Format）流式生成任意大小的访问日志，直接写入输出流，内存占用与日志大小无关。
+ *
+ * <ul>
+ *   <li>客户端IP和URL服从Zipf分布：少数IP和页面占大部分请求，其余是长尾</li>
+ *   <li>状态码、请求方法按常见网站的比例抽样，响应大小与状态码相关（304无响应体，200为对数正态分布）</li>
+ *   <li>时间戳从起始时间单调递增，请求间隔服从指数分布，请求速率按一天内的时段周期变化（凌晨低、下午高）</li>
+ * </ul>
+ * 相同的种子和参数生成完全相同的内容，便于对比不同版本的分析性能。
+ * 每行直接拼接到复用的字节缓冲区，不使用String.format，也不为每行分配对象，生成速度远高于分析速度
+ *
+ * 用法: LogGenerator [文件系统地址] [输出路径] [大小MB] [种子]，输出路径以.gz结尾时压缩写入
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogGenerator.class);
+
+    private static final byte[][] METHODS = bytes("GET", "POST", "HEAD", "PUT", "DELETE");
+    private static final double[] METHOD_WEIGHTS = {0.85, 0.10, 0.02, 0.02, 0.01};
+
+    private static final int[] STATUS_CODES = {200, 304, 301, 302, 404, 403, 500, 502, 503};
+    private static final double[] STATUS_WEIGHTS = {0.84, 0.06, 0.01, 0.02, 0.04, 0.005, 0.01, 0.005, 0.01};
+
+    private static final byte[][] USER_AGENTS = bytes(
+        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36",
+        "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Safari/605.1.15",
+        "Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Mobile/15E148",
+        "Mozilla/5.0 (X11; Linux x86_64; rv:120.0) Gecko/20100101 Firefox/120.0",
+        "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)",
+        "curl/8.4.0");
+    private static final double[] USER_AGENT_WEIGHTS = {0.45, 0.2, 0.2, 0.08, 0.05, 0.02};
+
+    private static final byte[][] URL_PATTERNS = bytes("/products/", "/api/v1/items/", "/static/js/app.", "/images/", "/articles/");
+    private static final byte[][] URL_SUFFIXES = bytes(".html", "", ".js", ".png", "");
+
+    private static final byte[] MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PROTOCOL = " HTTP/1.1\" ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REFERER = " \"-\" \"".getBytes(StandardCharsets.US_ASCII);
+
+    // 时间戳的时区，与测试数据中的 +0800 一致
+    private static final int ZONE_OFFSET_SECONDS = 8 * 3600;
+
+    // " - - [dd/MMM/yyyy:HH:mm:ss +0800] \"" 的长度
+    private static final int TIMESTAMP_LENGTH = 35;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 512;
+
+    private final long seed;
+    private int ipCount = 100_000;
+    private double ipExponent = 1.0;
+    private int urlCount = 10_000;
+    private double urlExponent = 1.1;
+    private long startEpochSecond = 1703433600L; // 2023-12-25 00:00:00 +0800
+    private double requestsPerSecond = 1000;
+
+    /**
+     * 构造函数
+     *
+     * @param seed 随机种子，相同种子和参数生成相同的日志
+     */
+    public LogGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 设置不同客户端IP的数量和Zipf分布指数
+     *
+     * @param ipCount IP数量
+     * @param exponent 分布指数，越大请求越集中在少数IP上
+     * @return 当前实例
+     */
+    public LogGenerator withIps(int ipCount, double exponent) {
+        if (ipCount <= 0 || exponent <= 0) {
+            throw new IllegalArgumentException("IP数量和分布指数必须大于0");
+        }
+        this.ipCount = ipCount;
+        this.ipExponent = exponent;
+        return this;
+    }
+
+    /**
+     * 设置不同URL的数量和Zipf分布指数
+     *
+     * @param urlCount URL数量
+     * @param exponent 分布指数
+     * @return 当前实例
+     */
+    public LogGenerator withUrls(int urlCount, double exponent) {
+        if (urlCount <= 0 || exponent <= 0) {
+            throw new IllegalArgumentException("URL数量和分布指数必须大于0");
+        }
+        this.urlCount = urlCount;
+        this.urlExponent = exponent;
+        return this;
+    }
+
+    /**
+     * 设置第一条日志的时间和平均请求速率
+     *
+     * @param startEpochSecond 起始时间（UTC秒）
+     * @param requestsPerSecond 全天平均每秒请求数
+     * @return 当前实例
+     */
+    public LogGenerator withTime(long startEpochSecond, double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("请求速率必须大于0");
+        }
+        this.startEpochSecond = startEpochSecond;
+        this.requestsPerSecond = requestsPerSecond;
+        return this;
+    }
+
+    /**
+     * 生成日志写入输出流
+     * 写满targetBytes所在的那一行为止，输出流由调用方关闭
+     *
+     * @param out 输出流
+     * @param targetBytes 目标字节数
+     * @return 生成的行数
+     * @throws IOException 写入异常
+     */
+    public long write(OutputStream out, long targetBytes) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] ipCdf = zipfCdf(ipCount, ipExponent);
+        double[] urlCdf = zipfCdf(urlCount, urlExponent);
+        double[] methodCdf = cdf(METHOD_WEIGHTS);
+        double[] statusCdf = cdf(STATUS_WEIGHTS);
+        double[] userAgentCdf = cdf(USER_AGENT_WEIGHTS);
+        // 排名到IP的映射：乘以奇数在模2^32下是双射，保证不同排名对应不同IP，同时打散热点IP的地址
+        int ipSalt = (int) random.nextLong();
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] timestamp = new byte[TIMESTAMP_LENGTH];
+        long renderedSecond = Long.MIN_VALUE;
+        double time = startEpochSecond;
+        long written = 0;
+        long lines = 0;
+        int length = 0;
+
+        while (written + length < targetBytes) {
+            long second = (long) time;
+            if (second != renderedSecond) {
+                renderTimestamp(timestamp, second);
+                renderedSecond = second;
+            }
+
+            int ip = (sample(ipCdf, random.nextDouble()) + 1) * 0x9E3779B1 ^ ipSalt;
+            length = appendInt(buffer, length, ip >>> 24);
+            buffer[length++] = '.';
+            length = appendInt(buffer, length, ip >>> 16 & 0xFF);
+            buffer[length++] = '.';
+            length = appendInt(buffer, length, ip >>> 8 & 0xFF);
+            buffer[length++] = '.';
+            length = appendInt(buffer, length, ip & 0xFF);
+            length = append(buffer, length, timestamp);
+
+            length = append(buffer, length, METHODS[sample(methodCdf, random.nextDouble())]);
+            buffer[length++] = ' ';
+            int url = sample(urlCdf, random.nextDouble());
+            int pattern = url % URL_PATTERNS.length;
+            length = append(buffer, length, URL_PATTERNS[pattern]);
+            length = appendInt(buffer, length, url);
+            length = append(buffer, length, URL_SUFFIXES[pattern]);
+            length = append(buffer, length, PROTOCOL);
+
+            int status = STATUS_CODES[sample(statusCdf, random.nextDouble())];
+            length = appendInt(buffer, length, status);
+            buffer[length++] = ' ';
+            long size = responseSize(status, random);
+            if (size < 0) {
+                buffer[length++] = '-';
+            } else {
+                length = appendLong(buffer, length, size);
+            }
+            length = append(buffer, length, REFERER);
+            length = append(buffer, length, USER_AGENTS[sample(userAgentCdf, random.nextDouble())]);
+            buffer[length++] = '"';
+            buffer[length++] = '\n';
+            lines++;
+
+            if (length > BUFFER_SIZE - MAX_LINE_LENGTH) {
+                out.write(buffer, 0, length);
+                written += length;
+                length = 0;
+            }
+            time += -Math.log(1 - random.nextDouble()) / rate(second);
+        }
+        out.write(buffer, 0, length);
+        return lines;
+    }
+
+    /**
+     * 当前时刻的请求速率：以全天平均速率为中心按正弦变化，本地时间4点最低（平均值的20%），16点最高
+     */
+    private double rate(long epochSecond) {
+        double dayFraction = Math.floorMod(epochSecond + ZONE_OFFSET_SECONDS, 86400) / 86400.0;
+        return requestsPerSecond * (1 - 0.8 * Math.cos(2 * Math.PI * (dayFraction - 4 / 24.0)));
+    }
+
+    /**
+     * 按状态码生成响应大小，-1表示无响应体（输出为 -）
+     */
+    private static long responseSize(int status, SplittableRandom random) {
+        if (status == 304) {
+            return -1;
+        }
+        if (status >= 300 && status < 400) {
+            return 150 + random.nextInt(100);
+        }
+        if (status >= 400) {
+            return 200 + random.nextInt(800);
+        }
+        // 对数正态分布，中位数约5KB，少数响应达到数百KB
+        double gaussian = gaussian(random);
+        return (long) Math.exp(Math.log(5000) + 1.2 * gaussian);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller变换
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /**
+     * 按时区渲染 " - - [dd/MMM/yyyy:HH:mm:ss +0800] \""
+     */
+    private static void renderTimestamp(byte[] target, long epochSecond) {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.ofTotalSeconds(ZONE_OFFSET_SECONDS));
+        int p = 0;
+        for (byte b : " - - [".getBytes(StandardCharsets.US_ASCII)) {
+            target[p++] = b;
+        }
+        p = twoDigits(target, p, time.getDayOfMonth());
+        target[p++] = '/';
+        System.arraycopy(MONTHS, (time.getMonthValue() - 1) * 3, target, p, 3);
+        p += 3;
+        target[p++] = '/';
+        p = twoDigits(target, p, time.getYear() / 100);
+        p = twoDigits(target, p, time.getYear() % 100);
+        target[p++] = ':';
+        p = twoDigits(target, p, time.getHour());
+        target[p++] = ':';
+        p = twoDigits(target, p, time.getMinute());
+        target[p++] = ':';
+        p = twoDigits(target, p, time.getSecond());
+        for (byte b : " +0800] \"".getBytes(StandardCharsets.US_ASCII)) {
+            target[p++] = b;
+        }
+    }
+
+    private static int twoDigits(byte[] target, int p, int value) {
+        target[p] = (byte) ('0' + value / 10);
+        target[p + 1] = (byte) ('0' + value % 10);
+        return p + 2;
+    }
+
+    private static int append(byte[] target, int p, byte[] value) {
+        System.arraycopy(value, 0, target, p, value.length);
+        return p + value.length;
+    }
+
+    private static int appendInt(byte[] target, int p, int value) {
+        return appendLong(target, p, value & 0xFFFFFFFFL);
+    }
+
+    private static int appendLong(byte[] target, int p, long value) {
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = p + digits - 1; i >= p; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + digits;
+    }
+
+    /**
+     * Zipf分布的累积分布表，排名k（从0开始）的概率与 1/(k+1)^exponent 成正比
+     */
+    static double[] zipfCdf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int k = 0; k < n; k++) {
+            weights[k] = 1 / Math.pow(k + 1, exponent);
+        }
+        return cdf(weights);
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        cdf[cdf.length - 1] = 1.0;
+        return cdf;
+    }
+
+    /**
+     * 在累积分布表中二分查找第一个不小于u的下标
+     */
+    static int sample(double[] cdf, double u) {
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static byte[][] bytes(String... values) {
+        byte[][] result = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        String fsUri = args.length > 0 ? args[0] : HDFSConfig.getInstance().getHdfsUri();
+        String path = args.length > 1 ? args[1] : "/user/bigdata/generated/access.log";
+        long sizeMb = args.length > 2 ? Long.parseLong(args[2]) : 1024;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        HDFSUtil hdfsUtil = null;
+        try {
+            hdfsUtil = new HDFSUtil(fsUri);
+            LogGenerator generator = new LogGenerator(seed);
+            long startTime = System.nanoTime();
+            long[] lines = new long[1];
+            if (hdfsUtil.writeFile(path, hdfsUtil.getReplicationFactor(), false,
+                                   out -> lines[0] = generator.write(out, sizeMb * 1024 * 1024))) {
+                double seconds = (System.nanoTime() - startTime) / 1e9;
+                logger.info(String.format("模拟日志生成完成: %s, %d 行, %d MB, %.1f MB/s",
+                    path, lines[0], sizeMb, sizeMb / seconds));
+            }
+        } catch (Exception e) {
+            logger.error("生成模拟日志异常", e);
+        } finally {
+            if (hdfsUtil != null) {
+                hdfsUtil.close();
+            }
+        }
+    }
+}
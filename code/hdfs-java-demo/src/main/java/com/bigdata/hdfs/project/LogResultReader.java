@@ -0,0 +1,437 @@
+package com.bigdata.hdfs.project;
+
+import com.bigdata.hdfs.util.ByteRange;
+import com.bigdata.hdfs.util.HDFSUtil;
+import com.bigdata.hdfs.util.RangeReader;
+import org.apache.hadoop.fs.FileStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 列式日志分析结果读取器
+ * 打开时只读取文件头、文件尾和页脚，查询某个维度时只读取该维度的列，文件格式见LogResultWriter。
+ * 本地文件通过内存映射打开，未访问的列不会被读入内存；HDFS文件在读取器的整个生命周期内共用一个RangeReader，
+ * 一次查询需要的多个列合并为一次批量区间读取，使用完毕后需要关闭
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public final class LogResultReader implements Closeable {
+
+    public static final String DIMENSION_IP = "ip";
+    public static final String DIMENSION_STATUS = "status";
+    public static final String DIMENSION_METHOD = "method";
+
+    // 打开时与文件头一起读取的文件末尾字节数，页脚不超过该长度时不需要再单独读取
+    private static final int TAIL_READ_BYTES = 64 * 1024;
+
+    // HDFS文件批量读取列时的并发数
+    private static final int READ_PARALLELISM = 4;
+
+    /**
+     * 列数据来源，一次调用读取多个区间
+     */
+    private interface ColumnSource extends Closeable {
+        List<ByteBuffer> read(List<ByteRange> ranges) throws IOException;
+    }
+
+    private final ColumnSource source;
+    private final Map<String, LogResultWriter.ColumnMeta> columns = new LinkedHashMap<>();
+    private final long totalRequests;
+    private final long totalBytes;
+    private final long distinctIpCount;
+    private final long fallbackLines;
+    private final boolean approximate;
+    private final long timeBucketSeconds;
+    private final long invalidTimestamps;
+
+    private LogResultReader(ColumnSource source, long fileLength) throws IOException {
+        this.source = source;
+        if (fileLength < 8 + LogResultWriter.TRAILER_BYTES) {
+            throw new IOException("无效的日志分析结果文件: 长度 " + fileLength);
+        }
+        // 文件头和文件末尾（文件尾及通常能放下的页脚）在一次批量读取中获取
+        int tailLength = (int) Math.min(fileLength - 8, TAIL_READ_BYTES);
+        List<ByteBuffer> head = source.read(Arrays.asList(
+            new ByteRange(0, 8), new ByteRange(fileLength - tailLength, tailLength)));
+        ByteBuffer header = head.get(0);
+        if (header.getInt() != LogResultWriter.MAGIC) {
+            throw new IOException("无效的日志分析结果文件");
+        }
+        int version = header.getInt();
+        if (version < 1 || version > LogResultWriter.VERSION) {
+            throw new IOException("不支持的日志分析结果版本: " + version);
+        }
+        ByteBuffer tail = head.get(1);
+        tail.position(tailLength - LogResultWriter.TRAILER_BYTES);
+        int footerLength = tail.getInt();
+        if (tail.getInt() != LogResultWriter.MAGIC
+                || footerLength < 0 || footerLength > fileLength - 8 - LogResultWriter.TRAILER_BYTES) {
+            throw new IOException("日志分析结果文件不完整");
+        }
+        long footerOffset = fileLength - LogResultWriter.TRAILER_BYTES - footerLength;
+        ByteBuffer footerBuffer;
+        if (footerLength <= tailLength - LogResultWriter.TRAILER_BYTES) {
+            footerBuffer = tail.duplicate();
+            footerBuffer.position(tailLength - LogResultWriter.TRAILER_BYTES - footerLength);
+        } else {
+            footerBuffer = source.read(Collections.singletonList(new ByteRange(footerOffset, footerLength))).get(0);
+        }
+        byte[] footerBytes = new byte[footerLength];
+        footerBuffer.get(footerBytes);
+        DataInputStream footer = new DataInputStream(new ByteArrayInputStream(footerBytes));
+        totalRequests = footer.readLong();
+        totalBytes = footer.readLong();
+        distinctIpCount = footer.readLong();
+        fallbackLines = footer.readLong();
+        approximate = footer.readBoolean();
+        timeBucketSeconds = footer.readLong();
+        invalidTimestamps = footer.readLong();
+        int columnCount = footer.readInt();
+        for (int i = 0; i < columnCount; i++) {
+            LogResultWriter.ColumnMeta column = new LogResultWriter.ColumnMeta(
+                footer.readUTF(), footer.readByte(), footer.readInt(), footer.readLong(), footer.readInt());
+            if (column.rows < 0 || column.offset < 8 || column.length < 0
+                    || column.offset + column.length > footerOffset) {
+                throw new IOException("列 " + column.name + " 的位置无效");
+            }
+            columns.put(column.name, column);
+        }
+    }
+
+    /**
+     * 从内存中的文件内容或已映射的缓冲区打开
+     *
+     * @param buffer 文件内容，从position到limit
+     * @return 读取器
+     * @throws IOException 格式错误
+     */
+    public static LogResultReader open(ByteBuffer buffer) throws IOException {
+        ByteBuffer file = buffer.slice();
+        return new LogResultReader(new ColumnSource() {
+            @Override
+            public List<ByteBuffer> read(List<ByteRange> ranges) {
+                List<ByteBuffer> slices = new ArrayList<>(ranges.size());
+                for (ByteRange range : ranges) {
+                    ByteBuffer slice = file.duplicate();
+                    slice.position((int) range.getOffset());
+                    slice.limit((int) range.getEnd());
+                    slices.add(slice.slice());
+                }
+                return slices;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, file.remaining());
+    }
+
+    /**
+     * 以内存映射方式打开本地文件
+     *
+     * @param file 本地文件
+     * @return 读取器
+     * @throws IOException 读取异常或格式错误
+     */
+    public static LogResultReader map(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            // 映射在通道关闭后仍然有效
+            return open(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 打开HDFS上的结果文件
+     * 文件只打开一次，每次查询需要的列通过同一个RangeReader批量定位读，读取器使用完毕后需要关闭
+     *
+     * @param hdfsUtil HDFS工具类
+     * @param hdfsFilePath 文件路径
+     * @return 读取器
+     * @throws IOException 文件不存在、读取异常或格式错误
+     */
+    public static LogResultReader open(HDFSUtil hdfsUtil, String hdfsFilePath) throws IOException {
+        FileStatus status = hdfsUtil.getFileStatus(hdfsFilePath);
+        if (status == null) {
+            throw new FileNotFoundException("日志分析结果文件不存在: " + hdfsFilePath);
+        }
+        RangeReader rangeReader = hdfsUtil.openRangeReader(hdfsFilePath, READ_PARALLELISM);
+        try {
+            return new LogResultReader(new ColumnSource() {
+                @Override
+                public List<ByteBuffer> read(List<ByteRange> ranges) throws IOException {
+                    List<ByteBuffer> buffers = new ArrayList<>(ranges.size());
+                    for (byte[] data : rangeReader.readRanges(ranges)) {
+                        buffers.add(ByteBuffer.wrap(data));
+                    }
+                    return buffers;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    rangeReader.close();
+                }
+            }, status.getLen());
+        } catch (IOException | RuntimeException e) {
+            rangeReader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取字符串列
+     *
+     * @param name 列名
+     * @return 每行的值
+     * @throws IOException 读取异常或列类型不匹配
+     */
+    public String[] readStringColumn(String name) throws IOException {
+        LogResultWriter.ColumnMeta column = stringColumn(name);
+        return readStrings(column, readColumns(column).get(0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 读取整数列
+     *
+     * @param name 列名
+     * @return 每行的值
+     * @throws IOException 读取异常或列类型不匹配
+     */
+    public long[] readLongColumn(String name) throws IOException {
+        LogResultWriter.ColumnMeta column = longColumn(name);
+        return readLongs(column, readColumns(column).get(0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 在一次批量读取中获取多个列的数据
+     */
+    private List<ByteBuffer> readColumns(LogResultWriter.ColumnMeta... columns) throws IOException {
+        List<ByteRange> ranges = new ArrayList<>(columns.length);
+        for (LogResultWriter.ColumnMeta column : columns) {
+            ranges.add(new ByteRange(column.offset, column.length));
+        }
+        return source.read(ranges);
+    }
+
+    /**
+     * 解码字符串列的前limit行
+     * 字典编码时只有被这些行引用的字典条目会解码为字符串，其余条目按长度跳过
+     */
+    private static String[] readStrings(LogResultWriter.ColumnMeta column, ByteBuffer in, int limit) throws IOException {
+        try {
+            if (column.type == LogResultWriter.TYPE_PLAIN) {
+                String[] values = new String[Math.min(limit, column.rows)];
+                for (int i = 0; i < values.length; i++) {
+                    byte[] bytes = new byte[checkedSize(LogResultWriter.readVarLong(in), column)];
+                    in.get(bytes);
+                    values[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                return values;
+            }
+            int dictionarySize = checkedSize(LogResultWriter.readVarLong(in), column);
+            int[] entryStarts = new int[dictionarySize];
+            int[] entryLengths = new int[dictionarySize];
+            for (int i = 0; i < dictionarySize; i++) {
+                entryLengths[i] = checkedSize(LogResultWriter.readVarLong(in), column);
+                entryStarts[i] = in.position();
+                in.position(in.position() + entryLengths[i]);
+            }
+            String[] dictionary = new String[dictionarySize];
+            String[] values = new String[Math.min(limit, column.rows)];
+            for (int i = 0; i < values.length; i++) {
+                int ordinal = (int) LogResultWriter.readVarLong(in);
+                if (dictionary[ordinal] == null) {
+                    byte[] bytes = new byte[entryLengths[ordinal]];
+                    ByteBuffer entry = in.duplicate();
+                    entry.position(entryStarts[ordinal]);
+                    entry.get(bytes);
+                    dictionary[ordinal] = new String(bytes, StandardCharsets.UTF_8);
+                }
+                values[i] = dictionary[ordinal];
+            }
+            return values;
+        } catch (RuntimeException e) {
+            throw new IOException("列 " + column.name + " 的数据损坏", e);
+        }
+    }
+
+    /**
+     * 解码整数列的前limit行
+     */
+    private static long[] readLongs(LogResultWriter.ColumnMeta column, ByteBuffer in, int limit) throws IOException {
+        long[] values = new long[Math.min(limit, column.rows)];
+        try {
+            long previous = 0;
+            for (int i = 0; i < values.length; i++) {
+                long value = LogResultWriter.readVarLong(in);
+                if (column.type == LogResultWriter.TYPE_DELTA) {
+                    previous += (value >>> 1) ^ -(value & 1);
+                    value = previous;
+                }
+                values[i] = value;
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("列 " + column.name + " 的数据损坏", e);
+        }
+        return values;
+    }
+
+    /**
+     * 读取一个维度的全部计数
+     *
+     * @param dimension 维度（DIMENSION_IP、DIMENSION_STATUS或DIMENSION_METHOD）
+     * @return 取值 -> 请求数，按请求数降序
+     * @throws IOException 读取异常
+     */
+    public Map<String, Long> readCounts(String dimension) throws IOException {
+        return readCounts(dimension, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 读取一个维度请求数最多的前n个取值
+     * 各维度按请求数降序存储，只需要一次读取两列并解码前n行
+     *
+     * @param dimension 维度
+     * @param n 数量
+     * @return 取值 -> 请求数，按请求数降序
+     * @throws IOException 读取异常
+     */
+    public Map<String, Long> readTop(String dimension, int n) throws IOException {
+        return readCounts(dimension, n);
+    }
+
+    private Map<String, Long> readCounts(String dimension, int limit) throws IOException {
+        LogResultWriter.ColumnMeta valueColumn = stringColumn(dimension + ".value");
+        LogResultWriter.ColumnMeta requestColumn = longColumn(dimension + ".requests");
+        List<ByteBuffer> data = readColumns(valueColumn, requestColumn);
+        String[] values = readStrings(valueColumn, data.get(0), limit);
+        long[] requests = readLongs(requestColumn, data.get(1), limit);
+        Map<String, Long> counts = new LinkedHashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) {
+            counts.put(values[i], requests[i]);
+        }
+        return counts;
+    }
+
+    /**
+     * 读取时间序列
+     *
+     * @return 时间序列，文件中没有时间序列时返回null
+     * @throws IOException 读取异常
+     */
+    public LogTimeSeries readTimeSeries() throws IOException {
+        if (timeBucketSeconds <= 0) {
+            return null;
+        }
+        LogResultWriter.ColumnMeta[] timeColumns = new LogResultWriter.ColumnMeta[LogTimeSeries.COLUMN_COUNT];
+        for (int i = 0; i < timeColumns.length; i++) {
+            timeColumns[i] = longColumn(LogResultWriter.TIME_COLUMNS[i]);
+        }
+        List<ByteBuffer> data = readColumns(timeColumns);
+        long[][] series = new long[timeColumns.length][];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = readLongs(timeColumns[i], data.get(i), Integer.MAX_VALUE);
+        }
+        return LogTimeSeries.fromColumns(timeBucketSeconds, invalidTimestamps, series);
+    }
+
+    /**
+     * 获取所有列名（按写入顺序）
+     *
+     * @return 列名集合
+     */
+    public Set<String> getColumnNames() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * 获取列的行数
+     *
+     * @param name 列名
+     * @return 行数，列不存在返回-1
+     */
+    public int getRowCount(String name) {
+        LogResultWriter.ColumnMeta column = columns.get(name);
+        return column != null ? column.rows : -1;
+    }
+
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 获取不同IP的数量，近似模式下为估计值
+     *
+     * @return IP数量
+     */
+    public long getDistinctIpCount() {
+        return distinctIpCount;
+    }
+
+    public long getFallbackLines() {
+        return fallbackLines;
+    }
+
+    /**
+     * 是否为近似模式的结果，近似模式下IP列只包含Top-K候选
+     *
+     * @return 近似模式返回true
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * 关闭读取器，HDFS文件关闭底层输入流
+     *
+     * @throws IOException 关闭异常
+     */
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private LogResultWriter.ColumnMeta stringColumn(String name) throws IOException {
+        LogResultWriter.ColumnMeta column = columns.get(name);
+        if (column == null || (column.type != LogResultWriter.TYPE_STRING && column.type != LogResultWriter.TYPE_PLAIN)) {
+            throw new IOException("不存在字符串列: " + name);
+        }
+        return column;
+    }
+
+    private LogResultWriter.ColumnMeta longColumn(String name) throws IOException {
+        LogResultWriter.ColumnMeta column = columns.get(name);
+        if (column == null || (column.type != LogResultWriter.TYPE_VARINT && column.type != LogResultWriter.TYPE_DELTA)) {
+            throw new IOException("不存在整数列: " + name);
+        }
+        return column;
+    }
+
+    private static int checkedSize(long size, LogResultWriter.ColumnMeta column) {
+        if (size < 0 || size > column.length) {
+            throw new IllegalStateException("长度超出列范围: " + size);
+        }
+        return (int) size;
+    }
+}
@@ -0,0 +1,232 @@
+package com.bigdata.hdfs.project;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 日志分析结果的列式二进制文件
+ * 保存完整的统计结果（精确模式下为全部IP，近似模式下为Top-K候选），供下游作业直接读取，不需要解析文本报告。
+ *
+ * 文件结构：
+ * <pre>
+ * 文件头:  MAGIC(int) VERSION(int)
+ * 列数据:  每列一段连续字节，互不交叉
+ * 页脚:    汇总值、列数，以及每列的 名称、类型、行数、偏移、长度
+ * 文件尾:  页脚长度(int) MAGIC(int)
+ * </pre>
+ * 读取时先读文件尾和页脚，之后只需要读取所查询的列（见LogResultReader）。
+ * 列编码：
+ * <ul>
+ *   <li>STRING：字典编码，先写字典（按首次出现的顺序，变长长度 + UTF-8字节），再写每行的字典序号（变长整数）</li>
+ *   <li>PLAIN：每行依次写变长长度 + UTF-8字节，用于几乎没有重复值的列（如IP），此时字典和数据一样大，只会多出序号</li>
+ *   <li>VARINT：每行一个无符号变长整数，用于计数和字节数</li>
+ *   <li>DELTA：每行与上一行之差的ZigZag变长整数，用于递增的时间戳</li>
+ * </ul>
+ * IP、状态码、请求方法三个维度各有 &lt;维度&gt;.value 和 &lt;维度&gt;.requests 两列，按请求数降序排列，Top-N即前N行；
+ * 时间序列为 time.start、time.requests、time.bytes、time.1xx ~ time.5xx 列，按时间升序排列
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public final class LogResultWriter {
+
+    static final int MAGIC = 0x4C475253; // "LGRS"
+    // 版本2增加了PLAIN字符串列，读取器同时兼容版本1
+    static final int VERSION = 2;
+
+    // 文件尾：页脚长度和MAGIC
+    static final int TRAILER_BYTES = 8;
+
+    static final byte TYPE_STRING = 1;
+    static final byte TYPE_VARINT = 2;
+    static final byte TYPE_DELTA = 3;
+    static final byte TYPE_PLAIN = 4;
+
+    // 不同取值数达到行数的该比例时不使用字典编码
+    private static final double PLAIN_DISTINCT_RATIO = 0.9;
+
+    // 时间序列各列名称，与LogTimeSeries.toColumns的列顺序一致
+    static final String[] TIME_COLUMNS = {
+        "time.start", "time.requests", "time.bytes",
+        "time.1xx", "time.2xx", "time.3xx", "time.4xx", "time.5xx"
+    };
+
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    private final List<ColumnMeta> columns = new ArrayList<>();
+
+    private LogResultWriter() {
+        data.write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).array(), 0, 8);
+    }
+
+    /**
+     * 将统计结果编码为列式文件
+     *
+     * @param statistics 统计结果
+     * @return 文件内容
+     * @throws IOException 编码异常
+     */
+    public static byte[] toBytes(LogStatistics statistics) throws IOException {
+        LogResultWriter writer = new LogResultWriter();
+        List<Map.Entry<String, Long>> ips = statistics.isApproximate()
+            ? statistics.getTopIps(Integer.MAX_VALUE)
+            : sortedByCount(statistics.getIpCount());
+        writer.writeCounts(LogResultReader.DIMENSION_IP, ips);
+        writer.writeCounts(LogResultReader.DIMENSION_STATUS, sortedByCount(statistics.getStatusCount()));
+        writer.writeCounts(LogResultReader.DIMENSION_METHOD, sortedByCount(statistics.getMethodCount()));
+
+        LogTimeSeries timeSeries = statistics.getTimeSeries();
+        if (timeSeries != null) {
+            long[][] series = timeSeries.toColumns();
+            writer.writeLongs(TIME_COLUMNS[0], TYPE_DELTA, series[0]);
+            for (int i = 1; i < series.length; i++) {
+                writer.writeLongs(TIME_COLUMNS[i], TYPE_VARINT, series[i]);
+            }
+        }
+
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        try (DataOutputStream footer = new DataOutputStream(footerBytes)) {
+            footer.writeLong(statistics.getTotalRequests());
+            footer.writeLong(statistics.getTotalBytes());
+            footer.writeLong(statistics.getDistinctIpCount());
+            footer.writeLong(statistics.getFallbackLines());
+            footer.writeBoolean(statistics.isApproximate());
+            footer.writeLong(timeSeries != null ? timeSeries.getBucketSeconds() : 0);
+            footer.writeLong(timeSeries != null ? timeSeries.getInvalidTimestamps() : 0);
+            footer.writeInt(writer.columns.size());
+            for (ColumnMeta column : writer.columns) {
+                footer.writeUTF(column.name);
+                footer.writeByte(column.type);
+                footer.writeInt(column.rows);
+                footer.writeLong(column.offset);
+                footer.writeInt(column.length);
+            }
+        }
+        footerBytes.writeTo(writer.data);
+        writer.data.write(ByteBuffer.allocate(TRAILER_BYTES).putInt(footerBytes.size()).putInt(MAGIC).array(),
+                          0, TRAILER_BYTES);
+        return writer.data.toByteArray();
+    }
+
+    private static List<Map.Entry<String, Long>> sortedByCount(Map<String, Long> counts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return entries;
+    }
+
+    private void writeCounts(String dimension, List<Map.Entry<String, Long>> entries) throws IOException {
+        String[] values = new String[entries.size()];
+        long[] requests = new long[entries.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = entries.get(i).getKey();
+            requests[i] = entries.get(i).getValue();
+        }
+        writeStrings(dimension + ".value", values);
+        writeLongs(dimension + ".requests", TYPE_VARINT, requests);
+    }
+
+    private void writeStrings(String name, String[] values) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> entries = new ArrayList<>();
+        int[] ordinals = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Integer ordinal = dictionary.get(values[i]);
+            if (ordinal == null) {
+                ordinal = entries.size();
+                dictionary.put(values[i], ordinal);
+                entries.add(values[i].getBytes(StandardCharsets.UTF_8));
+            }
+            ordinals[i] = ordinal;
+        }
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        if (entries.size() >= values.length * PLAIN_DISTINCT_RATIO) {
+            for (int ordinal : ordinals) {
+                byte[] entry = entries.get(ordinal);
+                writeVarLong(column, entry.length);
+                column.write(entry, 0, entry.length);
+            }
+            addColumn(name, TYPE_PLAIN, values.length, column);
+            return;
+        }
+        writeVarLong(column, entries.size());
+        for (byte[] entry : entries) {
+            writeVarLong(column, entry.length);
+            column.write(entry, 0, entry.length);
+        }
+        for (int ordinal : ordinals) {
+            writeVarLong(column, ordinal);
+        }
+        addColumn(name, TYPE_STRING, values.length, column);
+    }
+
+    private void writeLongs(String name, byte type, long[] values) throws IOException {
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        long previous = 0;
+        for (long value : values) {
+            if (type == TYPE_DELTA) {
+                long delta = value - previous;
+                writeVarLong(column, (delta << 1) ^ (delta >> 63));
+                previous = value;
+            } else {
+                writeVarLong(column, value);
+            }
+        }
+        addColumn(name, type, values.length, column);
+    }
+
+    private void addColumn(String name, byte type, int rows, ByteArrayOutputStream column) throws IOException {
+        columns.add(new ColumnMeta(name, type, rows, data.size(), column.size()));
+        column.writeTo(data);
+    }
+
+    /**
+     * 写入无符号变长整数（每字节7位，低位在前）
+     */
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * 读取无符号变长整数
+     */
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("变长整数格式错误");
+    }
+
+    /**
+     * 列元数据
+     */
+    static final class ColumnMeta {
+        final String name;
+        final byte type;
+        final int rows;
+        final long offset;
+        final int length;
+
+        ColumnMeta(String name, byte type, int rows, long offset, int length) {
+            this.name = name;
+            this.type = type;
+            this.rows = rows;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.bigdata.hdfs.project;
+
+import com.bigdata.hdfs.util.HDFSUtil;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 访问日志统计结果
+ * 作为逐行读取的消费者直接解析并累计每一行。并行分析时每个字节区间使用一个独立实例，
+ * 各实例只被一个线程更新，读取完成后通过merge合并为最终结果。
+ * 
+ * 计数使用基本类型结构，逐行累计时不创建对象：状态码（三位数字）和常见请求方法以数组下标计数，
+ * IPv4地址编码为int存入开放寻址哈希表。只有IPv6地址、主机名和非标准请求方法这类少见的值才使用HashMap。
+ * 
+ * 精确模式下保存每个IP的计数，内存随不同IP的数量增长。近似模式（approximate）下IP只进入固定大小的草图：
+ * Count-Min草图（ε=0.0001，δ=0.01，约1MB）配合Top-K候选集给出高频IP，估计次数不小于真实次数，
+ * 以99%的概率超出不多于总请求数的0.01%；HyperLogLog（p=14，16KB）给出不同IP数，相对标准误差约0.81%
+ * 
+ * 通过withTimeSeries开启时间窗口统计后，同一次解析的时间戳、响应大小和状态码还会累计到LogTimeSeries的时间桶中，
+ * 整体统计和时间序列在同一遍扫描中完成
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogStatistics implements HDFSUtil.ByteLineConsumer {
+    
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "HEAD", "OPTIONS", "PATCH", "TRACE", "CONNECT"};
+    
+    private static final byte[][] METHOD_BYTES = new byte[METHODS.length][];
+    
+    static {
+        for (int i = 0; i < METHODS.length; i++) {
+            METHOD_BYTES[i] = METHODS[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+    
+    // 近似模式的草图参数
+    private static final double SKETCH_EPSILON = 0.0001;
+    private static final double SKETCH_DELTA = 0.01;
+    private static final int HLL_PRECISION = 14;
+    
+    // 非IPv4地址的键设置最高位，与IPv4地址（0 ~ 2^32-1）区分
+    private static final long NON_IPV4_KEY_FLAG = 1L << 63;
+    
+    private final ApacheLogParser parser = new ApacheLogParser();
+    
+    // 近似模式下使用，精确模式下为null
+    private final TopKTracker topIps;
+    private final HyperLogLog distinctIps;
+    
+    private final IntLongHashMap ipv4Count;
+    private final Map<String, Long> otherIpCount = new HashMap<>();
+    private final long[] statusCount = new long[1000];
+    private final long[] methodCount = new long[METHODS.length];
+    private final Map<String, Long> otherMethodCount = new HashMap<>();
+    private long totalRequests;
+    private long totalBytes;
+    private long fallbackLines;
+    
+    // 开启时间窗口统计时使用，否则为null
+    private LogTimeSeries timeSeries;
+    
+    /**
+     * 创建精确模式的统计结果
+     */
+    public LogStatistics() {
+        this(null, null, new IntLongHashMap(1024));
+    }
+    
+    private LogStatistics(TopKTracker topIps, HyperLogLog distinctIps, IntLongHashMap ipv4Count) {
+        this.topIps = topIps;
+        this.distinctIps = distinctIps;
+        this.ipv4Count = ipv4Count;
+    }
+    
+    /**
+     * 创建近似模式的统计结果，IP统计占用的内存固定，与不同IP的数量无关
+     * 
+     * @param topK 跟踪的高频IP数量，跟踪数量多于最终展示的数量可以提高排名的准确性
+     * @return 统计结果
+     */
+    public static LogStatistics approximate(int topK) {
+        return new LogStatistics(new TopKTracker(topK, SKETCH_EPSILON, SKETCH_DELTA), new HyperLogLog(HLL_PRECISION),
+                                 new IntLongHashMap());
+    }
+    
+    /**
+     * 解析并统计一行日志，无法解析的行被忽略
+     */
+    @Override
+    public void accept(byte[] line, int length) {
+        long fallbackBefore = parser.getFallbackCount();
+        if (!parser.parse(line, 0, length)) {
+            return;
+        }
+        fallbackLines += parser.getFallbackCount() - fallbackBefore;
+        
+        // 统计IP访问次数
+        long ipv4 = parser.getIpv4();
+        if (topIps != null) {
+            long key = ipv4 >= 0 ? ipv4 : hashBytes(parser.getBuffer(), parser.getIpStart(), parser.getIpEnd());
+            topIps.add(key, ipv4 >= 0 ? null : parser.getIp());
+            distinctIps.add(key);
+        } else if (ipv4 >= 0) {
+            ipv4Count.addTo((int) ipv4, 1);
+        } else {
+            otherIpCount.merge(parser.getIp(), 1L, Long::sum);
+        }
+        
+        // 统计状态码
+        statusCount[parser.getStatus()]++;
+        
+        // 统计请求方法
+        int method = methodIndex(parser.getBuffer(), parser.getMethodStart(), parser.getMethodEnd());
+        if (method >= 0) {
+            methodCount[method]++;
+        } else {
+            otherMethodCount.merge(parser.getMethod(), 1L, Long::sum);
+        }
+        
+        // 累计响应大小
+        totalBytes += parser.getResponseSize();
+        totalRequests++;
+        
+        if (timeSeries != null) {
+            timeSeries.add(parser);
+        }
+    }
+    
+    /**
+     * 将另一个统计结果合并到当前实例
+     * 
+     * @param other 另一个区间的统计结果
+     */
+    public void merge(LogStatistics other) {
+        if (isApproximate() != other.isApproximate()) {
+            throw new IllegalArgumentException("精确模式和近似模式的统计结果不能合并");
+        }
+        if ((timeSeries == null) != (other.timeSeries == null)) {
+            throw new IllegalArgumentException("开启和未开启时间窗口统计的结果不能合并");
+        }
+        if (timeSeries != null) {
+            timeSeries.merge(other.timeSeries);
+        }
+        if (topIps != null) {
+            topIps.merge(other.topIps);
+            distinctIps.merge(other.distinctIps);
+        }
+        ipv4Count.addAll(other.ipv4Count);
+        other.otherIpCount.forEach((key, count) -> otherIpCount.merge(key, count, Long::sum));
+        for (int i = 0; i < statusCount.length; i++) {
+            statusCount[i] += other.statusCount[i];
+        }
+        for (int i = 0; i < methodCount.length; i++) {
+            methodCount[i] += other.methodCount[i];
+        }
+        other.otherMethodCount.forEach((key, count) -> otherMethodCount.merge(key, count, Long::sum));
+        totalRequests += other.totalRequests;
+        totalBytes += other.totalBytes;
+        fallbackLines += other.fallbackLines;
+    }
+    
+    /**
+     * 序列化统计结果，用于增量分析的检查点
+     * 
+     * @param out 输出
+     * @throws IOException 写入异常
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeBoolean(isApproximate());
+        if (isApproximate()) {
+            topIps.write(out);
+            distinctIps.write(out);
+        }
+        ipv4Count.write(out);
+        writeCounts(out, otherIpCount);
+        
+        int statusKinds = 0;
+        for (long count : statusCount) {
+            if (count > 0) {
+                statusKinds++;
+            }
+        }
+        out.writeInt(statusKinds);
+        for (int status = 0; status < statusCount.length; status++) {
+            if (statusCount[status] > 0) {
+                out.writeShort(status);
+                out.writeLong(statusCount[status]);
+            }
+        }
+        // 请求方法按名称保存，与METHODS的顺序无关
+        writeCounts(out, getMethodCount());
+        
+        out.writeLong(totalRequests);
+        out.writeLong(totalBytes);
+        out.writeLong(fallbackLines);
+        
+        out.writeBoolean(timeSeries != null);
+        if (timeSeries != null) {
+            timeSeries.write(out);
+        }
+    }
+    
+    /**
+     * 反序列化统计结果
+     * 
+     * @param in 输入
+     * @return 统计结果，可以继续累计新的日志行
+     * @throws IOException 读取异常或数据无效
+     */
+    static LogStatistics read(DataInput in) throws IOException {
+        LogStatistics statistics = in.readBoolean()
+            ? new LogStatistics(TopKTracker.read(in), HyperLogLog.read(in), IntLongHashMap.read(in))
+            : new LogStatistics(null, null, IntLongHashMap.read(in));
+        statistics.otherIpCount.putAll(readCounts(in));
+        
+        int statusKinds = in.readInt();
+        for (int i = 0; i < statusKinds; i++) {
+            int status = in.readShort();
+            if (status < 0 || status >= statistics.statusCount.length) {
+                throw new IOException("无效的状态码: " + status);
+            }
+            statistics.statusCount[status] = in.readLong();
+        }
+        for (Map.Entry<String, Long> entry : readCounts(in).entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            int method = methodIndex(name, 0, name.length);
+            if (method >= 0) {
+                statistics.methodCount[method] = entry.getValue();
+            } else {
+                statistics.otherMethodCount.put(entry.getKey(), entry.getValue());
+            }
+        }
+        
+        statistics.totalRequests = in.readLong();
+        statistics.totalBytes = in.readLong();
+        statistics.fallbackLines = in.readLong();
+        
+        if (in.readBoolean()) {
+            statistics.timeSeries = LogTimeSeries.read(in);
+        }
+        return statistics;
+    }
+    
+    private static void writeCounts(DataOutput out, Map<String, Long> counts) throws IOException {
+        out.writeInt(counts.size());
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+    
+    private static Map<String, Long> readCounts(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("无效的条目数: " + size);
+        }
+        Map<String, Long> counts = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            counts.put(in.readUTF(), in.readLong());
+        }
+        return counts;
+    }
+    
+    private static int methodIndex(byte[] buffer, int start, int end) {
+        int length = end - start;
+        for (int i = 0; i < METHOD_BYTES.length; i++) {
+            byte[] method = METHOD_BYTES[i];
+            if (method.length != length) {
+                continue;
+            }
+            int j = 0;
+            while (j < length && buffer[start + j] == method[j]) {
+                j++;
+            }
+            if (j == length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static long hashBytes(byte[] buffer, int start, int end) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= buffer[i];
+            hash *= 0x100000001b3L;
+        }
+        return hash | NON_IPV4_KEY_FLAG;
+    }
+    
+    /**
+     * 开启时间窗口统计，需要在累计任何日志行之前调用
+     * 
+     * @param bucketSeconds 时间桶宽度（秒），如60表示按分钟累计
+     * @return 当前实例
+     */
+    public LogStatistics withTimeSeries(long bucketSeconds) {
+        if (totalRequests > 0) {
+            throw new IllegalStateException("时间窗口统计必须在累计日志之前开启");
+        }
+        this.timeSeries = new LogTimeSeries(bucketSeconds);
+        return this;
+    }
+    
+    /**
+     * 获取时间窗口统计
+     * 
+     * @return 时间序列，未开启时返回null
+     */
+    public LogTimeSeries getTimeSeries() {
+        return timeSeries;
+    }
+    
+    /**
+     * 是否为近似模式
+     * 
+     * @return 近似模式返回true
+     */
+    public boolean isApproximate() {
+        return topIps != null;
+    }
+    
+    /**
+     * 获取访问次数最多的IP
+     * 精确模式下用大小为n的最小堆筛选，不对全部IP排序；近似模式下返回Top-K候选集中的估计次数
+     * 
+     * @param n 返回的IP数量
+     * @return 按访问次数降序排列的 IP -> 访问次数
+     */
+    public List<Map.Entry<String, Long>> getTopIps(int n) {
+        if (topIps != null) {
+            List<Map.Entry<String, Long>> top = topIps.getTopK();
+            return top.size() > n ? new ArrayList<>(top.subList(0, n)) : top;
+        }
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(n + 1, Map.Entry.comparingByValue());
+        ipv4Count.forEach((ip, count) -> {
+            if (heap.size() < n || count > heap.peek().getValue()) {
+                heap.offer(new AbstractMap.SimpleImmutableEntry<>(ipv4ToString(ip), count));
+                if (heap.size() > n) {
+                    heap.poll();
+                }
+            }
+        });
+        for (Map.Entry<String, Long> entry : otherIpCount.entrySet()) {
+            if (heap.size() < n || entry.getValue() > heap.peek().getValue()) {
+                heap.offer(entry);
+                if (heap.size() > n) {
+                    heap.poll();
+                }
+            }
+        }
+        List<Map.Entry<String, Long>> result = new ArrayList<>(heap);
+        result.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return result;
+    }
+    
+    /**
+     * 获取各IP的访问次数（仅精确模式）
+     * 每次调用都会生成新的Map，IP数量很多时开销较大，只需要排名时使用getTopIps
+     * 
+     * @return IP -> 访问次数
+     * @throws IllegalStateException 近似模式下不保存每个IP的计数
+     */
+    public Map<String, Long> getIpCount() {
+        if (topIps != null) {
+            throw new IllegalStateException("近似模式下不保存每个IP的访问次数");
+        }
+        Map<String, Long> result = new HashMap<>((int) getDistinctIpCount() * 2);
+        ipv4Count.forEach((ip, count) -> result.put(ipv4ToString(ip), count));
+        result.putAll(otherIpCount);
+        return result;
+    }
+    
+    /**
+     * 获取不同IP的数量，近似模式下为HyperLogLog估计值
+     * 
+     * @return IP数量
+     */
+    public long getDistinctIpCount() {
+        if (distinctIps != null) {
+            return distinctIps.cardinality();
+        }
+        return ipv4Count.size() + otherIpCount.size();
+    }
+    
+    /**
+     * 获取各状态码的出现次数
+     * 
+     * @return 状态码 -> 次数
+     */
+    public Map<String, Long> getStatusCount() {
+        Map<String, Long> result = new HashMap<>();
+        for (int status = 0; status < statusCount.length; status++) {
+            if (statusCount[status] > 0) {
+                result.put(String.valueOf(status), statusCount[status]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取各请求方法的出现次数
+     * 
+     * @return 请求方法 -> 次数
+     */
+    public Map<String, Long> getMethodCount() {
+        Map<String, Long> result = new HashMap<>(otherMethodCount);
+        for (int i = 0; i < methodCount.length; i++) {
+            if (methodCount[i] > 0) {
+                result.put(METHODS[i], methodCount[i]);
+            }
+        }
+        return result;
+    }
+    
+    public long getTotalRequests() {
+        return totalRequests;
+    }
+    
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+    
+    /**
+     * 获取通过正则回退路径解析的行数
+     * 
+     * @return 格式不规范的行数
+     */
+    public long getFallbackLines() {
+        return fallbackLines;
+    }
+    
+    static String ipv4ToString(int ip) {
+        return ((ip >>> 24) & 0xFF) + "." + ((ip >>> 16) & 0xFF) + "." + ((ip >>> 8) & 0xFF) + "." + (ip & 0xFF);
+    }
+}
@@ -0,0 +1,348 @@
+package com.bigdata.hdfs.project;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按时间分桶的访问日志统计
+ * 按请求时间戳把请求数、响应字节数和各类状态码（1xx~5xx）的次数累计到固定宽度的时间桶中（如1分钟），
+ * 按小时等更粗粒度的滚动窗口以及滑动窗口都由时间桶汇总得到，不需要再次读取日志。
+ *
+ * 时间桶按 桶序号 -> long[] 保存。日志大体按时间顺序写入，连续的行通常落在同一个桶中，
+ * 因此缓存最近使用的桶，大部分行不需要查找哈希表。内存占用与有数据的时间桶数成正比，与行数无关
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogTimeSeries {
+
+    // 每个时间桶的字段：请求数、响应字节数、1xx~5xx状态码次数
+    private static final int REQUESTS = 0;
+    private static final int BYTES = 1;
+    private static final int STATUS_CLASS_BASE = 2;
+    private static final int FIELD_COUNT = STATUS_CLASS_BASE + 5;
+
+    // toColumns导出的列数：时间桶起始时间加上每个时间桶的字段
+    static final int COLUMN_COUNT = FIELD_COUNT + 1;
+
+    private final long bucketSeconds;
+    private final Map<Long, long[]> buckets = new HashMap<>();
+    private long cachedIndex = Long.MIN_VALUE;
+    private long[] cachedBucket;
+    private long invalidTimestamps;
+
+    /**
+     * 构造函数
+     *
+     * @param bucketSeconds 时间桶宽度（秒），窗口大小和滑动步长必须是它的整数倍
+     */
+    public LogTimeSeries(long bucketSeconds) {
+        if (bucketSeconds <= 0) {
+            throw new IllegalArgumentException("时间桶宽度必须大于0: " + bucketSeconds);
+        }
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    /**
+     * 累计解析器当前行的时间、响应大小和状态码
+     *
+     * @param parser 已成功解析一行的解析器
+     */
+    void add(ApacheLogParser parser) {
+        long second = parser.getEpochSecond();
+        if (second == ApacheLogParser.INVALID_TIMESTAMP) {
+            invalidTimestamps++;
+            return;
+        }
+        long index = Math.floorDiv(second, bucketSeconds);
+        long[] bucket = index == cachedIndex ? cachedBucket : bucket(index);
+        bucket[REQUESTS]++;
+        bucket[BYTES] += parser.getResponseSize();
+        int statusClass = parser.getStatus() / 100;
+        if (statusClass >= 1 && statusClass <= 5) {
+            bucket[STATUS_CLASS_BASE + statusClass - 1]++;
+        }
+    }
+
+    private long[] bucket(long index) {
+        long[] bucket = buckets.computeIfAbsent(index, key -> new long[FIELD_COUNT]);
+        cachedIndex = index;
+        cachedBucket = bucket;
+        return bucket;
+    }
+
+    /**
+     * 将另一个相同桶宽度的时间序列合并到当前实例
+     *
+     * @param other 另一个区间的时间序列
+     */
+    public void merge(LogTimeSeries other) {
+        if (other.bucketSeconds != bucketSeconds) {
+            throw new IllegalArgumentException("只能合并相同桶宽度的时间序列");
+        }
+        other.buckets.forEach((index, counts) -> {
+            long[] bucket = bucket(index);
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                bucket[i] += counts[i];
+            }
+        });
+        invalidTimestamps += other.invalidTimestamps;
+    }
+
+    /**
+     * 汇总窗口
+     * 窗口起点对齐到滑动步长的整数倍（UTC），只输出至少包含一条日志的窗口，按时间顺序遍历有数据的时间桶，
+     * 结果数量和内存占用与有数据的时间桶数成正比，与第一条到最后一条日志之间的时间跨度无关。
+     * 窗口大小等于滑动步长时为滚动窗口，大于时为滑动窗口（相邻窗口重叠）
+     *
+     * @param windowSeconds 窗口大小（秒）
+     * @param slideSeconds 滑动步长（秒）
+     * @return 按起始时间排列的非空窗口
+     */
+    public List<Window> getWindows(long windowSeconds, long slideSeconds) {
+        if (windowSeconds <= 0 || slideSeconds <= 0
+                || windowSeconds % bucketSeconds != 0 || slideSeconds % bucketSeconds != 0) {
+            throw new IllegalArgumentException("窗口大小和滑动步长必须是时间桶宽度 " + bucketSeconds + " 秒的正整数倍");
+        }
+        long[] indexes = sortedIndexes();
+        int count = indexes.length;
+
+        // 前缀和：prefix[i]为按时间排序的前i个时间桶之和，任意窗口的汇总只需要一次减法
+        long[] prefix = new long[(count + 1) * FIELD_COUNT];
+        for (int i = 0; i < count; i++) {
+            long[] bucket = buckets.get(indexes[i]);
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                prefix[(i + 1) * FIELD_COUNT + f] = prefix[i * FIELD_COUNT + f] + bucket[f];
+            }
+        }
+
+        List<Window> windows = new ArrayList<>();
+        int from = 0;
+        int to = 0;
+        long start = Long.MIN_VALUE;
+        while (from < count) {
+            // 跳到第一个包含下一个有数据的时间桶的窗口
+            long firstTime = indexes[from] * bucketSeconds;
+            start = Math.max(start, (Math.floorDiv(firstTime - windowSeconds, slideSeconds) + 1) * slideSeconds);
+            long end = start + windowSeconds;
+            while (to < count && indexes[to] * bucketSeconds < end) {
+                to++;
+            }
+            long[] sums = new long[FIELD_COUNT];
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                sums[f] = prefix[to * FIELD_COUNT + f] - prefix[from * FIELD_COUNT + f];
+            }
+            windows.add(new Window(start, end, sums));
+            start += slideSeconds;
+            while (from < count && indexes[from] * bucketSeconds < start) {
+                from++;
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * 剔除远离日志主体时间范围的时间桶
+     * 以请求数的中位时间为基准，距离超过maxDistanceSeconds的时间桶（如年份写错的行）被移除，
+     * 其中的请求计入无效时间戳，不再出现在任何窗口中
+     *
+     * @param maxDistanceSeconds 与中位时间的最大距离（秒）
+     * @return 剔除的请求数
+     */
+    public long discardOutliers(long maxDistanceSeconds) {
+        long[] indexes = sortedIndexes();
+        long total = 0;
+        for (long[] bucket : buckets.values()) {
+            total += bucket[REQUESTS];
+        }
+        long median = 0;
+        long seen = 0;
+        for (long index : indexes) {
+            seen += buckets.get(index)[REQUESTS];
+            if (seen * 2 >= total) {
+                median = index * bucketSeconds;
+                break;
+            }
+        }
+
+        long discarded = 0;
+        for (long index : indexes) {
+            long time = index * bucketSeconds;
+            if (time < median - maxDistanceSeconds || time > median + maxDistanceSeconds) {
+                discarded += buckets.remove(index)[REQUESTS];
+            }
+        }
+        invalidTimestamps += discarded;
+        cachedIndex = Long.MIN_VALUE;
+        cachedBucket = null;
+        return discarded;
+    }
+
+    private long[] sortedIndexes() {
+        long[] indexes = new long[buckets.size()];
+        int i = 0;
+        for (long index : buckets.keySet()) {
+            indexes[i++] = index;
+        }
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    /**
+     * 获取时间桶数量
+     *
+     * @return 至少有一条日志的时间桶数
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * 获取时间戳无法解析或被discardOutliers剔除的行数，这些行不计入任何窗口
+     *
+     * @return 行数
+     */
+    public long getInvalidTimestamps() {
+        return invalidTimestamps;
+    }
+
+    /**
+     * 按时间顺序导出时间桶
+     * 第0列为时间桶起始时间（UTC秒），其余列依次为请求数、响应字节数、1xx~5xx次数
+     *
+     * @return COLUMN_COUNT列，每列的行数等于时间桶数
+     */
+    long[][] toColumns() {
+        long[] indexes = sortedIndexes();
+        long[][] columns = new long[COLUMN_COUNT][indexes.length];
+        for (int row = 0; row < indexes.length; row++) {
+            long[] bucket = buckets.get(indexes[row]);
+            columns[0][row] = indexes[row] * bucketSeconds;
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                columns[f + 1][row] = bucket[f];
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * 由toColumns导出的列还原时间序列
+     */
+    static LogTimeSeries fromColumns(long bucketSeconds, long invalidTimestamps, long[][] columns) {
+        LogTimeSeries series = new LogTimeSeries(bucketSeconds);
+        series.invalidTimestamps = invalidTimestamps;
+        for (int row = 0; row < columns[0].length; row++) {
+            long[] bucket = new long[FIELD_COUNT];
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                bucket[f] = columns[f + 1][row];
+            }
+            series.buckets.put(Math.floorDiv(columns[0][row], bucketSeconds), bucket);
+        }
+        return series;
+    }
+
+    /**
+     * 序列化时间桶
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeLong(bucketSeconds);
+        out.writeLong(invalidTimestamps);
+        out.writeInt(buckets.size());
+        for (Map.Entry<Long, long[]> entry : buckets.entrySet()) {
+            out.writeLong(entry.getKey());
+            for (long value : entry.getValue()) {
+                out.writeLong(value);
+            }
+        }
+    }
+
+    /**
+     * 反序列化时间桶
+     */
+    static LogTimeSeries read(DataInput in) throws IOException {
+        long bucketSeconds = in.readLong();
+        if (bucketSeconds <= 0) {
+            throw new IOException("无效的时间桶宽度: " + bucketSeconds);
+        }
+        LogTimeSeries series = new LogTimeSeries(bucketSeconds);
+        series.invalidTimestamps = in.readLong();
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("无效的时间桶数: " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            long[] bucket = new long[FIELD_COUNT];
+            long index = in.readLong();
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                bucket[f] = in.readLong();
+            }
+            series.buckets.put(index, bucket);
+        }
+        return series;
+    }
+
+    /**
+     * 一个时间窗口的汇总结果
+     */
+    public static final class Window {
+
+        private final long start;
+        private final long end;
+        private final long[] counts;
+
+        private Window(long start, long end, long[] counts) {
+            this.start = start;
+            this.end = end;
+            this.counts = counts;
+        }
+
+        /**
+         * 获取窗口起始时间
+         *
+         * @return UTC秒数（包含）
+         */
+        public long getStart() {
+            return start;
+        }
+
+        /**
+         * 获取窗口结束时间
+         *
+         * @return UTC秒数（不包含）
+         */
+        public long getEnd() {
+            return end;
+        }
+
+        public long getRequests() {
+            return counts[REQUESTS];
+        }
+
+        public long getBytes() {
+            return counts[BYTES];
+        }
+
+        /**
+         * 获取某一类状态码的次数
+         *
+         * @param statusClass 状态码类别，1~5分别对应1xx~5xx
+         * @return 次数
+         */
+        public long getStatusClassCount(int statusClass) {
+            if (statusClass < 1 || statusClass > 5) {
+                throw new IllegalArgumentException("状态码类别必须在1~5之间: " + statusClass);
+            }
+            return counts[STATUS_CLASS_BASE + statusClass - 1];
+        }
+    }
+}
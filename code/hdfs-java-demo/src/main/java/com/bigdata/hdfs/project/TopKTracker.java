@@ -0,0 +1,181 @@
+package com.bigdata.hdfs.project;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于Count-Min草图的Top-K高频键跟踪
+ * 每次更新先在草图中累加并得到估计值，估计值进入当前前K名时才更新候选集，候选集之外的键不占用内存。
+ * 候选集只保存K个键，K通常很小（如10~100），用数组线性扫描比维护堆和索引更快。
+ * 
+ * 误差界：候选集中的计数为Count-Min估计值，不小于真实值，超出部分以 1-δ 的概率不超过 ε·N；
+ * 真实计数超过第K名估计值的键一定会出现在结果中
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public final class TopKTracker {
+    
+    private final int k;
+    private final CountMinSketch sketch;
+    private final long[] keys;
+    private final long[] counts;
+    private final String[] labels;
+    private int size;
+    private int minIndex;
+    
+    /**
+     * 构造函数
+     * 
+     * @param k 保留的高频键数量
+     * @param epsilon Count-Min草图的相对误差
+     * @param delta Count-Min草图误差超出界限的概率
+     */
+    public TopKTracker(int k, double epsilon, double delta) {
+        this(k, new CountMinSketch(epsilon, delta));
+    }
+    
+    private TopKTracker(int k, CountMinSketch sketch) {
+        this.k = k;
+        this.sketch = sketch;
+        this.keys = new long[k];
+        this.counts = new long[k];
+        this.labels = new String[k];
+    }
+    
+    /**
+     * 记录一次出现
+     * 
+     * @param key 键
+     * @param label 键的显示名称，为null时按IPv4地址格式化键（只在键进入候选集时保存）
+     */
+    public void add(long key, String label) {
+        offer(key, sketch.add(key, 1), label);
+    }
+    
+    private void offer(long key, long estimate, String label) {
+        // 候选集已满且估计值不超过当前第K名时直接返回，绝大多数低频键走这条路径
+        if (size == k && estimate <= counts[minIndex]) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                counts[i] = estimate;
+                if (i == minIndex) {
+                    updateMinIndex();
+                }
+                return;
+            }
+        }
+        int slot = size < k ? size++ : minIndex;
+        keys[slot] = key;
+        counts[slot] = estimate;
+        labels[slot] = label;
+        updateMinIndex();
+    }
+    
+    private void updateMinIndex() {
+        minIndex = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[minIndex]) {
+                minIndex = i;
+            }
+        }
+    }
+    
+    /**
+     * 合并另一个相同参数的跟踪器
+     * 先合并草图，再用合并后的估计值重新筛选双方的候选键
+     * 
+     * @param other 另一个跟踪器
+     */
+    public void merge(TopKTracker other) {
+        sketch.merge(other.sketch);
+        long[] candidateKeys = new long[size + other.size];
+        String[] candidateLabels = new String[size + other.size];
+        System.arraycopy(keys, 0, candidateKeys, 0, size);
+        System.arraycopy(labels, 0, candidateLabels, 0, size);
+        System.arraycopy(other.keys, 0, candidateKeys, size, other.size);
+        System.arraycopy(other.labels, 0, candidateLabels, size, other.size);
+        size = 0;
+        for (int i = 0; i < candidateKeys.length; i++) {
+            offer(candidateKeys[i], sketch.estimate(candidateKeys[i]), candidateLabels[i]);
+        }
+    }
+    
+    /**
+     * 获取按估计次数降序排列的高频键
+     * 
+     * @return 键的显示名称 -> 估计次数
+     */
+    public List<Map.Entry<String, Long>> getTopK() {
+        List<Map.Entry<String, Long>> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String label = labels[i] != null ? labels[i] : LogStatistics.ipv4ToString((int) keys[i]);
+            result.add(new AbstractMap.SimpleImmutableEntry<>(label, counts[i]));
+        }
+        result.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return result;
+    }
+    
+    /**
+     * 获取占用的内存（字节），主要是Count-Min草图
+     * 
+     * @return 字节数
+     */
+    public long getMemoryBytes() {
+        return sketch.getMemoryBytes() + k * 16L;
+    }
+    
+    /**
+     * 序列化草图和候选集
+     * 
+     * @param out 输出
+     * @throws IOException 写入异常
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(k);
+        sketch.write(out);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(keys[i]);
+            out.writeLong(counts[i]);
+            out.writeBoolean(labels[i] != null);
+            if (labels[i] != null) {
+                out.writeUTF(labels[i]);
+            }
+        }
+    }
+    
+    /**
+     * 反序列化
+     * 
+     * @param in 输入
+     * @return 跟踪器
+     * @throws IOException 读取异常或数据无效
+     */
+    static TopKTracker read(DataInput in) throws IOException {
+        int k = in.readInt();
+        if (k <= 0) {
+            throw new IOException("无效的Top-K大小: " + k);
+        }
+        TopKTracker tracker = new TopKTracker(k, CountMinSketch.read(in));
+        int size = in.readInt();
+        if (size < 0 || size > k) {
+            throw new IOException("无效的Top-K候选数: " + size);
+        }
+        for (int i = 0; i < size; i++) {
+            tracker.keys[i] = in.readLong();
+            tracker.counts[i] = in.readLong();
+            tracker.labels[i] = in.readBoolean() ? in.readUTF() : null;
+        }
+        tracker.size = size;
+        tracker.updateMinIndex();
+        return tracker;
+    }
+}
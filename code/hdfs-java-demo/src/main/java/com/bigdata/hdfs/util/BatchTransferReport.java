@@ -0,0 +1,176 @@
+package com.bigdata.hdfs.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量传输结果报告
+ * 记录每个文件的传输结果，并汇总成功数、失败数、总字节数和吞吐量
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class BatchTransferReport {
+
+    private final ConcurrentLinkedQueue<FileResult> results = new ConcurrentLinkedQueue<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final long startTime = System.currentTimeMillis();
+    private volatile long endTime;
+
+    /**
+     * 记录单个文件的传输结果（线程安全）
+     *
+     * @param result 单个文件的传输结果
+     */
+    void addResult(FileResult result) {
+        results.add(result);
+        if (result.isSuccess()) {
+            successCount.incrementAndGet();
+            totalBytes.addAndGet(result.getBytes());
+        } else {
+            failureCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 标记批量传输结束
+     */
+    void finish() {
+        this.endTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 获取所有文件的传输结果
+     *
+     * @return 传输结果列表
+     */
+    public List<FileResult> getResults() {
+        return Collections.unmodifiableList(new ArrayList<>(results));
+    }
+
+    /**
+     * 获取传输失败的文件结果
+     *
+     * @return 失败结果列表
+     */
+    public List<FileResult> getFailures() {
+        List<FileResult> failures = new ArrayList<>();
+        for (FileResult result : results) {
+            if (!result.isSuccess()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    /**
+     * 获取批量传输总耗时
+     *
+     * @return 耗时（毫秒）
+     */
+    public long getElapsedMillis() {
+        long end = endTime > 0 ? endTime : System.currentTimeMillis();
+        return end - startTime;
+    }
+
+    /**
+     * 获取聚合吞吐量
+     *
+     * @return 吞吐量（MB/s）
+     */
+    public double getThroughputMBps() {
+        long elapsed = Math.max(1, getElapsedMillis());
+        return totalBytes.get() / 1024.0 / 1024.0 / (elapsed / 1000.0);
+    }
+
+    /**
+     * 是否全部传输成功
+     *
+     * @return 没有失败文件时返回true
+     */
+    public boolean isAllSuccess() {
+        return failureCount.get() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("成功: %d, 失败: %d, 总字节数: %d, 耗时: %d 毫秒, 吞吐量: %.2f MB/s",
+                getSuccessCount(), getFailureCount(), getTotalBytes(), getElapsedMillis(), getThroughputMBps());
+    }
+
+    /**
+     * 单个文件的传输结果
+     */
+    public static class FileResult {
+
+        private final String source;
+        private final String target;
+        private final boolean success;
+        private final long bytes;
+        private final int attempts;
+        private final long elapsedMillis;
+        private final String errorMessage;
+
+        FileResult(String source, String target, boolean success, long bytes,
+                   int attempts, long elapsedMillis, String errorMessage) {
+            this.source = source;
+            this.target = target;
+            this.success = success;
+            this.bytes = bytes;
+            this.attempts = attempts;
+            this.elapsedMillis = elapsedMillis;
+            this.errorMessage = errorMessage;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        @Override
+        public String toString() {
+            return source + " -> " + target + (success ? " 成功" : " 失败: " + errorMessage)
+                    + " (" + bytes + " 字节, 尝试 " + attempts + " 次, " + elapsedMillis + " 毫秒)";
+        }
+    }
+}
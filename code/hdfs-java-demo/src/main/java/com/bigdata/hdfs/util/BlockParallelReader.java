@@ -0,0 +1,260 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 按HDFS块并行读取大文件
+ * 通过getFileBlockLocations将文件按块边界切分，每个块由一个线程使用定位读（pread）读取，
+ * 不同块通常位于不同的DataNode上，因此读取吞吐量可以随DataNode数量扩展
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class BlockParallelReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockParallelReader.class);
+
+    // 有序模式下每个块最多缓存的已读未消费数据片数量
+    private static final int CHUNKS_PER_BLOCK = 2;
+
+    // 块结束标记
+    private static final Chunk END_OF_BLOCK = new Chunk(-1, null, 0);
+
+    private final FileSystem fileSystem;
+    private final int parallelism;
+    private final int chunkSize;
+
+    /**
+     * 构造函数
+     *
+     * @param fileSystem 文件系统对象
+     * @param parallelism 并发读取线程数
+     * @param chunkSize 每次定位读取并交给消费者的数据片大小（字节）
+     */
+    public BlockParallelReader(FileSystem fileSystem, int parallelism, int chunkSize) {
+        this.fileSystem = fileSystem;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 并行读取整个文件
+     * 有序模式下消费者在调用线程中按文件偏移顺序收到数据；无序模式下数据片一旦读到就交给消费者，
+     * 两种模式下消费者都不会被并发调用。回调返回后缓冲区会被复用，消费者不能持有其引用
+     *
+     * @param path 文件路径
+     * @param consumer 数据片消费者
+     * @param ordered 是否按偏移顺序交付
+     * @return 读取的总字节数
+     * @throws IOException 读取异常或消费者抛出的异常
+     */
+    public long read(Path path, ChunkConsumer consumer, boolean ordered) throws IOException {
+        FileStatus status = fileSystem.getFileStatus(path);
+        BlockLocation[] blocks = fileSystem.getFileBlockLocations(status, 0, status.getLen());
+        if (status.getLen() == 0 || blocks.length == 0) {
+            return 0;
+        }
+
+        if (logger.isDebugEnabled()) {
+            for (BlockLocation block : blocks) {
+                logger.debug("块 [{}, +{}) 位于: {}", block.getOffset(), block.getLength(), Arrays.toString(block.getHosts()));
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = newExecutor(Math.min(parallelism, blocks.length));
+        try (FSDataInputStream in = fileSystem.open(path)) {
+            long totalRead = ordered
+                ? readOrdered(in, blocks, status.getLen(), consumer, executor)
+                : readUnordered(in, blocks, status.getLen(), consumer, executor);
+            logger.info("并行读取完成: {} ({} 个块, {} 字节, 耗时 {} 毫秒)",
+                        path, blocks.length, totalRead, System.currentTimeMillis() - startTime);
+            return totalRead;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 有序读取：每个块的数据片放入该块自己的有界队列，调用线程按块顺序依次消费。
+     * 同时在途的块数不超过并发数，缓冲区从固定大小的池中获取，总内存占用有上限
+     */
+    private long readOrdered(FSDataInputStream in, BlockLocation[] blocks, long fileLength,
+                             ChunkConsumer consumer, ExecutorService executor) throws IOException {
+        BlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<>(parallelism * (CHUNKS_PER_BLOCK + 1) + 1);
+        while (bufferPool.remainingCapacity() > 0) {
+            bufferPool.add(new byte[chunkSize]);
+        }
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<BlockingQueue<Chunk>> blockQueues = new ArrayList<>(blocks.length);
+        int nextBlock = 0;
+        for (; nextBlock < Math.min(parallelism, blocks.length); nextBlock++) {
+            blockQueues.add(submitOrderedBlock(in, blocks[nextBlock], fileLength, bufferPool, failure, executor));
+        }
+
+        long totalRead = 0;
+        try {
+            for (int i = 0; i < blocks.length; i++) {
+                BlockingQueue<Chunk> queue = blockQueues.get(i);
+                Chunk chunk;
+                while ((chunk = queue.take()) != END_OF_BLOCK) {
+                    try {
+                        consumer.accept(chunk.offset, chunk.data, chunk.length);
+                        totalRead += chunk.length;
+                    } finally {
+                        bufferPool.put(chunk.data);
+                    }
+                }
+                rethrow(failure.get());
+                blockQueues.set(i, null);
+
+                // 当前块消费完毕后再提交下一个块，保持在途块数不超过并发数
+                if (nextBlock < blocks.length) {
+                    blockQueues.add(submitOrderedBlock(in, blocks[nextBlock++], fileLength, bufferPool, failure, executor));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("并行读取被中断");
+        }
+        return totalRead;
+    }
+
+    private BlockingQueue<Chunk> submitOrderedBlock(FSDataInputStream in, BlockLocation block, long fileLength,
+                                                    BlockingQueue<byte[]> bufferPool,
+                                                    AtomicReference<Throwable> failure, ExecutorService executor) {
+        BlockingQueue<Chunk> queue = new ArrayBlockingQueue<>(CHUNKS_PER_BLOCK);
+        executor.execute(() -> {
+            try {
+                long position = block.getOffset();
+                long end = Math.min(block.getOffset() + block.getLength(), fileLength);
+                while (position < end && failure.get() == null) {
+                    byte[] buffer = bufferPool.take();
+                    int length = (int) Math.min(chunkSize, end - position);
+                    in.readFully(position, buffer, 0, length);
+                    queue.put(new Chunk(position, buffer, length));
+                    position += length;
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                try {
+                    queue.put(END_OF_BLOCK);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        return queue;
+    }
+
+    /**
+     * 无序读取：每个块由一个线程读取，读到的数据片立即交给消费者（串行调用）
+     */
+    private long readUnordered(FSDataInputStream in, BlockLocation[] blocks, long fileLength,
+                               ChunkConsumer consumer, ExecutorService executor) throws IOException {
+        Object consumerLock = new Object();
+        List<Future<Long>> futures = new ArrayList<>(blocks.length);
+        for (BlockLocation block : blocks) {
+            futures.add(executor.submit(() -> {
+                byte[] buffer = new byte[chunkSize];
+                long position = block.getOffset();
+                long end = Math.min(block.getOffset() + block.getLength(), fileLength);
+                while (position < end) {
+                    int length = (int) Math.min(chunkSize, end - position);
+                    in.readFully(position, buffer, 0, length);
+                    synchronized (consumerLock) {
+                        consumer.accept(position, buffer, length);
+                    }
+                    position += length;
+                }
+                return end - block.getOffset();
+            }));
+        }
+
+        long totalRead = 0;
+        try {
+            for (Future<Long> future : futures) {
+                totalRead += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("并行读取被中断");
+        } catch (ExecutionException e) {
+            rethrow(e.getCause());
+        }
+        return totalRead;
+    }
+
+    private static void rethrow(Throwable t) throws IOException {
+        if (t == null) {
+            return;
+        }
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        throw new IOException("并行读取异常", t);
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "hdfs-block-reader-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 数据片消费者
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+
+        /**
+         * 处理一个数据片
+         *
+         * @param offset 数据片在文件中的起始偏移
+         * @param buffer 数据缓冲区，回调返回后会被复用
+         * @param length 有效数据长度
+         * @throws IOException 处理异常
+         */
+        void accept(long offset, byte[] buffer, int length) throws IOException;
+    }
+
+    private static class Chunk {
+        final long offset;
+        final byte[] data;
+        final int length;
+
+        Chunk(long offset, byte[] data, int length) {
+            this.offset = offset;
+            this.data = data;
+            this.length = length;
+        }
+    }
+}
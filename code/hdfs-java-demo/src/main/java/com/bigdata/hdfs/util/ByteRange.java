@@ -0,0 +1,67 @@
+package com.bigdata.hdfs.util;
+
+/**
+ * 文件中的字节区间
+ * 用于描述一次定位读取的起始偏移和长度
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public final class ByteRange {
+
+    private final long offset;
+    private final int length;
+
+    /**
+     * 构造函数
+     *
+     * @param offset 起始偏移
+     * @param length 长度（字节）
+     */
+    public ByteRange(long offset, int length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("无效的字节区间: offset=" + offset + ", length=" + length);
+        }
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 获取区间结束位置（不包含）
+     *
+     * @return 结束偏移
+     */
+    public long getEnd() {
+        return offset + length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ByteRange)) {
+            return false;
+        }
+        ByteRange other = (ByteRange) o;
+        return offset == other.offset && length == other.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(offset) * 31 + length;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + offset + ", +" + length + ")";
+    }
+}
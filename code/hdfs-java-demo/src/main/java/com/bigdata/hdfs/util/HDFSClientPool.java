@@ -0,0 +1,292 @@
+package com.bigdata.hdfs.util;
+
+import com.bigdata.hdfs.config.HDFSConfig;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HDFS客户端连接池
+ * 按 (URI, 用户) 共享FileSystem实例并进行引用计数：多个HDFSUtil共用同一个已建立的连接，
+ * 关闭某个句柄只会释放引用，不会影响其他正在使用的句柄。
+ * 引用计数归零的连接会继续保留一段时间以便复用，空闲超时后才真正关闭
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public final class HDFSClientPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(HDFSClientPool.class);
+
+    // 空闲连接的保留时间（毫秒）
+    private static final long IDLE_TIMEOUT_MS = 60_000L;
+
+    private static final Map<PoolKey, PooledClient> clients = new HashMap<>();
+
+    private static ScheduledExecutorService evictor;
+
+    private HDFSClientPool() {
+    }
+
+    /**
+     * 使用HDFSConfig中配置的用户名获取连接
+     *
+     * @param hdfsUri HDFS地址
+     * @return 连接租约，使用完毕后需要关闭
+     * @throws IOException 创建连接异常
+     */
+    public static Lease acquire(String hdfsUri) throws IOException {
+        return acquire(hdfsUri, HDFSConfig.getInstance().getUserName());
+    }
+
+    /**
+     * 获取指定URI和用户的连接，不存在时创建
+     * 查找和占位在锁内完成，创建连接（与NameNode握手）在锁外进行，不阻塞其他URI和用户获取已有的连接；
+     * 同一个URI和用户的其他线程等待该连接创建完成
+     *
+     * @param hdfsUri HDFS地址
+     * @param userName 访问HDFS的用户名
+     * @return 连接租约，使用完毕后需要关闭
+     * @throws IOException 创建连接异常
+     */
+    public static Lease acquire(String hdfsUri, String userName) throws IOException {
+        PoolKey key = new PoolKey(URI.create(hdfsUri), userName);
+        PooledClient client;
+        boolean creator = false;
+        synchronized (HDFSClientPool.class) {
+            client = clients.get(key);
+            if (client == null) {
+                client = new PooledClient(key);
+                clients.put(key, client);
+                creator = true;
+            } else {
+                logger.debug("复用HDFS连接: {} (用户: {}, 当前引用数: {})", hdfsUri, userName, client.references);
+            }
+            // 创建期间占位的连接引用数不为0，不会被空闲回收
+            client.references++;
+        }
+
+        if (creator) {
+            FileSystem fileSystem;
+            try {
+                fileSystem = createFileSystem(key);
+            } catch (IOException | RuntimeException e) {
+                synchronized (HDFSClientPool.class) {
+                    clients.remove(key);
+                    client.references--;
+                    client.failure = e;
+                    HDFSClientPool.class.notifyAll();
+                }
+                throw e;
+            }
+            synchronized (HDFSClientPool.class) {
+                client.fileSystem = fileSystem;
+                startEvictor();
+                HDFSClientPool.class.notifyAll();
+            }
+            logger.info("创建HDFS连接: {} (用户: {})", hdfsUri, userName);
+            return new Lease(client);
+        }
+
+        synchronized (HDFSClientPool.class) {
+            try {
+                while (client.fileSystem == null && client.failure == null) {
+                    HDFSClientPool.class.wait();
+                }
+            } catch (InterruptedException e) {
+                client.references--;
+                client.lastReleaseTime = System.currentTimeMillis();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待HDFS连接创建被中断: " + hdfsUri);
+            }
+            if (client.fileSystem == null) {
+                client.references--;
+                throw new IOException("创建HDFS连接失败: " + hdfsUri, client.failure);
+            }
+        }
+        return new Lease(client);
+    }
+
+    /**
+     * 关闭所有空闲连接
+     *
+     * @return 关闭的连接数
+     */
+    public static int closeIdle() {
+        return evictIdle(0);
+    }
+
+    /**
+     * 获取指定连接当前的引用数
+     *
+     * @param hdfsUri HDFS地址
+     * @param userName 用户名
+     * @return 引用数，连接不存在返回-1
+     */
+    public static synchronized int getReferenceCount(String hdfsUri, String userName) {
+        PooledClient client = clients.get(new PoolKey(URI.create(hdfsUri), userName));
+        return client == null ? -1 : client.references;
+    }
+
+    private static synchronized void release(PooledClient client) {
+        client.references--;
+        client.lastReleaseTime = System.currentTimeMillis();
+        logger.debug("释放HDFS连接: {} (剩余引用数: {})", client.key.uri, client.references);
+    }
+
+    /**
+     * 关闭引用数为0且空闲超过指定时间的连接
+     */
+    private static int evictIdle(long idleTimeoutMs) {
+        List<PooledClient> evicted = new ArrayList<>();
+        synchronized (HDFSClientPool.class) {
+            long now = System.currentTimeMillis();
+            Iterator<PooledClient> iterator = clients.values().iterator();
+            while (iterator.hasNext()) {
+                PooledClient client = iterator.next();
+                if (client.references == 0 && now - client.lastReleaseTime >= idleTimeoutMs) {
+                    iterator.remove();
+                    evicted.add(client);
+                }
+            }
+        }
+        // 在锁外关闭连接，避免阻塞其他线程获取连接
+        for (PooledClient client : evicted) {
+            try {
+                client.fileSystem.close();
+                logger.info("关闭空闲HDFS连接: {} (用户: {})", client.key.uri, client.key.userName);
+            } catch (IOException e) {
+                logger.error("关闭HDFS连接异常: {}", client.key.uri, e);
+            }
+        }
+        return evicted.size();
+    }
+
+    private static void startEvictor() {
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hdfs-client-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> evictIdle(IDLE_TIMEOUT_MS),
+            IDLE_TIMEOUT_MS, IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 根据HDFSConfig创建独立的FileSystem实例
+     * 使用newInstance而不是get，避免与FileSystem全局缓存中的实例互相关闭
+     */
+    private static FileSystem createFileSystem(PoolKey key) throws IOException {
+        HDFSConfig config = HDFSConfig.getInstance();
+        Configuration configuration = new Configuration();
+        configuration.set("fs.defaultFS", key.uri.toString());
+        configuration.setInt("io.file.buffer.size", config.getBufferSize());
+        configuration.setInt("ipc.client.connect.timeout", config.getConnectTimeout());
+        configuration.setInt("ipc.client.connect.max.retries", config.getMaxRetries());
+
+        UserGroupInformation ugi = UserGroupInformation.createRemoteUser(key.userName);
+        try {
+            return ugi.doAs((PrivilegedExceptionAction<FileSystem>) () ->
+                FileSystem.newInstance(key.uri, configuration));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("创建HDFS连接被中断: " + key.uri, e);
+        }
+    }
+
+    /**
+     * 连接租约
+     * 关闭租约只会释放引用，可以重复调用
+     */
+    public static final class Lease implements Closeable {
+
+        private final PooledClient client;
+        private final FileSystem fileSystem;
+        private boolean released;
+
+        private Lease(PooledClient client) {
+            this.client = client;
+            this.fileSystem = client.fileSystem;
+        }
+
+        /**
+         * 获取共享的FileSystem实例，调用方不能关闭该实例
+         *
+         * @return 文件系统对象
+         */
+        public FileSystem getFileSystem() {
+            if (released) {
+                throw new IllegalStateException("连接租约已释放");
+            }
+            return fileSystem;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!released) {
+                released = true;
+                release(client);
+            }
+        }
+    }
+
+    private static final class PooledClient {
+        final PoolKey key;
+        // 创建完成前为null，创建失败时记录异常，均在HDFSClientPool的锁内读写
+        FileSystem fileSystem;
+        Exception failure;
+        int references;
+        long lastReleaseTime;
+
+        PooledClient(PoolKey key) {
+            this.key = key;
+        }
+    }
+
+    private static final class PoolKey {
+        final URI uri;
+        final String userName;
+
+        PoolKey(URI uri, String userName) {
+            this.uri = uri;
+            this.userName = userName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return uri.equals(other.uri) && Objects.equals(userName, other.userName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, userName);
+        }
+    }
+}
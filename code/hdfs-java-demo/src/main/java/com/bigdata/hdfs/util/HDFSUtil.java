@@ -1,13 +1,38 @@
 package com.bigdata.hdfs.util;
 
+import com.bigdata.hdfs.config.HDFSConfig;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
+import org.apache.hadoop.hdfs.DistributedFileSystem;
 import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.CodecPool;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.util.LineReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * HDFS操作工具类
@@ -20,9 +45,35 @@ public class HDFSUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(HDFSUtil.class);
     
+    // 批量传输失败重试的基础退避时间（毫秒），第n次重试等待 n * RETRY_BACKOFF_MS
+    private static final long RETRY_BACKOFF_MS = 500L;
+    
+    // 批量传输每完成多少个文件输出一次进度
+    private static final int PROGRESS_LOG_INTERVAL = 1000;
+    
+    // 并行块读取时单次定位读的数据片大小，pread每次调用都有建立块读取器的开销，因此取较大值
+    private static final int PARALLEL_READ_CHUNK_SIZE = 4 * 1024 * 1024;
+    
+    // 批量区间读取的默认并发数
+    private static final int DEFAULT_RANGE_READ_PARALLELISM = 4;
+    
+    // 批量设置副本数的默认并发数
+    private static final int DEFAULT_REPLICATION_PARALLELISM = 8;
+    
+    // 多文件读取时跳过的隐藏文件（如MapReduce输出目录中的_SUCCESS、写入中的.tmp文件）
+    private static final PathFilter HIDDEN_FILE_FILTER =
+        path -> !path.getName().startsWith("_") && !path.getName().startsWith(".");
+    
+    private HDFSClientPool.Lease lease; // 连接池租约，close时只释放引用
     private FileSystem fileSystem;
     private Configuration configuration;
     private short replicationFactor = 3; // 默认副本数为3
+    private int bufferSize; // 流式读写缓冲区大小
+    private int maxRetries; // 批量传输单个文件的最大重试次数
+    private CompressionCodecFactory codecFactory; // 按扩展名识别压缩格式（.gz/.bz2/.lz4/.snappy等）
+    
+    // 每个线程复用的上传缓冲区，大小取自HDFSConfig.getBufferSize()
+    private final ThreadLocal<ByteBuffer> uploadBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocate(bufferSize));
     
     /**
      * 构造函数，初始化HDFS连接
@@ -42,18 +93,17 @@ public class HDFSUtil {
      * @throws Exception 初始化异常
      */
     public HDFSUtil(String hdfsUri, short replicationFactor) throws Exception {
+        // 只用于识别压缩格式和流拷贝，文件系统实例由连接池按HDFSConfig创建；
+        // 副本数在每次create时显式传入，不依赖客户端的dfs.replication默认值
         this.configuration = new Configuration();
-        this.configuration.set("fs.defaultFS", hdfsUri);
         this.replicationFactor = replicationFactor;
+        this.bufferSize = HDFSConfig.getInstance().getBufferSize();
+        this.maxRetries = HDFSConfig.getInstance().getMaxRetries();
+        this.codecFactory = new CompressionCodecFactory(configuration);
         
-        // 设置默认副本数
-        this.configuration.setInt("dfs.replication", replicationFactor);
-        
-        // 设置用户名，避免权限问题
-        System.setProperty("HADOOP_USER_NAME", "hadoop");
-        
-        // 获取文件系统实例
-        this.fileSystem = FileSystem.get(URI.create(hdfsUri), configuration);
+        // 从连接池获取共享的文件系统实例，相同URI和用户（HDFSConfig.getUserName()）的HDFSUtil复用同一个连接
+        this.lease = HDFSClientPool.acquire(hdfsUri);
+        this.fileSystem = lease.getFileSystem();
         
         logger.info("HDFS连接初始化成功: {}, 副本数: {}", hdfsUri, replicationFactor);
     }
@@ -105,37 +155,239 @@ public class HDFSUtil {
      * @return 上传成功返回true，否则返回false
      */
     public boolean uploadFile(String localFilePath, String hdfsFilePath, short replicationFactor) {
+        return uploadFile(localFilePath, hdfsFilePath, replicationFactor, false);
+    }
+    
+    /**
+     * 上传本地文件到HDFS并指定副本数，可选择原子上传
+     * 覆盖和副本数都在一次create调用中完成，不再额外调用exists、delete和setReplication。
+     * 本地文件通过FileChannel直接读入线程内复用的缓冲区，再整块写入HDFS输出流。
+     * 原子模式下先写入同目录的隐藏临时文件，写完后重命名为目标文件，读取方不会看到写了一半的文件
+     * 
+     * @param localFilePath 本地文件路径
+     * @param hdfsFilePath HDFS文件路径
+     * @param replicationFactor 副本数
+     * @param atomic 是否先写临时文件再重命名
+     * @return 上传成功返回true，否则返回false
+     */
+    public boolean uploadFile(String localFilePath, String hdfsFilePath, short replicationFactor, boolean atomic) {
+        return uploadFile(localFilePath, hdfsFilePath, replicationFactor, atomic, null);
+    }
+    
+    /**
+     * 上传本地文件到HDFS并在写入时压缩
+     * 压缩格式通过CompressionCodecFactory按名称查找（gzip、bzip2、lz4、snappy等），bzip2压缩的文件仍可被MapReduce切分。
+     * 目标路径没有该格式的扩展名时自动补全，读取时据此自动识别并解压
+     * 
+     * @param localFilePath 本地文件路径
+     * @param hdfsFilePath HDFS文件路径
+     * @param replicationFactor 副本数
+     * @param atomic 是否先写临时文件再重命名
+     * @param codecName 压缩格式名称，为null时不压缩
+     * @return 上传成功返回true，否则返回false
+     */
+    public boolean uploadFile(String localFilePath, String hdfsFilePath, short replicationFactor, boolean atomic,
+                              String codecName) {
         try {
-            Path localPath = new Path(localFilePath);
-            Path hdfsPath = new Path(hdfsFilePath);
-            
-            // 检查本地文件是否存在
-            File localFile = new File(localFilePath);
-            if (!localFile.exists()) {
-                logger.error("本地文件不存在: {}", localFilePath);
-                return false;
-            }
-            
-            // 如果HDFS文件已存在，先删除
-            if (fileSystem.exists(hdfsPath)) {
-                fileSystem.delete(hdfsPath, false);
-                logger.info("删除已存在的HDFS文件: {}", hdfsFilePath);
-            }
-            
-            // 上传文件
-            fileSystem.copyFromLocalFile(localPath, hdfsPath);
-            
-            // 设置副本数
-            fileSystem.setReplication(hdfsPath, replicationFactor);
-            
-            logger.info("文件上传成功: {} -> {}, 副本数: {}", localFilePath, hdfsFilePath, replicationFactor);
+            CompressionCodec codec = resolveCodec(codecName);
+            Path target = withCodecExtension(new Path(hdfsFilePath), codec);
+            long bytes = copyLocalFileToHdfs(new File(localFilePath), target, replicationFactor, atomic, codec);
+            logger.info("文件上传成功: {} -> {} ({} 字节), 副本数: {}", localFilePath, target, bytes, replicationFactor);
             return true;
+        } catch (FileNotFoundException e) {
+            logger.error("本地文件不存在: {}", localFilePath);
+            return false;
         } catch (Exception e) {
             logger.error("文件上传异常: {} -> {}", localFilePath, hdfsFilePath, e);
             return false;
         }
     }
     
+    /**
+     * 使用FileChannel读取本地文件并写入HDFS
+     * FSDataOutputStream只接受byte[]，直接内存缓冲区仍需再拷贝一次到堆内，
+     * 因此使用堆缓冲区：通道读取直接填充其底层数组，写出时不再产生额外拷贝
+     * 
+     * @return 写入的字节数
+     */
+    private long copyLocalFileToHdfs(File localFile, Path hdfsPath, short replicationFactor, boolean atomic,
+                                     CompressionCodec codec) throws IOException {
+        if (!localFile.isFile()) {
+            throw new FileNotFoundException("本地文件不存在: " + localFile);
+        }
+        ByteBuffer buffer = uploadBuffer.get();
+        long[] total = {0};
+        try (FileChannel channel = FileChannel.open(localFile.toPath(), StandardOpenOption.READ)) {
+            createAndWrite(hdfsPath, replicationFactor, atomic, codec, out -> {
+                buffer.clear();
+                while (channel.read(buffer) != -1) {
+                    // 缓冲区写满后整块写出
+                    if (!buffer.hasRemaining()) {
+                        out.write(buffer.array(), 0, buffer.position());
+                        total[0] += buffer.position();
+                        buffer.clear();
+                    }
+                }
+                if (buffer.position() > 0) {
+                    out.write(buffer.array(), 0, buffer.position());
+                    total[0] += buffer.position();
+                }
+            });
+        }
+        return total[0];
+    }
+    
+    /**
+     * 创建文件并写入内容
+     * 一次create调用完成覆盖已存在文件和设置副本数；原子模式下写入临时文件后重命名，失败时清理临时文件。
+     * 指定压缩格式时写入逻辑拿到的是压缩输出流，压缩器从CodecPool借用并在写完后归还
+     * 
+     * @param target 目标文件
+     * @param replicationFactor 副本数
+     * @param atomic 是否先写临时文件再重命名
+     * @param codec 压缩格式，为null时不压缩
+     * @param writer 内容写入逻辑
+     */
+    private void createAndWrite(Path target, short replicationFactor, boolean atomic, CompressionCodec codec,
+                                OutputWriter writer) throws IOException {
+        Path writePath = atomic
+            ? new Path(target.getParent(), "." + target.getName() + "." + UUID.randomUUID() + "._COPYING_")
+            : target;
+        // 先借用压缩器再创建文件，压缩格式不可用时不会留下空文件
+        Compressor compressor = codec != null ? borrowCompressor(codec) : null;
+        try {
+            // 输出流必须在try中显式关闭：HDFS在close时才提交最后一个块，关闭失败意味着写入失败
+            try (FSDataOutputStream out = fileSystem.create(writePath, true, bufferSize, replicationFactor,
+                                                            fileSystem.getDefaultBlockSize(writePath))) {
+                if (codec == null) {
+                    writer.write(out);
+                } else {
+                    CompressionOutputStream compressed = codec.createOutputStream(out, compressor);
+                    writer.write(compressed);
+                    // 只写出压缩尾部，底层输出流由外层关闭
+                    compressed.finish();
+                }
+            }
+            if (atomic) {
+                renameWithOverwrite(writePath, target);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (atomic) {
+                try {
+                    fileSystem.delete(writePath, false);
+                } catch (IOException cleanupError) {
+                    logger.warn("清理临时文件失败: {}", writePath, cleanupError);
+                }
+            }
+            throw e;
+        } finally {
+            if (compressor != null) {
+                CodecPool.returnCompressor(compressor);
+            }
+        }
+    }
+    
+    /**
+     * 按名称查找压缩格式
+     * 
+     * @param codecName 压缩格式名称，如gzip、bzip2、lz4、snappy，为null时返回null
+     * @return 压缩格式
+     * @throws IllegalArgumentException 不支持的压缩格式
+     */
+    private CompressionCodec resolveCodec(String codecName) {
+        if (codecName == null) {
+            return null;
+        }
+        CompressionCodec codec = codecFactory.getCodecByName(codecName);
+        if (codec == null) {
+            throw new IllegalArgumentException("不支持的压缩格式: " + codecName);
+        }
+        return codec;
+    }
+    
+    /**
+     * 从CodecPool借用压缩器
+     * lz4、snappy等格式依赖额外的库，缺少时在创建压缩器阶段才会抛出LinkageError，这里转换为IOException
+     */
+    private Compressor borrowCompressor(CompressionCodec codec) throws IOException {
+        try {
+            return CodecPool.getCompressor(codec);
+        } catch (LinkageError e) {
+            throw new IOException("压缩格式依赖的库不可用: " + codec.getClass().getSimpleName(), e);
+        }
+    }
+    
+    /**
+     * 从CodecPool借用解压器，缺少依赖库时转换为IOException
+     */
+    private Decompressor borrowDecompressor(CompressionCodec codec) throws IOException {
+        try {
+            return CodecPool.getDecompressor(codec);
+        } catch (LinkageError e) {
+            throw new IOException("压缩格式依赖的库不可用: " + codec.getClass().getSimpleName(), e);
+        }
+    }
+    
+    /**
+     * 为压缩文件补全扩展名，保证读取时可以按扩展名识别压缩格式
+     */
+    private Path withCodecExtension(Path path, CompressionCodec codec) {
+        if (codec == null || path.getName().endsWith(codec.getDefaultExtension())) {
+            return path;
+        }
+        return path.suffix(codec.getDefaultExtension());
+    }
+    
+    /**
+     * 打开文件输入流，按扩展名识别压缩格式并自动解压
+     * 解压器从CodecPool借用，关闭输入流时归还
+     */
+    private InputStream openDecompressed(Path path) throws IOException {
+        FSDataInputStream in = fileSystem.open(path, bufferSize);
+        CompressionCodec codec = codecFactory.getCodec(path);
+        if (codec == null) {
+            return in;
+        }
+        Decompressor decompressor;
+        try {
+            decompressor = borrowDecompressor(codec);
+        } catch (IOException e) {
+            IOUtils.closeStream(in);
+            throw e;
+        }
+        try {
+            return new FilterInputStream(codec.createInputStream(in, decompressor)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        CodecPool.returnDecompressor(decompressor);
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            CodecPool.returnDecompressor(decompressor);
+            IOUtils.closeStream(in);
+            throw e;
+        }
+    }
+    
+    /**
+     * 重命名并覆盖目标文件
+     * HDFS支持一次RPC完成的原子覆盖重命名；其他文件系统没有公开该接口，退化为先删除再重命名
+     */
+    private void renameWithOverwrite(Path source, Path target) throws IOException {
+        if (fileSystem instanceof DistributedFileSystem) {
+            ((DistributedFileSystem) fileSystem).rename(source, target, Options.Rename.OVERWRITE);
+            return;
+        }
+        fileSystem.delete(target, false);
+        if (!fileSystem.rename(source, target)) {
+            throw new IOException("重命名失败: " + source + " -> " + target);
+        }
+    }
+    
     /**
      * 从HDFS下载文件到本地
      * 
@@ -164,6 +416,252 @@ public class HDFSUtil {
         }
     }
     
+    /**
+     * 并发上传多个本地文件到HDFS目录
+     * 目标文件名与本地文件名相同，失败的文件按HDFSConfig中的最大重试次数重试
+     * 
+     * @param localFilePaths 本地文件路径列表
+     * @param hdfsDir HDFS目标目录
+     * @param parallelism 并发传输线程数
+     * @return 批量传输结果报告
+     */
+    public BatchTransferReport uploadFiles(List<String> localFilePaths, String hdfsDir, int parallelism) {
+        BatchTransferReport report = new BatchTransferReport();
+        ThreadPoolExecutor executor = newTransferExecutor(parallelism);
+        try {
+            for (String localFilePath : localFilePaths) {
+                String hdfsFilePath = new Path(hdfsDir, new File(localFilePath).getName()).toString();
+                submitTransfer(executor, report, localFilePath, hdfsFilePath, this::uploadSingleFile);
+            }
+        } finally {
+            awaitTransfers(executor, report, "批量上传");
+        }
+        return report;
+    }
+    
+    /**
+     * 并发上传本地目录（递归）到HDFS目录，保留相对目录结构
+     * 
+     * @param localDir 本地目录
+     * @param hdfsDir HDFS目标目录
+     * @param parallelism 并发传输线程数
+     * @return 批量传输结果报告
+     */
+    public BatchTransferReport uploadDirectory(String localDir, String hdfsDir, int parallelism) {
+        BatchTransferReport report = new BatchTransferReport();
+        java.nio.file.Path root = new File(localDir).toPath();
+        if (!Files.isDirectory(root)) {
+            logger.error("本地目录不存在: {}", localDir);
+            report.finish();
+            return report;
+        }
+        
+        ThreadPoolExecutor executor = newTransferExecutor(parallelism);
+        // 按需遍历目录并提交任务，队列满时由提交线程执行，避免一次性生成海量任务
+        try (Stream<java.nio.file.Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String relativePath = root.relativize(file).toString().replace(File.separatorChar, '/');
+                String hdfsFilePath = new Path(hdfsDir, relativePath).toString();
+                submitTransfer(executor, report, file.toString(), hdfsFilePath, this::uploadSingleFile);
+            });
+        } catch (Exception e) {
+            logger.error("遍历本地目录异常: {}", localDir, e);
+        } finally {
+            awaitTransfers(executor, report, "目录上传");
+        }
+        return report;
+    }
+    
+    /**
+     * 并发下载多个HDFS文件到本地目录
+     * 
+     * @param hdfsFilePaths HDFS文件路径列表
+     * @param localDir 本地目标目录
+     * @param parallelism 并发传输线程数
+     * @return 批量传输结果报告
+     */
+    public BatchTransferReport downloadFiles(List<String> hdfsFilePaths, String localDir, int parallelism) {
+        BatchTransferReport report = new BatchTransferReport();
+        ThreadPoolExecutor executor = newTransferExecutor(parallelism);
+        try {
+            for (String hdfsFilePath : hdfsFilePaths) {
+                String localFilePath = new File(localDir, new Path(hdfsFilePath).getName()).getPath();
+                submitTransfer(executor, report, hdfsFilePath, localFilePath, this::downloadSingleFile);
+            }
+        } finally {
+            awaitTransfers(executor, report, "批量下载");
+        }
+        return report;
+    }
+    
+    /**
+     * 并发下载HDFS目录（递归）到本地目录，保留相对目录结构
+     * 
+     * @param hdfsDir HDFS目录
+     * @param localDir 本地目标目录
+     * @param parallelism 并发传输线程数
+     * @return 批量传输结果报告
+     */
+    public BatchTransferReport downloadDirectory(String hdfsDir, String localDir, int parallelism) {
+        BatchTransferReport report = new BatchTransferReport();
+        ThreadPoolExecutor executor = newTransferExecutor(parallelism);
+        try {
+            Path root = fileSystem.makeQualified(new Path(hdfsDir));
+            String rootPrefix = root.toUri().getPath();
+            // 使用远程迭代器分页获取文件列表，不会一次性加载整个目录树
+            RemoteIterator<LocatedFileStatus> files = fileSystem.listFiles(root, true);
+            while (files.hasNext()) {
+                Path file = files.next().getPath();
+                String relativePath = file.toUri().getPath().substring(rootPrefix.length());
+                String localFilePath = new File(localDir, relativePath).getPath();
+                submitTransfer(executor, report, file.toString(), localFilePath, this::downloadSingleFile);
+            }
+        } catch (FileNotFoundException e) {
+            logger.error("HDFS目录不存在: {}", hdfsDir);
+        } catch (Exception e) {
+            logger.error("遍历HDFS目录异常: {}", hdfsDir, e);
+        } finally {
+            awaitTransfers(executor, report, "目录下载");
+        }
+        return report;
+    }
+    
+    /**
+     * 上传单个文件（覆盖已存在的目标文件），使用NIO通道上传路径
+     * 
+     * @return 传输的字节数
+     */
+    private long uploadSingleFile(String localFilePath, String hdfsFilePath) throws IOException {
+        return copyLocalFileToHdfs(new File(localFilePath), new Path(hdfsFilePath), replicationFactor, false, null);
+    }
+    
+    /**
+     * 下载单个文件，使用原始本地文件系统以避免生成.crc校验文件
+     * 
+     * @return 传输的字节数
+     */
+    private long downloadSingleFile(String hdfsFilePath, String localFilePath) throws IOException {
+        fileSystem.copyToLocalFile(false, new Path(hdfsFilePath), new Path(localFilePath), true);
+        return new File(localFilePath).length();
+    }
+    
+    /**
+     * 创建批量操作线程池
+     * 使用有界队列和CallerRunsPolicy实现背压：队列满时由提交线程自己执行传输，从而限制待处理任务数量
+     */
+    private ThreadPoolExecutor newTransferExecutor(int parallelism) {
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * 2),
+            runnable -> {
+                Thread thread = new Thread(runnable, "hdfs-transfer-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    
+    /**
+     * 提交单个文件的传输任务，失败时按退避时间重试
+     */
+    private void submitTransfer(ThreadPoolExecutor executor, BatchTransferReport report,
+                                String source, String target, TransferAction action) {
+        executor.execute(() -> {
+            long startTime = System.currentTimeMillis();
+            int attempt = 0;
+            Exception lastError = null;
+            while (attempt <= maxRetries) {
+                attempt++;
+                try {
+                    long bytes = action.transfer(source, target);
+                    report.addResult(new BatchTransferReport.FileResult(source, target, true, bytes,
+                        attempt, System.currentTimeMillis() - startTime, null));
+                    logger.debug("文件传输成功: {} -> {} ({} 字节)", source, target, bytes);
+                    logProgress(report);
+                    return;
+                } catch (FileNotFoundException e) {
+                    // 源文件不存在时重试没有意义
+                    lastError = e;
+                    break;
+                } catch (Exception e) {
+                    lastError = e;
+                    logger.warn("文件传输失败（第 {} 次尝试）: {} -> {}, 原因: {}", attempt, source, target, e.getMessage());
+                    if (attempt <= maxRetries) {
+                        try {
+                            Thread.sleep(RETRY_BACKOFF_MS * attempt);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                }
+            }
+            report.addResult(new BatchTransferReport.FileResult(source, target, false, 0,
+                attempt, System.currentTimeMillis() - startTime, String.valueOf(lastError)));
+            logger.error("文件传输最终失败: {} -> {}", source, target, lastError);
+            logProgress(report);
+        });
+    }
+    
+    /**
+     * 按固定间隔输出批量传输进度
+     */
+    private void logProgress(BatchTransferReport report) {
+        long finished = report.getSuccessCount() + report.getFailureCount();
+        if (finished % PROGRESS_LOG_INTERVAL == 0) {
+            logger.info("批量传输进度: 已完成 {} 个文件, {}", finished, report);
+        }
+    }
+    
+    /**
+     * 等待所有传输任务结束并关闭线程池
+     */
+    private void awaitTransfers(ThreadPoolExecutor executor, BatchTransferReport report, String operation) {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.info("{}进行中: 活动线程 {}, 排队任务 {}", operation, executor.getActiveCount(), executor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        report.finish();
+        logger.info("{}完成: {}", operation, report);
+    }
+    
+    /**
+     * 输出流写入动作
+     */
+    @FunctionalInterface
+    public interface OutputWriter {
+        void write(OutputStream out) throws IOException;
+    }
+    
+    /**
+     * 字节行处理回调
+     */
+    @FunctionalInterface
+    public interface ByteLineConsumer {
+        /**
+         * 处理一行数据
+         * 
+         * @param line 行数据所在的缓冲区，从下标0开始
+         * @param length 行长度（字节，不包含换行符）
+         * @throws IOException 处理异常
+         */
+        void accept(byte[] line, int length) throws IOException;
+    }
+    
+    /**
+     * 单文件传输动作
+     */
+    @FunctionalInterface
+    private interface TransferAction {
+        long transfer(String source, String target) throws IOException;
+    }
+    
     /**
      * 删除HDFS文件或目录
      * 
@@ -225,12 +723,13 @@ public class HDFSUtil {
     
     /**
      * 读取HDFS文件内容
+     * 压缩文件（.gz、.bz2等）按扩展名自动解压
      * 
      * @param hdfsFilePath HDFS文件路径
      * @return 文件内容字符串
      */
     public String readFile(String hdfsFilePath) {
-        FSDataInputStream inputStream = null;
+        InputStream inputStream = null;
         try {
             Path path = new Path(hdfsFilePath);
             
@@ -239,7 +738,7 @@ public class HDFSUtil {
                 return null;
             }
             
-            inputStream = fileSystem.open(path);
+            inputStream = openDecompressed(path);
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             IOUtils.copyBytes(inputStream, outputStream, configuration);
             
@@ -254,6 +753,277 @@ public class HDFSUtil {
         }
     }
     
+    /**
+     * 逐行流式读取HDFS文件
+     * 文件内容不会整体加载到内存，内存占用只与缓冲区和单行长度有关，适用于任意大小的文件。
+     * 压缩文件按扩展名自动解压
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param lineHandler 每一行的处理回调（不包含换行符）
+     * @return 读取的行数，文件不存在或读取异常返回-1
+     */
+    public long readLines(String hdfsFilePath, Consumer<String> lineHandler) {
+        BufferedReader reader = null;
+        try {
+            Path path = new Path(hdfsFilePath);
+            reader = new BufferedReader(
+                new InputStreamReader(openDecompressed(path), StandardCharsets.UTF_8), bufferSize);
+            
+            long lineCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineHandler.accept(line);
+                lineCount++;
+            }
+            
+            logger.info("文件流式读取完成: {} (共 {} 行)", hdfsFilePath, lineCount);
+            return lineCount;
+        } catch (FileNotFoundException e) {
+            logger.error("文件不存在: {}", hdfsFilePath);
+            return -1;
+        } catch (Exception e) {
+            logger.error("文件流式读取异常: {}", hdfsFilePath, e);
+            return -1;
+        } finally {
+            IOUtils.closeStream(reader);
+        }
+    }
+    
+    /**
+     * 以字节形式逐行流式读取HDFS文件
+     * 不做字符解码，也不为每一行创建字符串：所有行复用同一个缓冲区，适合在字节层面解析日志等高吞吐场景。
+     * 行分隔符与MapReduce的LineRecordReader一致（\n、\r或\r\n），压缩文件按扩展名自动解压
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param lineConsumer 每一行的处理回调（不包含换行符），缓冲区在回调返回后会被复用
+     * @return 读取的行数，文件不存在或读取异常返回-1
+     */
+    public long readLineBytes(String hdfsFilePath, ByteLineConsumer lineConsumer) {
+        LineReader reader = null;
+        try {
+            reader = new LineReader(openDecompressed(new Path(hdfsFilePath)), bufferSize);
+            Text line = new Text();
+            long lineCount = 0;
+            while (reader.readLine(line) > 0) {
+                lineConsumer.accept(line.getBytes(), line.getLength());
+                lineCount++;
+            }
+            
+            logger.info("文件流式读取完成: {} (共 {} 行)", hdfsFilePath, lineCount);
+            return lineCount;
+        } catch (FileNotFoundException e) {
+            logger.error("文件不存在: {}", hdfsFilePath);
+            return -1;
+        } catch (Exception e) {
+            logger.error("文件流式读取异常: {}", hdfsFilePath, e);
+            return -1;
+        } finally {
+            IOUtils.closeStream(reader);
+        }
+    }
+    
+    /**
+     * 按字节区间并行逐行读取HDFS文件
+     * 文件按换行边界切分为多个区间，各区间在线程池中并行读取，每个区间使用consumerFactory创建的独立消费者，
+     * 调用方可以在消费者中维护线程私有的聚合结果，读取完成后合并。
+     * 压缩文件无法从任意偏移开始解压，退化为单个消费者顺序读取
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param parallelism 并发读取线程数
+     * @param consumerFactory 为每个区间创建消费者
+     * @param <T> 消费者类型
+     * @return 按区间顺序排列的消费者，文件不存在或读取异常返回null
+     */
+    public <T extends ByteLineConsumer> List<T> readLineBytesParallel(String hdfsFilePath, int parallelism,
+                                                                      Supplier<T> consumerFactory) {
+        Path path = new Path(hdfsFilePath);
+        if (codecFactory.getCodec(path) != null) {
+            logger.info("压缩文件无法按字节区间切分，使用单线程读取: {}", hdfsFilePath);
+            T consumer = consumerFactory.get();
+            return readLineBytes(hdfsFilePath, consumer) < 0 ? null : Collections.singletonList(consumer);
+        }
+        try {
+            return new ParallelLineReader(fileSystem, parallelism, bufferSize).read(path, consumerFactory);
+        } catch (FileNotFoundException e) {
+            logger.error("文件不存在: {}", hdfsFilePath);
+            return null;
+        } catch (Exception e) {
+            logger.error("文件并行逐行读取异常: {}", hdfsFilePath, e);
+            return null;
+        }
+    }
+    
+    /**
+     * 并行逐行读取路径、目录或通配符匹配到的所有文件
+     * 文件列表通过一次glob获取，匹配到的目录再列出一层（不递归），以_或.开头的文件视为隐藏文件跳过（与FileInputFormat一致）。
+     * 未压缩的文件按字节区间切分，压缩文件整体顺序读取，所有任务按大小从大到小分配给工作线程，
+     * 每个工作线程一个消费者，读取完成后由调用方合并
+     *
+     * @param pathPattern 文件路径、目录或通配符，如 /logs/2024-01-01/*.log.gz
+     * @param parallelism 并发读取线程数
+     * @param consumerFactory 为每个工作线程创建消费者
+     * @param <T> 消费者类型
+     * @return 各工作线程的消费者，没有匹配的文件或读取异常返回null
+     */
+    public <T extends ByteLineConsumer> List<T> readLineBytesGlob(String pathPattern, int parallelism,
+                                                                  Supplier<T> consumerFactory) {
+        try {
+            List<FileStatus> files = listInputFiles(new Path(pathPattern));
+            if (files.isEmpty()) {
+                logger.error("没有匹配的文件: {}", pathPattern);
+                return null;
+            }
+            long totalBytes = files.stream().mapToLong(FileStatus::getLen).sum();
+            logger.info("匹配到 {} 个文件, 共 {} 字节: {}", files.size(), totalBytes, pathPattern);
+            return new ParallelLineReader(fileSystem, parallelism, bufferSize)
+                .readFiles(files, path -> codecFactory.getCodec(path) == null, this::openDecompressed, consumerFactory);
+        } catch (Exception e) {
+            logger.error("多文件并行逐行读取异常: {}", pathPattern, e);
+            return null;
+        }
+    }
+
+    /**
+     * 列出通配符匹配的文件，目录展开一层
+     */
+    private List<FileStatus> listInputFiles(Path pattern) throws IOException {
+        List<FileStatus> files = new ArrayList<>();
+        FileStatus[] matches = fileSystem.globStatus(pattern, HIDDEN_FILE_FILTER);
+        if (matches == null) {
+            return files;
+        }
+        for (FileStatus match : matches) {
+            if (match.isDirectory()) {
+                for (FileStatus child : fileSystem.listStatus(match.getPath(), HIDDEN_FILE_FILTER)) {
+                    if (child.isFile()) {
+                        files.add(child);
+                    }
+                }
+            } else {
+                files.add(match);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 按字节区间并行逐行读取HDFS文件中起始于 [startOffset, endOffset) 的行
+     * 用于只读取追加到文件末尾的新数据：startOffset为上次读取结束的位置，endOffset通常由findLastLineEnd给出。
+     * 偏移针对原始字节，压缩文件不支持
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param startOffset 起始偏移，必须是行首
+     * @param endOffset 结束偏移（不包含）
+     * @param parallelism 并发读取线程数
+     * @param consumerFactory 为每个区间创建消费者
+     * @param <T> 消费者类型
+     * @return 按区间顺序排列的消费者，文件不存在、文件为压缩格式或读取异常返回null
+     */
+    public <T extends ByteLineConsumer> List<T> readLineBytesParallel(String hdfsFilePath, long startOffset, long endOffset,
+                                                                      int parallelism, Supplier<T> consumerFactory) {
+        Path path = new Path(hdfsFilePath);
+        if (codecFactory.getCodec(path) != null) {
+            logger.error("压缩文件不支持按偏移读取: {}", hdfsFilePath);
+            return null;
+        }
+        try {
+            return new ParallelLineReader(fileSystem, parallelism, bufferSize)
+                .read(path, startOffset, endOffset, consumerFactory);
+        } catch (FileNotFoundException e) {
+            logger.error("文件不存在: {}", hdfsFilePath);
+            return null;
+        } catch (Exception e) {
+            logger.error("文件并行逐行读取异常: {} [{}, {})", hdfsFilePath, startOffset, endOffset, e);
+            return null;
+        }
+    }
+    
+    /**
+     * 查找文件 [startOffset, endOffset) 中最后一个完整行的结束位置
+     * 正在追加的日志末尾可能是写了一半的行，增量读取只读到最后一个换行符为止
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param startOffset 起始偏移
+     * @param endOffset 结束偏移（不包含），通常为当前文件长度
+     * @return 最后一个换行符之后的位置，范围内没有换行符时返回startOffset，读取异常返回-1
+     */
+    public long findLastLineEnd(String hdfsFilePath, long startOffset, long endOffset) {
+        try {
+            return new ParallelLineReader(fileSystem, 1, bufferSize)
+                .findLastLineEnd(new Path(hdfsFilePath), startOffset, endOffset);
+        } catch (FileNotFoundException e) {
+            logger.error("文件不存在: {}", hdfsFilePath);
+            return -1;
+        } catch (Exception e) {
+            logger.error("查找行结束位置异常: {}", hdfsFilePath, e);
+            return -1;
+        }
+    }
+    
+    /**
+     * 打开文件输入流，压缩文件按扩展名自动解压
+     * 返回的是解压后的数据流，不支持定位读；需要按偏移读取原始字节时使用openRangeReader
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @return 输入流，使用完毕后需要关闭
+     * @throws IOException 打开文件异常
+     */
+    public InputStream openInputStream(String hdfsFilePath) throws IOException {
+        return openDecompressed(new Path(hdfsFilePath));
+    }
+    
+    /**
+     * 按HDFS块并行读取文件
+     * 各块使用定位读并发读取，适合分布在多个DataNode上的大文件
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param parallelism 并发读取线程数
+     * @param ordered 是否按文件偏移顺序交付数据
+     * @param chunkConsumer 数据片消费者，缓冲区在回调返回后会被复用
+     * @return 读取的总字节数，文件不存在或读取异常返回-1
+     */
+    public long readFileParallel(String hdfsFilePath, int parallelism, boolean ordered,
+                                 BlockParallelReader.ChunkConsumer chunkConsumer) {
+        try {
+            BlockParallelReader reader = new BlockParallelReader(fileSystem, parallelism, PARALLEL_READ_CHUNK_SIZE);
+            return reader.read(new Path(hdfsFilePath), chunkConsumer, ordered);
+        } catch (FileNotFoundException e) {
+            logger.error("文件不存在: {}", hdfsFilePath);
+            return -1;
+        } catch (Exception e) {
+            logger.error("文件并行读取异常: {}", hdfsFilePath, e);
+            return -1;
+        }
+    }
+    
+    /**
+     * 打开随机访问读取器
+     * 读取器持有打开的输入流，适合对同一文件进行多次区间查找，使用完毕后需要关闭
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param parallelism 并发读取线程数
+     * @return 随机访问读取器
+     * @throws IOException 打开文件异常
+     */
+    public RangeReader openRangeReader(String hdfsFilePath, int parallelism) throws IOException {
+        return new RangeReader(fileSystem.open(new Path(hdfsFilePath), bufferSize), parallelism);
+    }
+    
+    /**
+     * 批量读取文件中的多个字节区间
+     * 相邻区间合并为一次定位读，多个读取并行执行，无需从文件头开始顺序读取
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param ranges 字节区间列表
+     * @return 与输入顺序一一对应的区间数据
+     * @throws IOException 文件不存在或读取异常，区间超出文件末尾时抛出EOFException
+     */
+    public List<byte[]> readRanges(String hdfsFilePath, List<ByteRange> ranges) throws IOException {
+        try (RangeReader reader = openRangeReader(hdfsFilePath, DEFAULT_RANGE_READ_PARALLELISM)) {
+            return reader.readRanges(ranges);
+        }
+    }
+    
     /**
      * 写入内容到HDFS文件
      * 
@@ -274,30 +1044,133 @@ public class HDFSUtil {
      * @return 写入成功返回true，否则返回false
      */
     public boolean writeFile(String hdfsFilePath, String content, short replicationFactor) {
-        FSDataOutputStream outputStream = null;
+        return writeFile(hdfsFilePath, content, replicationFactor, false);
+    }
+    
+    /**
+     * 写入内容到HDFS文件并指定副本数，可选择原子写入
+     * 覆盖和副本数都在一次create调用中完成；原子模式下先写临时文件再重命名，读取方不会看到写了一半的文件。
+     * 目标路径带有压缩扩展名（如.gz、.bz2）时按对应格式压缩写入
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param content 文件内容
+     * @param replicationFactor 副本数
+     * @param atomic 是否先写临时文件再重命名
+     * @return 写入成功返回true，否则返回false
+     */
+    public boolean writeFile(String hdfsFilePath, String content, short replicationFactor, boolean atomic) {
+        return writeContent(new Path(hdfsFilePath), content, replicationFactor, atomic,
+                            codecFactory.getCodec(new Path(hdfsFilePath)));
+    }
+    
+    /**
+     * 写入内容到HDFS文件并按指定格式压缩
+     * 目标路径没有该格式的扩展名时自动补全，读取时据此自动识别并解压
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param content 文件内容
+     * @param replicationFactor 副本数
+     * @param atomic 是否先写临时文件再重命名
+     * @param codecName 压缩格式名称，如gzip、bzip2、lz4、snappy，为null时不压缩
+     * @return 写入成功返回true，否则返回false
+     */
+    public boolean writeFile(String hdfsFilePath, String content, short replicationFactor, boolean atomic,
+                             String codecName) {
         try {
-            Path path = new Path(hdfsFilePath);
+            CompressionCodec codec = resolveCodec(codecName);
+            return writeContent(withCodecExtension(new Path(hdfsFilePath), codec), content, replicationFactor, atomic, codec);
+        } catch (IllegalArgumentException e) {
+            logger.error("文件写入异常: {}", hdfsFilePath, e);
+            return false;
+        }
+    }
+    
+    /**
+     * 写入二进制内容到HDFS文件，可选择原子写入
+     * 原子模式下先写临时文件再重命名，适合保存检查点这类不能被读到一半的文件
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param data 文件内容
+     * @param replicationFactor 副本数
+     * @param atomic 是否先写临时文件再重命名
+     * @return 写入成功返回true，否则返回false
+     */
+    public boolean writeFile(String hdfsFilePath, byte[] data, short replicationFactor, boolean atomic) {
+        Path target = new Path(hdfsFilePath);
+        try {
+            createAndWrite(target, replicationFactor, atomic, codecFactory.getCodec(target), out -> out.write(data));
             
-            // 如果文件已存在，先删除
-            if (fileSystem.exists(path)) {
-                fileSystem.delete(path, false);
-            }
+            logger.info("文件写入成功: {} (大小: {} 字节, 副本数: {})", target, data.length, replicationFactor);
+            return true;
+        } catch (Exception e) {
+            logger.error("文件写入异常: {}", target, e);
+            return false;
+        }
+    }
+    
+    /**
+     * 由写入逻辑直接向HDFS文件的输出流写入内容，适合无法一次放入内存的大文件
+     * 按目标路径的扩展名自动压缩，写入逻辑拿到的是压缩前的输出流，不需要关闭它
+     * 
+     * @param hdfsFilePath HDFS文件路径
+     * @param replicationFactor 副本数
+     * @param atomic 是否先写临时文件再重命名
+     * @param writer 内容写入逻辑
+     * @return 写入成功返回true，否则返回false
+     */
+    public boolean writeFile(String hdfsFilePath, short replicationFactor, boolean atomic, OutputWriter writer) {
+        Path target = new Path(hdfsFilePath);
+        try {
+            createAndWrite(target, replicationFactor, atomic, codecFactory.getCodec(target), writer);
             
-            // 创建文件时指定副本数
-            outputStream = fileSystem.create(path, true, 4096, replicationFactor, 134217728L);
-            outputStream.write(content.getBytes("UTF-8"));
-            outputStream.flush();
+            logger.info("文件写入成功: {} (副本数: {})", target, replicationFactor);
+            return true;
+        } catch (Exception e) {
+            logger.error("文件写入异常: {}", target, e);
+            return false;
+        }
+    }
+    
+    /**
+     * 按UTF-8编码写入字符串内容，codec为null时不压缩
+     */
+    private boolean writeContent(Path target, String content, short replicationFactor, boolean atomic,
+                                 CompressionCodec codec) {
+        try {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            createAndWrite(target, replicationFactor, atomic, codec, out -> out.write(bytes));
             
-            logger.info("文件写入成功: {} (大小: {} 字节, 副本数: {})", hdfsFilePath, content.length(), replicationFactor);
+            logger.info("文件写入成功: {} (大小: {} 字节, 副本数: {})", target, bytes.length, replicationFactor);
             return true;
         } catch (Exception e) {
-            logger.error("文件写入异常: {}", hdfsFilePath, e);
+            logger.error("文件写入异常: {}", target, e);
             return false;
-        } finally {
-            IOUtils.closeStream(outputStream);
         }
     }
     
+    /**
+     * 创建小文件打包器
+     * 大量小文件写入同一组块大小的容器文件，避免每个小文件占用一个NameNode对象和一个MapReduce分片
+     * 
+     * @param containerDir 容器目录，已存在时关闭打包器后被新的打包结果整体替换
+     * @return 打包器，关闭时写入索引
+     * @throws IOException 创建目录异常，或容器目录已存在且包含其他文件
+     */
+    public SmallFilePacker openPacker(String containerDir) throws IOException {
+        return new SmallFilePacker(fileSystem, new Path(containerDir), replicationFactor);
+    }
+    
+    /**
+     * 打开打包小文件读取器
+     * 
+     * @param containerDir 容器目录
+     * @return 读取器，使用完毕后需要关闭
+     * @throws IOException 索引不存在或格式错误
+     */
+    public PackedFileReader openPackedReader(String containerDir) throws IOException {
+        return PackedFileReader.open(fileSystem, new Path(containerDir));
+    }
+    
     /**
      * 获取文件信息
      * 
@@ -324,13 +1197,13 @@ public class HDFSUtil {
     }
     
     /**
-     * 设置副本数
+     * 设置之后由本实例创建的文件使用的副本数
+     * 只影响本实例的写入和上传，不修改已存在文件的副本数，也不修改共享连接的客户端默认值
      * 
      * @param replicationFactor 副本数
      */
     public void setReplicationFactor(short replicationFactor) {
         this.replicationFactor = replicationFactor;
-        this.configuration.setInt("dfs.replication", replicationFactor);
         logger.info("副本数已设置为: {}", replicationFactor);
     }
     
@@ -403,48 +1276,101 @@ public class HDFSUtil {
      * @param dirPath 目录路径
      * @param replicationFactor 副本数
      * @param recursive 是否递归处理子目录
-     * @return 设置成功的文件数量
+     * @return 副本数已达到目标值的文件数量（包括本来就等于目标值的文件）
      */
     public int setBatchReplication(String dirPath, short replicationFactor, boolean recursive) {
-        int successCount = 0;
+        ReplicationReport report = setBatchReplication(dirPath, replicationFactor, recursive,
+                                                       DEFAULT_REPLICATION_PARALLELISM, 0, false);
+        return (int) (report.getChangedFiles() + report.getUnchangedFiles());
+    }
+    
+    /**
+     * 并发批量设置目录下所有文件的副本数
+     * 通过listFiles远程迭代器分页遍历目录树，不会一次性加载整个目录的列表；
+     * 副本数已等于目标值的文件直接跳过，其余文件在有界线程池中并发调用setReplication，并按速率限流保护NameNode。
+     * 演练模式下只统计将被修改的文件数和需要新增复制的数据量，不发起任何修改
+     * 
+     * @param dirPath 目录路径
+     * @param replicationFactor 副本数
+     * @param recursive 是否递归处理子目录
+     * @param parallelism 并发线程数
+     * @param maxOpsPerSecond 每秒最多setReplication调用次数，小于等于0表示不限流
+     * @param dryRun 是否为演练模式
+     * @return 批量设置结果报告
+     */
+    public ReplicationReport setBatchReplication(String dirPath, short replicationFactor, boolean recursive,
+                                                 int parallelism, int maxOpsPerSecond, boolean dryRun) {
+        ReplicationReport report = new ReplicationReport(dryRun);
+        RateLimiter rateLimiter = new RateLimiter(maxOpsPerSecond);
+        ThreadPoolExecutor executor = newTransferExecutor(parallelism);
         try {
-            Path path = new Path(dirPath);
-            
-            if (!fileSystem.exists(path)) {
-                logger.error("目录不存在: {}", dirPath);
-                return 0;
-            }
-            
-            FileStatus[] fileStatuses = fileSystem.listStatus(path);
-            
-            for (FileStatus status : fileStatuses) {
-                if (status.isFile()) {
-                    // 处理文件
-                    if (fileSystem.setReplication(status.getPath(), replicationFactor)) {
-                        successCount++;
-                        logger.info("设置文件副本数成功: {} -> {}", status.getPath(), replicationFactor);
-                    }
-                } else if (status.isDirectory() && recursive) {
-                    // 递归处理子目录
-                    successCount += setBatchReplication(status.getPath().toString(), replicationFactor, recursive);
+            RemoteIterator<LocatedFileStatus> files = fileSystem.listFiles(new Path(dirPath), recursive);
+            while (files.hasNext()) {
+                LocatedFileStatus status = files.next();
+                report.recordScanned();
+                if (report.getScannedFiles() % PROGRESS_LOG_INTERVAL == 0) {
+                    logger.info("批量设置副本数进度: {}", report);
+                }
+                
+                short currentReplication = status.getReplication();
+                if (currentReplication == replicationFactor) {
+                    report.recordUnchanged();
+                    continue;
+                }
+                if (dryRun) {
+                    report.recordChanged(status.getLen(), currentReplication, replicationFactor);
+                    continue;
                 }
+                
+                executor.execute(() -> {
+                    try {
+                        rateLimiter.acquire();
+                        if (fileSystem.setReplication(status.getPath(), replicationFactor)) {
+                            report.recordChanged(status.getLen(), currentReplication, replicationFactor);
+                            logger.debug("设置文件副本数成功: {} -> {}", status.getPath(), replicationFactor);
+                        } else {
+                            report.recordFailed();
+                            logger.error("文件副本数设置失败: {}", status.getPath());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        report.recordFailed();
+                    } catch (Exception e) {
+                        report.recordFailed();
+                        logger.error("设置文件副本数异常: {}", status.getPath(), e);
+                    }
+                });
             }
-            
-            logger.info("批量设置副本数完成，成功处理 {} 个文件", successCount);
+        } catch (FileNotFoundException e) {
+            logger.error("目录不存在: {}", dirPath);
         } catch (Exception e) {
             logger.error("批量设置副本数异常: {}", dirPath, e);
+        } finally {
+            executor.shutdown();
+            try {
+                while (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.info("批量设置副本数进行中: {}", report);
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            report.finish();
         }
-        return successCount;
+        
+        logger.info("批量设置副本数完成: {}", report);
+        return report;
     }
     
     /**
      * 关闭文件系统连接
+     * 只释放对连接池中共享连接的引用，不会影响同一连接上的其他HDFSUtil实例
      */
     public void close() {
         try {
-            if (fileSystem != null) {
-                fileSystem.close();
-                logger.info("HDFS连接已关闭");
+            if (lease != null) {
+                lease.close();
+                logger.info("HDFS连接已释放");
             }
         } catch (Exception e) {
             logger.error("关闭HDFS连接异常", e);
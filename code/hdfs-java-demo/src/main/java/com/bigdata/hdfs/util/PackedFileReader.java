@@ -0,0 +1,136 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 打包小文件读取器
+ * 打开时加载SmallFilePacker生成的索引，读取单个条目只需要在对应容器上执行一次定位读。
+ * 容器文件的输入流按需打开并缓存，定位读是线程安全的，可以在多个线程中共享同一个读取器
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class PackedFileReader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PackedFileReader.class);
+
+    private final FileSystem fileSystem;
+    private final Path containerDir;
+    private final Map<String, SmallFilePacker.PackedEntry> index;
+    private final Map<Integer, FSDataInputStream> openParts = new HashMap<>();
+
+    private PackedFileReader(FileSystem fileSystem, Path containerDir, Map<String, SmallFilePacker.PackedEntry> index) {
+        this.fileSystem = fileSystem;
+        this.containerDir = containerDir;
+        this.index = index;
+    }
+
+    /**
+     * 打开容器目录并加载索引
+     *
+     * @param fileSystem 文件系统对象
+     * @param containerDir 容器目录
+     * @return 读取器
+     * @throws IOException 索引不存在或格式错误
+     */
+    public static PackedFileReader open(FileSystem fileSystem, Path containerDir) throws IOException {
+        Path indexPath = new Path(containerDir, SmallFilePacker.INDEX_FILE);
+        Map<String, SmallFilePacker.PackedEntry> index = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(fileSystem.open(indexPath))) {
+            if (in.readInt() != SmallFilePacker.INDEX_MAGIC) {
+                throw new IOException("无效的打包索引文件: " + indexPath);
+            }
+            int version = in.readInt();
+            if (version != SmallFilePacker.INDEX_VERSION) {
+                throw new IOException("不支持的打包索引版本: " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                index.put(name, new SmallFilePacker.PackedEntry(in.readInt(), in.readLong(), in.readInt()));
+            }
+        }
+        logger.info("加载打包索引: {} ({} 个条目)", containerDir, index.size());
+        return new PackedFileReader(fileSystem, containerDir, index);
+    }
+
+    /**
+     * 读取单个条目
+     *
+     * @param name 条目名称
+     * @return 条目内容
+     * @throws IOException 读取异常，条目不存在时抛出FileNotFoundException
+     */
+    public byte[] read(String name) throws IOException {
+        SmallFilePacker.PackedEntry entry = index.get(name);
+        if (entry == null) {
+            throw new FileNotFoundException("打包文件中不存在条目: " + name);
+        }
+        byte[] data = new byte[entry.length];
+        partStream(entry.partNumber).readFully(entry.offset, data, 0, entry.length);
+        return data;
+    }
+
+    /**
+     * 是否包含指定条目
+     *
+     * @param name 条目名称
+     * @return 包含返回true
+     */
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * 获取所有条目名称（按写入顺序）
+     *
+     * @return 条目名称集合
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    private synchronized FSDataInputStream partStream(int partNumber) throws IOException {
+        FSDataInputStream in = openParts.get(partNumber);
+        if (in == null) {
+            in = fileSystem.open(new Path(containerDir, SmallFilePacker.partName(partNumber)));
+            openParts.put(partNumber, in);
+        }
+        return in;
+    }
+
+    /**
+     * 关闭所有已打开的容器文件
+     *
+     * @throws IOException 关闭异常
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (FSDataInputStream in : openParts.values()) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        openParts.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
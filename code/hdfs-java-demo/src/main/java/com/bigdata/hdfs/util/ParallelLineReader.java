@@ -0,0 +1,385 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.util.LineReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 按字节区间并行逐行读取文本文件
+ * 文件被切分为若干字节区间，每个区间由一个线程打开独立的输入流顺序读取。区间边界与MapReduce的LineRecordReader规则一致：
+ * 一行属于它起始字节所在的区间，非首个区间跳过开头的半行，每个区间读到越过区间末尾的那一行为止，
+ * 因此每一行恰好被读取一次。
+ * 
+ * 每个区间使用独立的消费者实例，调用方可以在其中维护线程私有的聚合结果，读取完成后再合并，无需加锁。
+ * 只有未压缩的文件可以切分，压缩文件无法从任意偏移开始解压，在多文件读取中作为一个整体任务顺序读取
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class ParallelLineReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelLineReader.class);
+
+    // 每个线程平均分到的区间数，区间多于线程数可以平衡各区间处理速度的差异
+    private static final int SPLITS_PER_THREAD = 4;
+
+    // 默认的区间最小大小，区间过小时打开输入流和跳过半行的开销占比过高
+    private static final long DEFAULT_MIN_SPLIT_SIZE = 8L * 1024 * 1024;
+
+    // 多文件读取时估计压缩文件解压后的大小所用的倍数（文本日志gzip压缩比通常为5~10倍），
+    // 压缩文件只能由一个线程读完，按解压后的工作量排序才能让它们尽早开始
+    private static final int COMPRESSED_SIZE_FACTOR = 5;
+
+    /**
+     * 打开需要整体顺序读取的文件（压缩文件），返回解压后的输入流
+     */
+    @FunctionalInterface
+    public interface StreamOpener {
+        InputStream open(Path path) throws IOException;
+    }
+
+    private final FileSystem fileSystem;
+    private final int parallelism;
+    private final int bufferSize;
+    private final long minSplitSize;
+
+    /**
+     * 构造函数
+     *
+     * @param fileSystem 文件系统对象
+     * @param parallelism 并发读取线程数
+     * @param bufferSize 每个区间输入流的缓冲区大小
+     */
+    public ParallelLineReader(FileSystem fileSystem, int parallelism, int bufferSize) {
+        this(fileSystem, parallelism, bufferSize, DEFAULT_MIN_SPLIT_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param fileSystem 文件系统对象
+     * @param parallelism 并发读取线程数
+     * @param bufferSize 每个区间输入流的缓冲区大小
+     * @param minSplitSize 区间的最小大小（字节）
+     */
+    public ParallelLineReader(FileSystem fileSystem, int parallelism, int bufferSize, long minSplitSize) {
+        this.fileSystem = fileSystem;
+        this.parallelism = Math.max(1, parallelism);
+        this.bufferSize = bufferSize;
+        this.minSplitSize = Math.max(1, minSplitSize);
+    }
+
+    /**
+     * 并行读取整个文件
+     * 同一个消费者实例只会被一个线程调用，回调返回后行缓冲区会被复用
+     *
+     * @param path 文件路径
+     * @param consumerFactory 为每个区间创建消费者
+     * @param <T> 消费者类型
+     * @return 按区间顺序排列的消费者，调用方据此合并各区间的结果
+     * @throws IOException 读取异常或消费者抛出的异常
+     */
+    public <T extends HDFSUtil.ByteLineConsumer> List<T> read(Path path, Supplier<T> consumerFactory)
+            throws IOException {
+        return read(path, 0, fileSystem.getFileStatus(path).getLen(), consumerFactory);
+    }
+
+    /**
+     * 并行读取文件中起始于 [rangeStart, rangeEnd) 的所有行
+     * rangeStart必须是行首（文件开头或某个换行符之后），从这里开始的行不会被当作半行跳过；
+     * 起始于rangeEnd及之后的行不会被读取，rangeEnd通常取某一行的结束位置
+     *
+     * @param path 文件路径
+     * @param rangeStart 起始偏移（行首）
+     * @param rangeEnd 结束偏移（不包含）
+     * @param consumerFactory 为每个区间创建消费者
+     * @param <T> 消费者类型
+     * @return 按区间顺序排列的消费者，调用方据此合并各区间的结果
+     * @throws IOException 读取异常或消费者抛出的异常
+     */
+    public <T extends HDFSUtil.ByteLineConsumer> List<T> read(Path path, long rangeStart, long rangeEnd,
+                                                              Supplier<T> consumerFactory) throws IOException {
+        FileStatus status = fileSystem.getFileStatus(path);
+        if (rangeStart < 0 || rangeEnd > status.getLen() || rangeStart > rangeEnd) {
+            throw new IllegalArgumentException("无效的读取范围: [" + rangeStart + ", " + rangeEnd + "), 文件长度 " + status.getLen());
+        }
+        List<long[]> splits = computeSplits(rangeStart, rangeEnd, status.getBlockSize());
+        if (splits.isEmpty()) {
+            return Collections.singletonList(consumerFactory.get());
+        }
+        List<T> consumers = new ArrayList<>(splits.size());
+        for (int i = 0; i < splits.size(); i++) {
+            consumers.add(consumerFactory.get());
+        }
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = newExecutor(Math.min(parallelism, splits.size()));
+        try {
+            List<Future<Long>> futures = new ArrayList<>(splits.size());
+            for (int i = 0; i < splits.size(); i++) {
+                long[] split = splits.get(i);
+                T consumer = consumers.get(i);
+                futures.add(executor.submit(() -> readSplit(path, split[0], split[1], rangeStart, rangeEnd, consumer)));
+            }
+
+            long lineCount = 0;
+            for (Future<Long> future : futures) {
+                lineCount += future.get();
+            }
+            logger.info("并行逐行读取完成: {} ({} 个区间, {} 行, 耗时 {} 毫秒)",
+                        path, splits.size(), lineCount, System.currentTimeMillis() - startTime);
+            return consumers;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("并行逐行读取被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("并行逐行读取异常", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 并行读取多个文件
+     * 可切分的文件按区间切分，不可切分的文件（压缩文件）作为一个整体任务。所有任务按估计的工作量从大到小排列，
+     * parallelism个工作线程依次领取下一个任务，最大的任务最先开始，避免最后只剩一个大文件拖慢整体完成时间。
+     * 每个工作线程使用一个消费者累计它处理的所有任务，返回的消费者数量不超过并发线程数，与文件数无关
+     *
+     * @param files 文件列表
+     * @param splittable 判断文件是否可以按字节区间切分
+     * @param opener 打开不可切分的文件
+     * @param consumerFactory 为每个工作线程创建消费者
+     * @param <T> 消费者类型
+     * @return 各工作线程的消费者，调用方合并得到全部文件的结果
+     * @throws IOException 读取异常或消费者抛出的异常
+     */
+    public <T extends HDFSUtil.ByteLineConsumer> List<T> readFiles(List<FileStatus> files, Predicate<Path> splittable,
+                                                                   StreamOpener opener, Supplier<T> consumerFactory)
+            throws IOException {
+        List<FileTask> tasks = new ArrayList<>();
+        for (FileStatus file : files) {
+            if (file.getLen() == 0) {
+                continue;
+            }
+            if (splittable.test(file.getPath())) {
+                for (long[] split : computeSplits(0, file.getLen(), file.getBlockSize())) {
+                    tasks.add(new FileTask(file, true, split[0], split[1], split[1] - split[0]));
+                }
+            } else {
+                tasks.add(new FileTask(file, false, 0, file.getLen(), file.getLen() * COMPRESSED_SIZE_FACTOR));
+            }
+        }
+        if (tasks.isEmpty()) {
+            return Collections.singletonList(consumerFactory.get());
+        }
+        tasks.sort(Comparator.comparingLong((FileTask task) -> task.weight).reversed());
+
+        int threads = Math.min(parallelism, tasks.size());
+        List<T> consumers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            consumers.add(consumerFactory.get());
+        }
+
+        long startTime = System.currentTimeMillis();
+        AtomicInteger nextTask = new AtomicInteger();
+        ExecutorService executor = newExecutor(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(threads);
+            for (T consumer : consumers) {
+                futures.add(executor.submit(() -> {
+                    long lines = 0;
+                    int index;
+                    while ((index = nextTask.getAndIncrement()) < tasks.size()) {
+                        FileTask task = tasks.get(index);
+                        Path path = task.file.getPath();
+                        lines += task.splittable
+                            ? readSplit(path, task.start, task.end, 0, task.file.getLen(), consumer)
+                            : readWhole(opener.open(path), consumer);
+                    }
+                    return lines;
+                }));
+            }
+
+            long lineCount = 0;
+            for (Future<Long> future : futures) {
+                lineCount += future.get();
+            }
+            logger.info("多文件并行读取完成: {} 个文件, {} 个任务, {} 行, 耗时 {} 毫秒",
+                        files.size(), tasks.size(), lineCount, System.currentTimeMillis() - startTime);
+            return consumers;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("多文件并行读取被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("多文件并行读取异常", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 顺序读取整个输入流
+     *
+     * @return 读取的行数
+     */
+    private long readWhole(InputStream in, HDFSUtil.ByteLineConsumer consumer) throws IOException {
+        try (LineReader reader = new LineReader(in, bufferSize)) {
+            Text line = new Text();
+            long lineCount = 0;
+            while (reader.readLine(line) > 0) {
+                consumer.accept(line.getBytes(), line.getLength());
+                lineCount++;
+            }
+            return lineCount;
+        }
+    }
+
+    /**
+     * 读取一个区间内起始的所有行，不超出整个读取范围
+     *
+     * @return 读取的行数
+     */
+    private long readSplit(Path path, long start, long end, long rangeStart, long rangeEnd,
+                           HDFSUtil.ByteLineConsumer consumer) throws IOException {
+        try (FSDataInputStream in = fileSystem.open(path, bufferSize)) {
+            in.seek(start);
+            LineReader reader = new LineReader(in, bufferSize);
+            Text line = new Text();
+            long position = start;
+            // 非首个区间的第一行（可能是半行）属于上一个区间
+            if (start != rangeStart) {
+                position += reader.readLine(line);
+            }
+            long lineCount = 0;
+            // 起始位置不超过区间末尾的行都属于本区间，最后一行可能延伸到下一个区间
+            while (position <= end && position < rangeEnd) {
+                int consumed = reader.readLine(line);
+                if (consumed == 0) {
+                    break;
+                }
+                position += consumed;
+                consumer.accept(line.getBytes(), line.getLength());
+                lineCount++;
+            }
+            return lineCount;
+        }
+    }
+
+    /**
+     * 计算区间划分，区间大小不超过块大小，使每个区间的数据尽量来自同一个DataNode
+     *
+     * @return 区间列表，每个元素为 {起始偏移, 结束偏移}
+     */
+    List<long[]> computeSplits(long fileLength, long blockSize) {
+        return computeSplits(0, fileLength, blockSize);
+    }
+
+    List<long[]> computeSplits(long rangeStart, long rangeEnd, long blockSize) {
+        List<long[]> splits = new ArrayList<>();
+        long length = rangeEnd - rangeStart;
+        if (length <= 0) {
+            return splits;
+        }
+        long targetSize = (length + parallelism * SPLITS_PER_THREAD - 1) / (parallelism * SPLITS_PER_THREAD);
+        long splitSize = Math.max(minSplitSize, targetSize);
+        if (blockSize > 0) {
+            splitSize = Math.min(splitSize, blockSize);
+        }
+        for (long start = rangeStart; start < rangeEnd; start += splitSize) {
+            splits.add(new long[]{start, Math.min(start + splitSize, rangeEnd)});
+        }
+        return splits;
+    }
+
+    /**
+     * 查找 [rangeStart, rangeEnd) 中最后一个换行符之后的位置
+     * 从末尾向前按块定位读，只读取最后一行附近的数据。正在追加的文件末尾可能是写了一半的行，
+     * 增量读取到这里为止，半行留到下一次读取
+     *
+     * @param path 文件路径
+     * @param rangeStart 起始偏移
+     * @param rangeEnd 结束偏移（不包含）
+     * @return 最后一个完整行的结束位置，范围内没有换行符时返回rangeStart
+     * @throws IOException 读取异常
+     */
+    public long findLastLineEnd(Path path, long rangeStart, long rangeEnd) throws IOException {
+        byte[] buffer = new byte[bufferSize];
+        try (FSDataInputStream in = fileSystem.open(path, bufferSize)) {
+            long end = rangeEnd;
+            while (end > rangeStart) {
+                int length = (int) Math.min(buffer.length, end - rangeStart);
+                long start = end - length;
+                in.readFully(start, buffer, 0, length);
+                for (int i = length - 1; i >= 0; i--) {
+                    if (buffer[i] == '\n') {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return rangeStart;
+        }
+    }
+
+    /**
+     * 多文件读取中的一个任务：可切分文件的一个区间，或不可切分文件的全部内容
+     */
+    private static final class FileTask {
+        final FileStatus file;
+        final boolean splittable;
+        final long start;
+        final long end;
+        final long weight;
+
+        FileTask(FileStatus file, boolean splittable, long start, long end, long weight) {
+            this.file = file;
+            this.splittable = splittable;
+            this.start = start;
+            this.end = end;
+            this.weight = weight;
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "hdfs-line-reader-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
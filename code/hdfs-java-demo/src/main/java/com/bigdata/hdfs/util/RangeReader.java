@@ -0,0 +1,200 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 随机访问读取器
+ * 在同一个打开的输入流上批量读取多个字节区间：相邻或间隔很小的区间合并为一次定位读，
+ * 合并后的多个读取并行执行。适用于索引查找等需要在同一文件中大量小范围随机读取的场景
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class RangeReader implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RangeReader.class);
+
+    // 两个区间之间的间隔不超过该值时合并读取（多读的字节比多一次RPC更便宜）
+    public static final int DEFAULT_MAX_GAP = 64 * 1024;
+
+    // 合并后单次读取的最大长度
+    public static final int DEFAULT_MAX_MERGED_SIZE = 8 * 1024 * 1024;
+
+    private final FSDataInputStream inputStream;
+    private final ExecutorService executor;
+    private final int maxGap;
+    private final int maxMergedSize;
+
+    /**
+     * 构造函数，使用默认的合并参数
+     *
+     * @param inputStream 已打开的输入流，关闭读取器时一并关闭
+     * @param parallelism 并发读取线程数
+     */
+    public RangeReader(FSDataInputStream inputStream, int parallelism) {
+        this(inputStream, parallelism, DEFAULT_MAX_GAP, DEFAULT_MAX_MERGED_SIZE);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param inputStream 已打开的输入流，关闭读取器时一并关闭
+     * @param parallelism 并发读取线程数
+     * @param maxGap 允许合并的最大区间间隔（字节）
+     * @param maxMergedSize 合并后单次读取的最大长度（字节）
+     */
+    public RangeReader(FSDataInputStream inputStream, int parallelism, int maxGap, int maxMergedSize) {
+        this.inputStream = inputStream;
+        this.maxGap = maxGap;
+        this.maxMergedSize = maxMergedSize;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "hdfs-range-reader-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 读取单个区间，直接在调用线程中执行一次定位读
+     *
+     * @param range 字节区间
+     * @return 区间数据
+     * @throws IOException 读取异常，区间超出文件末尾时抛出EOFException
+     */
+    public byte[] readRange(ByteRange range) throws IOException {
+        byte[] data = new byte[range.getLength()];
+        inputStream.readFully(range.getOffset(), data, 0, data.length);
+        return data;
+    }
+
+    /**
+     * 批量读取多个区间
+     *
+     * @param ranges 字节区间列表，可以无序、可以重叠
+     * @return 与输入顺序一一对应的区间数据
+     * @throws IOException 读取异常，区间超出文件末尾时抛出EOFException
+     */
+    public List<byte[]> readRanges(List<ByteRange> ranges) throws IOException {
+        byte[][] results = new byte[ranges.size()][];
+        List<RangeGroup> groups = coalesce(ranges, maxGap, maxMergedSize);
+        logger.debug("读取 {} 个区间，合并为 {} 次定位读", ranges.size(), groups.size());
+
+        // 第一组在调用线程中读取，其余组并行读取
+        List<Future<?>> futures = new ArrayList<>(groups.size());
+        for (int i = 1; i < groups.size(); i++) {
+            RangeGroup group = groups.get(i);
+            futures.add(executor.submit(() -> {
+                readGroup(group, results);
+                return null;
+            }));
+        }
+        if (!groups.isEmpty()) {
+            readGroup(groups.get(0), results);
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("区间读取被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("区间读取异常", cause);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 执行一次合并后的定位读，并把数据切分到各个原始区间
+     * 只有组内唯一的区间直接使用读取缓冲区，其余区间都复制，保证每个结果是独立的数组
+     */
+    private void readGroup(RangeGroup group, byte[][] results) throws IOException {
+        byte[] buffer = new byte[(int) (group.end - group.start)];
+        inputStream.readFully(group.start, buffer, 0, buffer.length);
+        for (int index : group.members) {
+            ByteRange range = group.ranges.get(index);
+            int from = (int) (range.getOffset() - group.start);
+            results[index] = group.members.size() == 1
+                ? buffer
+                : Arrays.copyOfRange(buffer, from, from + range.getLength());
+        }
+    }
+
+    /**
+     * 将区间按偏移排序后合并：与当前组间隔不超过maxGap且合并后长度不超过maxMergedSize的区间归入同一组
+     *
+     * @param ranges 原始区间列表
+     * @param maxGap 允许合并的最大间隔
+     * @param maxMergedSize 合并后的最大长度
+     * @return 合并后的读取组
+     */
+    static List<RangeGroup> coalesce(List<ByteRange> ranges, int maxGap, int maxMergedSize) {
+        Integer[] order = new Integer[ranges.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> ranges.get(i).getOffset()));
+
+        List<RangeGroup> groups = new ArrayList<>();
+        RangeGroup current = null;
+        for (int index : order) {
+            ByteRange range = ranges.get(index);
+            if (current != null
+                    && range.getOffset() <= current.end + maxGap
+                    && Math.max(current.end, range.getEnd()) - current.start <= maxMergedSize) {
+                current.end = Math.max(current.end, range.getEnd());
+            } else {
+                current = new RangeGroup(ranges, range.getOffset(), range.getEnd());
+                groups.add(current);
+            }
+            current.members.add(index);
+        }
+        return groups;
+    }
+
+    /**
+     * 关闭读取器和底层输入流
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        inputStream.close();
+    }
+
+    /**
+     * 一次合并后的定位读
+     */
+    static class RangeGroup {
+        final List<ByteRange> ranges;
+        final List<Integer> members = new ArrayList<>();
+        final long start;
+        long end;
+
+        RangeGroup(List<ByteRange> ranges, long start, long end) {
+            this.ranges = ranges;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
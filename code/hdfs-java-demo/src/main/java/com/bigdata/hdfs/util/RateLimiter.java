@@ -0,0 +1,47 @@
+package com.bigdata.hdfs.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 简单的匀速限流器
+ * 按固定间隔发放许可，用于限制对NameNode的请求速率
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeNanos;
+
+    /**
+     * 构造函数
+     *
+     * @param permitsPerSecond 每秒许可数，小于等于0表示不限流
+     */
+    RateLimiter(int permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * 获取一个许可，必要时阻塞等待
+     *
+     * @throws InterruptedException 等待被中断
+     */
+    void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextFreeNanos);
+            nextFreeNanos = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
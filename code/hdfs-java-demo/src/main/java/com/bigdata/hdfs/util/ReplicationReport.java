@@ -0,0 +1,125 @@
+package com.bigdata.hdfs.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量设置副本数的结果报告
+ * 记录扫描、修改、跳过和失败的文件数，以及因副本数变化需要新增复制或可释放的数据量
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class ReplicationReport {
+
+    private final boolean dryRun;
+    private final AtomicLong scannedFiles = new AtomicLong();
+    private final AtomicLong changedFiles = new AtomicLong();
+    private final AtomicLong unchangedFiles = new AtomicLong();
+    private final AtomicLong failedFiles = new AtomicLong();
+    private final AtomicLong bytesToReplicate = new AtomicLong();
+    private final AtomicLong bytesToRelease = new AtomicLong();
+    private final long startTime = System.currentTimeMillis();
+    private volatile long endTime;
+
+    ReplicationReport(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    void recordScanned() {
+        scannedFiles.incrementAndGet();
+    }
+
+    void recordUnchanged() {
+        unchangedFiles.incrementAndGet();
+    }
+
+    void recordFailed() {
+        failedFiles.incrementAndGet();
+    }
+
+    /**
+     * 记录一个副本数发生变化的文件
+     *
+     * @param fileLength 文件大小
+     * @param currentReplication 当前副本数
+     * @param targetReplication 目标副本数
+     */
+    void recordChanged(long fileLength, short currentReplication, short targetReplication) {
+        changedFiles.incrementAndGet();
+        long delta = fileLength * (targetReplication - currentReplication);
+        if (delta > 0) {
+            bytesToReplicate.addAndGet(delta);
+        } else {
+            bytesToRelease.addAndGet(-delta);
+        }
+    }
+
+    void finish() {
+        this.endTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 是否为演练模式（只统计不修改）
+     *
+     * @return 演练模式返回true
+     */
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public long getScannedFiles() {
+        return scannedFiles.get();
+    }
+
+    /**
+     * 获取副本数被修改（演练模式下为将被修改）的文件数
+     *
+     * @return 文件数
+     */
+    public long getChangedFiles() {
+        return changedFiles.get();
+    }
+
+    /**
+     * 获取副本数已经等于目标值而跳过的文件数
+     *
+     * @return 文件数
+     */
+    public long getUnchangedFiles() {
+        return unchangedFiles.get();
+    }
+
+    public long getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    /**
+     * 获取提高副本数后需要新复制的字节数（文件大小 × 增加的副本数）
+     *
+     * @return 字节数
+     */
+    public long getBytesToReplicate() {
+        return bytesToReplicate.get();
+    }
+
+    /**
+     * 获取降低副本数后可释放的字节数（文件大小 × 减少的副本数）
+     *
+     * @return 字节数
+     */
+    public long getBytesToRelease() {
+        return bytesToRelease.get();
+    }
+
+    public long getElapsedMillis() {
+        long end = endTime > 0 ? endTime : System.currentTimeMillis();
+        return end - startTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s扫描: %d, 修改: %d, 跳过: %d, 失败: %d, 需新增复制: %d 字节, 可释放: %d 字节, 耗时: %d 毫秒",
+                dryRun ? "[演练] " : "", getScannedFiles(), getChangedFiles(), getUnchangedFiles(), getFailedFiles(),
+                getBytesToReplicate(), getBytesToRelease(), getElapsedMillis());
+    }
+}
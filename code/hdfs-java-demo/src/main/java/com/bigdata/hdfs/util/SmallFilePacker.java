@@ -0,0 +1,232 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 小文件打包器
+ * 将大量小文件的内容顺序追加到容器文件（part-NNNNN.pack）中，每个容器不超过一个HDFS块，
+ * 关闭时在同一目录写入索引文件（_index），记录 名称 -> (容器编号, 偏移, 长度)。
+ *
+ * 每个条目之后补一个换行符作为分隔（不计入条目长度），因此按行处理的MapReduce作业（如WordCount）
+ * 可以直接以容器目录作为输入；索引文件以下划线开头，会被FileInputFormat自动忽略。
+ * 容器文件只追加不覆盖，条目名称必须唯一，否则旧内容会残留在容器中被这类作业重复处理。
+ *
+ * 所有文件先写入同级的临时目录（以点开头，同样被FileInputFormat忽略），关闭时整体替换容器目录，
+ * 因此重复打包到同一目录时只保留最后一次的条目，不会残留上一次编号更大的容器文件
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class SmallFilePacker implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmallFilePacker.class);
+
+    static final String INDEX_FILE = "_index";
+    static final int INDEX_MAGIC = 0x504B4958; // "PKIX"
+    static final int INDEX_VERSION = 1;
+
+    private final FileSystem fileSystem;
+    private final Path containerDir;
+    private final Path stagingDir;
+    private final short replicationFactor;
+    private final long blockSize;
+    private final long containerSize;
+    private final Map<String, PackedEntry> index = new LinkedHashMap<>();
+
+    private FSDataOutputStream currentPart;
+    private int currentPartNumber = -1;
+    private boolean closed;
+
+    /**
+     * 构造函数，每个容器文件的大小上限为默认块大小
+     *
+     * @param fileSystem 文件系统对象
+     * @param containerDir 容器目录
+     * @param replicationFactor 容器文件副本数
+     * @throws IOException 创建目录异常，或容器目录已存在且包含其他文件
+     */
+    public SmallFilePacker(FileSystem fileSystem, Path containerDir, short replicationFactor) throws IOException {
+        this(fileSystem, containerDir, replicationFactor, fileSystem.getDefaultBlockSize(containerDir));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param fileSystem 文件系统对象
+     * @param containerDir 容器目录
+     * @param replicationFactor 容器文件副本数
+     * @param containerSize 单个容器文件的大小上限（字节），不超过块大小时每个容器只占一个块
+     * @throws IOException 创建目录异常，或容器目录已存在且包含其他文件
+     */
+    public SmallFilePacker(FileSystem fileSystem, Path containerDir, short replicationFactor, long containerSize)
+            throws IOException {
+        this.fileSystem = fileSystem;
+        this.containerDir = containerDir;
+        this.replicationFactor = replicationFactor;
+        this.blockSize = fileSystem.getDefaultBlockSize(containerDir);
+        this.containerSize = containerSize;
+        // 关闭时会删除旧的容器目录，只允许替换打包器生成的目录，避免误删其他数据
+        checkReplaceable();
+        this.stagingDir = new Path(containerDir.getParent(),
+            "." + containerDir.getName() + "." + UUID.randomUUID() + "._COPYING_");
+        if (!fileSystem.mkdirs(stagingDir)) {
+            throw new IOException("创建临时目录失败: " + stagingDir);
+        }
+    }
+
+    /**
+     * 添加一个文本条目
+     *
+     * @param name 条目名称（通常为原始文件路径）
+     * @param content 文本内容
+     * @throws IOException 写入异常
+     */
+    public void add(String name, String content) throws IOException {
+        add(name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 添加一个条目
+     *
+     * @param name 条目名称（通常为原始文件路径）
+     * @param data 条目内容
+     * @throws IOException 写入异常，或名称已经存在
+     */
+    public synchronized void add(String name, byte[] data) throws IOException {
+        if (closed) {
+            throw new IOException("打包器已关闭: " + containerDir);
+        }
+        if (index.containsKey(name)) {
+            throw new IOException("条目名称重复: " + name);
+        }
+        // 当前容器放不下该条目时切换到新容器，保证容器不跨块（超大条目单独占用一个容器）
+        long entrySize = data.length + 1L;
+        if (currentPart == null || (currentPart.getPos() > 0 && currentPart.getPos() + entrySize > containerSize)) {
+            rollPart();
+        }
+
+        long offset = currentPart.getPos();
+        currentPart.write(data);
+        currentPart.write('\n');
+        index.put(name, new PackedEntry(currentPartNumber, offset, data.length));
+    }
+
+    /**
+     * 获取已打包的条目数
+     *
+     * @return 条目数
+     */
+    public synchronized int getEntryCount() {
+        return index.size();
+    }
+
+    /**
+     * 关闭当前容器、写入索引文件，并用临时目录替换容器目录
+     * 失败时删除临时目录，已存在的容器目录保持不变
+     *
+     * @throws IOException 写入或重命名异常
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (currentPart != null) {
+                currentPart.close();
+            }
+            writeIndex();
+            checkReplaceable();
+            fileSystem.delete(containerDir, true);
+            if (!fileSystem.rename(stagingDir, containerDir)) {
+                throw new IOException("重命名失败: " + stagingDir + " -> " + containerDir);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                fileSystem.delete(stagingDir, true);
+            } catch (IOException cleanupError) {
+                logger.warn("清理临时目录失败: {}", stagingDir, cleanupError);
+            }
+            throw e;
+        }
+        logger.info("小文件打包完成: {} ({} 个条目, {} 个容器文件)", containerDir, index.size(), currentPartNumber + 1);
+    }
+
+    private void rollPart() throws IOException {
+        if (currentPart != null) {
+            currentPart.close();
+        }
+        currentPartNumber++;
+        Path partPath = new Path(stagingDir, partName(currentPartNumber));
+        currentPart = fileSystem.create(partPath, true, 64 * 1024, replicationFactor, blockSize);
+        logger.debug("创建容器文件: {}", partPath);
+    }
+
+    private void writeIndex() throws IOException {
+        Path indexPath = new Path(stagingDir, INDEX_FILE);
+        try (FSDataOutputStream out = fileSystem.create(indexPath, true, 64 * 1024, replicationFactor, blockSize);
+             DataOutputStream data = new DataOutputStream(out)) {
+            data.writeInt(INDEX_MAGIC);
+            data.writeInt(INDEX_VERSION);
+            data.writeInt(index.size());
+            for (Map.Entry<String, PackedEntry> entry : index.entrySet()) {
+                data.writeUTF(entry.getKey());
+                data.writeInt(entry.getValue().partNumber);
+                data.writeLong(entry.getValue().offset);
+                data.writeInt(entry.getValue().length);
+            }
+        }
+    }
+
+    /**
+     * 检查容器目录不存在，或者只包含打包器生成的容器文件和索引文件
+     */
+    private void checkReplaceable() throws IOException {
+        if (!fileSystem.exists(containerDir)) {
+            return;
+        }
+        for (FileStatus status : fileSystem.listStatus(containerDir)) {
+            String name = status.getPath().getName();
+            if (status.isDirectory() || !(INDEX_FILE.equals(name) || isPartName(name))) {
+                throw new IOException("容器目录中存在非打包文件，拒绝覆盖: " + status.getPath());
+            }
+        }
+    }
+
+    static boolean isPartName(String name) {
+        return name.matches("part-\\d{5,}\\.pack");
+    }
+
+    static String partName(int partNumber) {
+        return String.format("part-%05d.pack", partNumber);
+    }
+
+    /**
+     * 索引条目：容器编号、偏移、长度
+     */
+    static class PackedEntry {
+        final int partNumber;
+        final long offset;
+        final int length;
+
+        PackedEntry(int partNumber, long offset, int length) {
+            this.partNumber = partNumber;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bigdata.hdfs.project;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Apache访问日志解析器单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class ApacheLogParserTest {
+    
+    private ApacheLogParser parser;
+    
+    @Before
+    public void setUp() {
+        parser = new ApacheLogParser();
+    }
+    
+    @Test
+    public void testParseCommonLogFormat() {
+        assertTrue("通用日志格式应该解析成功",
+                   parse("192.168.1.100 - - [25/Dec/2023:10:00:01 +0800] \"GET /index.html HTTP/1.1\" 200 5120"));
+        assertEquals("192.168.1.100", parser.getIp());
+        assertEquals("25/Dec/2023:10:00:01 +0800", parser.getTimestamp());
+        assertEquals("GET", parser.getMethod());
+        assertEquals("/index.html", parser.getUrl());
+        assertEquals("HTTP/1.1", parser.getProtocol());
+        assertEquals(200, parser.getStatus());
+        assertEquals(5120L, parser.getResponseSize());
+        assertEquals("快速路径不应该使用正则回退", 0, parser.getFallbackCount());
+    }
+    
+    @Test
+    public void testParseCombinedLogFormat() {
+        assertTrue("组合日志格式应该解析成功",
+                   parse("10.0.0.1 - frank [25/Dec/2023:10:00:01 +0800] \"POST /api/orders HTTP/1.1\" 500 - "
+                         + "\"http://example.com/\" \"Mozilla/5.0\"\r"));
+        assertEquals("10.0.0.1", parser.getIp());
+        assertEquals("POST", parser.getMethod());
+        assertEquals(500, parser.getStatus());
+        assertEquals("响应大小为-时应该返回0", 0L, parser.getResponseSize());
+    }
+    
+    @Test
+    public void testParseFieldsAtOffset() {
+        byte[] bytes = ("xxxx10.0.0.2 - - [25/Dec/2023:10:00:01 +0800] \"PUT /a HTTP/1.0\" 301 7yyyy")
+            .getBytes(StandardCharsets.UTF_8);
+        assertTrue("应该只解析指定区间", parser.parse(bytes, 4, bytes.length - 4));
+        assertSame("字段应该直接引用传入的数组", bytes, parser.getBuffer());
+        assertEquals(4, parser.getIpStart());
+        assertEquals("10.0.0.2", parser.getIp());
+        assertEquals(7L, parser.getResponseSize());
+    }
+    
+    @Test
+    public void testFallbackForIrregularWhitespace() {
+        assertTrue("多个空白的行应该通过正则回退解析",
+                   parse("10.0.0.3  -  -  [25/Dec/2023:10:00:01 +0800]  \"GET  /b  HTTP/1.1\"  404  12"));
+        assertEquals(1, parser.getFallbackCount());
+        assertEquals("10.0.0.3", parser.getIp());
+        assertEquals("/b", parser.getUrl());
+        assertEquals(404, parser.getStatus());
+        assertEquals(12L, parser.getResponseSize());
+    }
+    
+    @Test
+    public void testIpv4Address() {
+        assertTrue(parse("10.1.2.3 - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 1"));
+        assertEquals((10L << 24) | (1 << 16) | (2 << 8) | 3, parser.getIpv4());
+        
+        assertTrue(parse("255.255.255.255 - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 1"));
+        assertEquals(0xFFFFFFFFL, parser.getIpv4());
+        
+        String[] notIpv4 = {"::1", "256.1.1.1", "1.2.3", "1.2.3.4.5", "1..2.3", "1234.1.1.1", "host.example.com"};
+        for (String ip : notIpv4) {
+            assertTrue(parse(ip + " - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 1"));
+            assertEquals(ip + " 不是IPv4地址", -1L, parser.getIpv4());
+        }
+    }
+    
+    @Test
+    public void testEpochSecond() {
+        // 与java.time的解析结果对比，覆盖闰年、月末、年初和不同时区
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            long epochSecond = (long) (random.nextDouble() * 4102444800L);
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(27) - 12) * 3600 + random.nextInt(2) * 1800);
+            String timestamp = formatter.format(Instant.ofEpochSecond(epochSecond).atOffset(offset));
+            assertTrue(parse("10.0.0.1 - - [" + timestamp + "] \"GET / HTTP/1.1\" 200 1"));
+            assertEquals(timestamp, epochSecond, parser.getEpochSecond());
+        }
+        
+        assertTrue(parse("10.0.0.1 - - [29/Feb/2024:23:59:59 -0130] \"GET / HTTP/1.1\" 200 1"));
+        assertEquals(OffsetDateTime.parse("2024-02-29T23:59:59-01:30").toEpochSecond(), parser.getEpochSecond());
+    }
+    
+    @Test
+    public void testInvalidTimestamp() {
+        String[] invalid = {"25/Foo/2023:10:00:01 +0800", "32/Dec/2023:10:00:01 +0800", "25/Dec/2023:24:00:01 +0800",
+                            "25/Dec/2023:10:00:01 *0800", "25/Dec/2023:10:0x:01 +0800", "25/Dec/2023:10:00:01"};
+        for (String timestamp : invalid) {
+            assertTrue(parse("10.0.0.1 - - [" + timestamp + "] \"GET / HTTP/1.1\" 200 1"));
+            assertEquals(timestamp + " 应该无法解析", ApacheLogParser.INVALID_TIMESTAMP, parser.getEpochSecond());
+        }
+    }
+    
+    @Test
+    public void testRejectMalformedLines() {
+        assertFalse("空行应该解析失败", parse(""));
+        assertFalse("缺少状态码应该解析失败", parse("10.0.0.1 - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\""));
+        assertFalse("状态码非数字应该解析失败", parse("10.0.0.1 - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" abc 1"));
+        assertFalse("请求行不完整应该解析失败", parse("10.0.0.1 - - [25/Dec/2023:10:00:01 +0800] \"-\" 408 0"));
+        assertFalse("随机文本应该解析失败", parse("hello world"));
+    }
+    
+    private boolean parse(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        return parser.parse(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bigdata.hdfs.project;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * HyperLogLog基数估计单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class HyperLogLogTest {
+    
+    @Test
+    public void testCardinalityWithinErrorBound() {
+        // p=14时相对标准误差约0.81%，按4倍标准误差检查
+        for (int cardinality : new int[]{10, 1000, 100000, 2000000}) {
+            HyperLogLog hll = new HyperLogLog(14);
+            for (int i = 0; i < cardinality; i++) {
+                hll.add(i);
+                // 重复的键不应该影响结果
+                hll.add(i);
+            }
+            double error = Math.abs(hll.cardinality() - cardinality) / (double) cardinality;
+            assertTrue("基数 " + cardinality + " 的相对误差 " + error + " 超出范围", error < 0.033);
+        }
+    }
+    
+    @Test
+    public void testMerge() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 50000; i++) {
+            first.add(i);
+            second.add(i + 25000);
+        }
+        first.merge(second);
+        double error = Math.abs(first.cardinality() - 75000) / 75000.0;
+        assertTrue("合并后的相对误差 " + error + " 超出范围", error < 0.07);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentPrecision() {
+        new HyperLogLog(12).merge(new HyperLogLog(14));
+    }
+}
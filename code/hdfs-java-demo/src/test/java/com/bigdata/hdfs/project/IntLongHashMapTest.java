@@ -0,0 +1,60 @@
+package com.bigdata.hdfs.project;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * int到long开放寻址哈希表单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class IntLongHashMapTest {
+    
+    @Test
+    public void testMatchesHashMap() {
+        IntLongHashMap map = new IntLongHashMap();
+        Map<Integer, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        
+        // 包括键0、负数键，并触发多次扩容
+        for (int i = 0; i < 200000; i++) {
+            int key = i % 7 == 0 ? 0 : random.nextInt(50000) - 25000;
+            long delta = random.nextInt(10) + 1;
+            map.addTo(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+        
+        assertEquals("条目数应该一致", expected.size(), map.size());
+        for (Map.Entry<Integer, Long> entry : expected.entrySet()) {
+            assertEquals("键 " + entry.getKey() + " 的值应该一致", (long) entry.getValue(), map.get(entry.getKey()));
+        }
+        assertEquals("不存在的键应该返回0", 0, map.get(99999));
+        
+        Map<Integer, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals("遍历结果应该一致", expected, iterated);
+    }
+    
+    @Test
+    public void testAddAll() {
+        IntLongHashMap first = new IntLongHashMap();
+        IntLongHashMap second = new IntLongHashMap();
+        first.addTo(1, 5);
+        first.addTo(0, 1);
+        second.addTo(1, 2);
+        second.addTo(2, 3);
+        second.addTo(0, 4);
+        
+        first.addAll(second);
+        assertEquals(3, first.size());
+        assertEquals(7, first.get(1));
+        assertEquals(3, first.get(2));
+        assertEquals(5, first.get(0));
+    }
+}
@@ -0,0 +1,133 @@
+package com.bigdata.hdfs.project;
+
+import com.bigdata.hdfs.util.HDFSUtil;
+import org.apache.hadoop.fs.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * 日志分析单元测试（增量分析、多文件输入）
+ * 使用本地文件系统，不依赖HDFS集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogAnalyzerTest {
+    
+    private File tempDir;
+    private HDFSUtil hdfsUtil;
+    private String logPath;
+    private String checkpointPath;
+    private final LogAnalyzer analyzer = new LogAnalyzer();
+    
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("log-analyzer").toFile();
+        hdfsUtil = new HDFSUtil("file:///");
+        logPath = new File(tempDir, "access.log").getAbsolutePath();
+        checkpointPath = new File(tempDir, "access.log.checkpoint").getAbsolutePath();
+    }
+    
+    @After
+    public void tearDown() {
+        hdfsUtil.close();
+        FileUtil.fullyDelete(tempDir);
+    }
+    
+    @Test
+    public void testIncrementalMatchesFullAnalysis() throws Exception {
+        append(lines(0, 1000));
+        LogStatistics first = analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, false);
+        assertEquals("首次运行应该全量分析", 1000, first.getTotalRequests());
+        
+        // 追加新行，最后一行只写了一半
+        append(lines(1000, 1500) + "10.0.0.9 - - [25/Dec/2023:10:00:01 +0800] \"GET");
+        LogStatistics second = analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, false);
+        assertEquals("写了一半的行留到下一次分析", 1500, second.getTotalRequests());
+        
+        // 补全半行并继续追加
+        append(" /index.html HTTP/1.1\" 200 100\n" + lines(1501, 2000));
+        LogStatistics third = analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, false);
+        LogStatistics full = analyzer.analyze(hdfsUtil, logPath, 2);
+        assertEquals(2000, third.getTotalRequests());
+        assertEquals(full.getIpCount(), third.getIpCount());
+        assertEquals(full.getStatusCount(), third.getStatusCount());
+        assertEquals(full.getMethodCount(), third.getMethodCount());
+        assertEquals(full.getTotalBytes(), third.getTotalBytes());
+        
+        // 没有新数据时结果不变
+        assertEquals(2000, analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, false).getTotalRequests());
+    }
+    
+    @Test
+    public void testRescanWhenLogRotated() throws Exception {
+        append(lines(0, 500));
+        analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, false);
+        
+        // 同名新文件比原文件长，但开头内容不同
+        Files.write(new File(logPath).toPath(), lines(5000, 5600).getBytes(StandardCharsets.UTF_8));
+        LogStatistics rotated = analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, false);
+        assertEquals("轮转后应该全量重新分析", 600, rotated.getTotalRequests());
+        
+        // 文件被截断
+        Files.write(new File(logPath).toPath(), lines(0, 10).getBytes(StandardCharsets.UTF_8));
+        assertEquals(10, analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, false).getTotalRequests());
+        
+        // 切换统计模式
+        LogStatistics approximate = analyzer.analyzeIncremental(hdfsUtil, logPath, checkpointPath, 2, true);
+        assertTrue(approximate.isApproximate());
+        assertEquals(10, approximate.getTotalRequests());
+    }
+    
+    @Test
+    public void testGlobInputWithCompressedFiles() throws Exception {
+        File logDir = new File(tempDir, "logs");
+        assertTrue(logDir.mkdirs());
+        Files.write(new File(logDir, "access.log.1").toPath(), lines(0, 300).getBytes(StandardCharsets.UTF_8));
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(new File(logDir, "access.log.2.gz")))) {
+            out.write(lines(300, 1000).getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(new File(logDir, "access.log.3").toPath(), lines(1000, 1200).getBytes(StandardCharsets.UTF_8));
+        // 隐藏文件不应该被读取
+        Files.write(new File(logDir, "_SUCCESS").toPath(), lines(0, 50).getBytes(StandardCharsets.UTF_8));
+        append(lines(0, 1200));
+        
+        LogStatistics full = analyzer.analyze(hdfsUtil, logPath, 2);
+        LogStatistics byDirectory = analyzer.analyze(hdfsUtil, logDir.getAbsolutePath(), 2);
+        assertEquals(1200, byDirectory.getTotalRequests());
+        assertEquals(full.getIpCount(), byDirectory.getIpCount());
+        assertEquals(full.getStatusCount(), byDirectory.getStatusCount());
+        assertEquals(full.getTotalBytes(), byDirectory.getTotalBytes());
+        
+        LogStatistics byGlob = analyzer.analyze(hdfsUtil, logDir.getAbsolutePath() + "/access.log.[12]*", 2);
+        assertEquals("通配符只匹配前两个文件", 1000, byGlob.getTotalRequests());
+        
+        assertNull("没有匹配的文件", analyzer.analyze(hdfsUtil, logDir.getAbsolutePath() + "/missing-*", 2));
+    }
+    
+    private void append(String content) throws Exception {
+        Files.write(new File(logPath).toPath(), content.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+    
+    private static String lines(int from, int to) {
+        String[] methods = {"GET", "POST", "PUT", "DELETE"};
+        StringBuilder content = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            content.append(String.format("10.0.%d.%d - - [25/Dec/2023:10:%02d:%02d +0800] \"%s /page/%d HTTP/1.1\" %d %d\n",
+                i % 7, i % 13, i / 60 % 60, i % 60, methods[i % methods.length], i, 200 + i % 3, i));
+        }
+        return content.toString();
+    }
+}
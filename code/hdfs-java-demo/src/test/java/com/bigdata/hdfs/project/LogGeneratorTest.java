@@ -0,0 +1,83 @@
+package com.bigdata.hdfs.project;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 模拟日志生成器单元测试
+ *
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogGeneratorTest {
+
+    private static final long TARGET_BYTES = 2 * 1024 * 1024;
+
+    @Test
+    public void testSameSeedSameContent() throws Exception {
+        assertArrayEquals(generate(7, TARGET_BYTES), generate(7, TARGET_BYTES));
+        assertFalse(Arrays.equals(generate(7, TARGET_BYTES), generate(8, TARGET_BYTES)));
+    }
+
+    @Test
+    public void testOutputSize() throws Exception {
+        byte[] log = generate(1, TARGET_BYTES);
+        assertTrue("至少写满目标大小", log.length >= TARGET_BYTES);
+        assertTrue("只多写最后一行", log.length - TARGET_BYTES < 512);
+        assertEquals('\n', log[log.length - 1]);
+    }
+
+    @Test
+    public void testLinesParseWithRealisticDistribution() throws Exception {
+        byte[] log = generate(42, TARGET_BYTES);
+        ApacheLogParser parser = new ApacheLogParser();
+        Map<String, Integer> ipCount = new HashMap<>();
+        long lines = 0;
+        long success = 0;
+        long previousSecond = Long.MIN_VALUE;
+        int lineStart = 0;
+        for (int i = 0; i < log.length; i++) {
+            if (log[i] != '\n') {
+                continue;
+            }
+            assertTrue("无法解析: " + new String(log, lineStart, i - lineStart), parser.parse(log, lineStart, i));
+            lines++;
+            long second = parser.getEpochSecond();
+            assertNotEquals(ApacheLogParser.INVALID_TIMESTAMP, second);
+            assertTrue("时间戳单调不减", second >= previousSecond);
+            previousSecond = second;
+            if (parser.getStatus() >= 200 && parser.getStatus() < 300) {
+                success++;
+            }
+            ipCount.merge(parser.getIp(), 1, Integer::sum);
+            lineStart = i + 1;
+        }
+
+        assertEquals("所有行都走快速解析路径", 0, parser.getFallbackCount());
+        assertTrue("大部分请求成功", success > lines * 3 / 4);
+        int top = ipCount.values().stream().max(Integer::compare).get();
+        assertTrue("最热IP的请求数远高于平均值", top > 50 * lines / ipCount.size());
+    }
+
+    @Test
+    public void testZipfSampling() {
+        double[] cdf = LogGenerator.zipfCdf(1000, 1.0);
+        assertEquals(1.0, cdf[cdf.length - 1], 0);
+        assertEquals(0, LogGenerator.sample(cdf, 0.0));
+        assertEquals(0, LogGenerator.sample(cdf, cdf[0]));
+        assertEquals(1, LogGenerator.sample(cdf, Math.nextUp(cdf[0])));
+        assertEquals(999, LogGenerator.sample(cdf, 1.0));
+    }
+
+    private static byte[] generate(long seed, long targetBytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new LogGenerator(seed).write(out, targetBytes);
+        return out.toByteArray();
+    }
+}
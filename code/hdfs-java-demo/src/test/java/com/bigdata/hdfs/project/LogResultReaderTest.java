@@ -0,0 +1,185 @@
+package com.bigdata.hdfs.project;
+
+import com.bigdata.hdfs.util.HDFSUtil;
+import org.apache.hadoop.fs.FileUtil;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 列式日志分析结果单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogResultReaderTest {
+    
+    @Test
+    public void testRoundTrip() throws Exception {
+        LogStatistics statistics = sampleStatistics();
+        LogResultReader reader = LogResultReader.open(ByteBuffer.wrap(LogResultWriter.toBytes(statistics)));
+        
+        assertEquals(statistics.getTotalRequests(), reader.getTotalRequests());
+        assertEquals(statistics.getTotalBytes(), reader.getTotalBytes());
+        assertEquals(statistics.getDistinctIpCount(), reader.getDistinctIpCount());
+        assertFalse(reader.isApproximate());
+        assertEquals("精确模式下保存全部IP", statistics.getIpCount(), reader.readCounts(LogResultReader.DIMENSION_IP));
+        assertEquals(statistics.getStatusCount(), reader.readCounts(LogResultReader.DIMENSION_STATUS));
+        assertEquals(statistics.getMethodCount(), reader.readCounts(LogResultReader.DIMENSION_METHOD));
+        
+        Map<String, Long> top = reader.readTop(LogResultReader.DIMENSION_IP, 3);
+        List<Map.Entry<String, Long>> expected = statistics.getTopIps(3);
+        assertEquals("Top-N按请求数降序", Arrays.asList("192.168.0.1", "192.168.0.2", "192.168.0.3"),
+                     new ArrayList<>(top.keySet()));
+        for (Map.Entry<String, Long> entry : expected) {
+            assertEquals(entry.getValue(), top.get(entry.getKey()));
+        }
+        
+        LogTimeSeries expectedSeries = statistics.getTimeSeries();
+        LogTimeSeries series = reader.readTimeSeries();
+        assertEquals(expectedSeries.getBucketCount(), series.getBucketCount());
+        List<LogTimeSeries.Window> expectedWindows = expectedSeries.getWindows(3600, 3600);
+        List<LogTimeSeries.Window> windows = series.getWindows(3600, 3600);
+        assertEquals(expectedWindows.size(), windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            assertEquals(expectedWindows.get(i).getStart(), windows.get(i).getStart());
+            assertEquals(expectedWindows.get(i).getRequests(), windows.get(i).getRequests());
+            assertEquals(expectedWindows.get(i).getBytes(), windows.get(i).getBytes());
+            assertEquals(expectedWindows.get(i).getStatusClassCount(5), windows.get(i).getStatusClassCount(5));
+        }
+    }
+    
+    @Test
+    public void testMappedAndHdfsFiles() throws Exception {
+        LogStatistics statistics = sampleStatistics();
+        File tempDir = Files.createTempDirectory("log-result").toFile();
+        HDFSUtil hdfsUtil = new HDFSUtil("file:///");
+        try {
+            File file = new File(tempDir, "result.lgr");
+            Files.write(file.toPath(), LogResultWriter.toBytes(statistics));
+            
+            LogResultReader mapped = LogResultReader.map(file);
+            assertEquals(statistics.getStatusCount(), mapped.readCounts(LogResultReader.DIMENSION_STATUS));
+            assertEquals(statistics.getIpCount(), mapped.readCounts(LogResultReader.DIMENSION_IP));
+            
+            // 同一个读取器上多次查询，共用一次打开的文件
+            try (LogResultReader remote = LogResultReader.open(hdfsUtil, file.getAbsolutePath())) {
+                assertEquals(statistics.getMethodCount(), remote.readCounts(LogResultReader.DIMENSION_METHOD));
+                assertEquals(statistics.getDistinctIpCount(), remote.getRowCount("ip.value"));
+                assertEquals(statistics.getIpCount(), remote.readCounts(LogResultReader.DIMENSION_IP));
+                assertEquals(statistics.getTimeSeries().getBucketCount(), remote.readTimeSeries().getBucketCount());
+            }
+        } finally {
+            hdfsUtil.close();
+            FileUtil.fullyDelete(tempDir);
+        }
+    }
+    
+    @Test
+    public void testApproximateKeepsCandidatesOnly() throws Exception {
+        LogStatistics statistics = LogStatistics.approximate(5);
+        for (int i = 0; i < 1000; i++) {
+            accept(statistics, "10.0.0." + (i % 50) + " - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 1");
+        }
+        LogResultReader reader = LogResultReader.open(ByteBuffer.wrap(LogResultWriter.toBytes(statistics)));
+        assertTrue(reader.isApproximate());
+        assertEquals(5, reader.getRowCount("ip.value"));
+        assertEquals(-1, reader.getRowCount("time.start"));
+        assertNull("未开启时间序列", reader.readTimeSeries());
+    }
+    
+    @Test
+    public void testRejectsTruncatedFile() throws Exception {
+        byte[] data = LogResultWriter.toBytes(sampleStatistics());
+        try {
+            LogResultReader.open(ByteBuffer.wrap(Arrays.copyOf(data, data.length - 3)));
+            fail("截断的文件应该被拒绝");
+        } catch (IOException expected) {
+            // 文件尾缺失
+        }
+        LogResultReader reader = LogResultReader.open(ByteBuffer.wrap(data));
+        try {
+            reader.readLongColumn("ip.value");
+            fail("列类型不匹配应该抛出异常");
+        } catch (IOException expected) {
+            // 字符串列不能按整数读取
+        }
+    }
+    
+    @Test
+    public void testHdfsReadErrorIsReported() throws Exception {
+        File tempDir = Files.createTempDirectory("log-result").toFile();
+        HDFSUtil hdfsUtil = new HDFSUtil("file:///");
+        try {
+            File file = new File(tempDir, "result.lgr");
+            byte[] data = LogResultWriter.toBytes(sampleStatistics());
+            Files.write(file.toPath(), data);
+            
+            try (LogResultReader remote = LogResultReader.open(hdfsUtil, file.getAbsolutePath())) {
+                // 打开之后文件被截断，读取列时应该得到底层的EOFException
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(16);
+                }
+                remote.readCounts(LogResultReader.DIMENSION_IP);
+                fail("文件被截断时应该抛出EOFException");
+            } catch (EOFException expected) {
+                // 区间超出文件末尾
+            }
+        } finally {
+            hdfsUtil.close();
+            FileUtil.fullyDelete(tempDir);
+        }
+    }
+    
+    @Test
+    public void testUniqueValuesAreNotDictionaryEncoded() throws Exception {
+        LogStatistics statistics = new LogStatistics();
+        long ipBytes = 0;
+        for (int i = 0; i < 1000; i++) {
+            String ip = "10.1." + (i / 256) + "." + (i % 256);
+            ipBytes += ip.length();
+            accept(statistics, ip + " - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 1");
+        }
+        byte[] data = LogResultWriter.toBytes(statistics);
+        // 每个IP只写一次长度和内容；字典编码还要为每行多写一个序号（这里超过1800字节）
+        assertTrue("文件大小: " + data.length, data.length < ipBytes + 2500);
+        LogResultReader reader = LogResultReader.open(ByteBuffer.wrap(data));
+        assertEquals(statistics.getIpCount(), reader.readCounts(LogResultReader.DIMENSION_IP));
+        assertEquals(3, reader.readTop(LogResultReader.DIMENSION_IP, 3).size());
+    }
+    
+    private static LogStatistics sampleStatistics() {
+        LogStatistics statistics = new LogStatistics().withTimeSeries(60);
+        String[] methods = {"GET", "POST", "DELETE"};
+        int[] statusCodes = {200, 404, 500};
+        for (int i = 0; i < 2000; i++) {
+            String ip = "10.0." + (i % 7) + "." + (i % 13 == 0 ? i % 3 : i % 97);
+            accept(statistics, String.format("%s - - [25/Dec/2023:%02d:%02d:00 +0800] \"%s /index.html HTTP/1.1\" %d %d",
+                ip, i / 120, i / 2 % 60, methods[i % methods.length], statusCodes[i % 5 % 3], 100 + i));
+        }
+        // 三个高频IP，请求数互不相同
+        for (int i = 0; i < 600; i++) {
+            String ip = i < 300 ? "192.168.0.1" : (i < 500 ? "192.168.0.2" : "192.168.0.3");
+            accept(statistics, ip + " - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 10");
+        }
+        accept(statistics, "::1 - - [25/Dec/2023:10:00:01 +0800] \"PROPFIND /dav HTTP/1.1\" 207 10");
+        return statistics;
+    }
+    
+    private static void accept(LogStatistics statistics, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        statistics.accept(bytes, bytes.length);
+    }
+}
@@ -0,0 +1,127 @@
+package com.bigdata.hdfs.project;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 访问日志统计结果单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogStatisticsTest {
+    
+    @Test
+    public void testCountsAndMerge() {
+        LogStatistics first = new LogStatistics();
+        accept(first, "192.168.1.100 - - [25/Dec/2023:10:00:01 +0800] \"GET /index.html HTTP/1.1\" 200 100");
+        accept(first, "192.168.1.100 - - [25/Dec/2023:10:00:02 +0800] \"POST /api HTTP/1.1\" 500 50");
+        accept(first, "::1 - - [25/Dec/2023:10:00:03 +0800] \"PROPFIND /dav HTTP/1.1\" 207 10");
+        accept(first, "这不是一行访问日志");
+        
+        LogStatistics second = new LogStatistics();
+        accept(second, "0.0.0.0 - - [25/Dec/2023:10:00:04 +0800] \"GET / HTTP/1.1\" 200 1");
+        accept(second, "255.255.255.255 - - [25/Dec/2023:10:00:05 +0800] \"GET / HTTP/1.1\" 404 2");
+        accept(second, "192.168.1.100 - - [25/Dec/2023:10:00:06 +0800] \"GET / HTTP/1.1\" 200 3");
+        
+        first.merge(second);
+        assertEquals("无法解析的行不应该计入", 6, first.getTotalRequests());
+        assertEquals(166, first.getTotalBytes());
+        
+        Map<String, Long> ipCount = first.getIpCount();
+        assertEquals(4, first.getDistinctIpCount());
+        assertEquals(Long.valueOf(3), ipCount.get("192.168.1.100"));
+        assertEquals("IPv6地址也应该被统计", Long.valueOf(1), ipCount.get("::1"));
+        assertEquals("键为0的IPv4地址应该被统计", Long.valueOf(1), ipCount.get("0.0.0.0"));
+        assertEquals(Long.valueOf(1), ipCount.get("255.255.255.255"));
+        
+        Map<String, Long> statusCount = first.getStatusCount();
+        assertEquals(Long.valueOf(3), statusCount.get("200"));
+        assertEquals(Long.valueOf(1), statusCount.get("207"));
+        assertEquals(4, statusCount.size());
+        
+        Map<String, Long> methodCount = first.getMethodCount();
+        assertEquals(Long.valueOf(4), methodCount.get("GET"));
+        assertEquals(Long.valueOf(1), methodCount.get("POST"));
+        assertEquals("非标准请求方法也应该被统计", Long.valueOf(1), methodCount.get("PROPFIND"));
+    }
+    
+    @Test
+    public void testApproximateMode() {
+        LogStatistics exact = new LogStatistics();
+        LogStatistics first = LogStatistics.approximate(20);
+        LogStatistics second = LogStatistics.approximate(20);
+        for (int i = 0; i < 20000; i++) {
+            // 10.0.0.1 ~ 10.0.0.3 为高频IP（占比50%/30%/10%），其余IP各出现一次
+            int bucket = i % 10;
+            String ip = bucket == 9 ? "10.1." + (i / 256 % 256) + "." + (i % 256)
+                : "10.0.0." + (bucket < 5 ? 1 : bucket < 8 ? 2 : 3);
+            String line = ip + " - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 1";
+            accept(exact, line);
+            accept(i % 2 == 0 ? first : second, line);
+        }
+        accept(first, "::1 - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 1");
+        first.merge(second);
+        
+        assertTrue(first.isApproximate());
+        assertEquals("非IP统计在近似模式下仍然精确", 20001, first.getTotalRequests());
+        assertEquals(Long.valueOf(20001), first.getStatusCount().get("200"));
+        
+        double distinctError = Math.abs(first.getDistinctIpCount() - (exact.getDistinctIpCount() + 1)) 
+            / (double) exact.getDistinctIpCount();
+        assertTrue("不同IP数的相对误差应该在3%以内", distinctError < 0.03);
+        
+        List<Map.Entry<String, Long>> approximateTop = first.getTopIps(3);
+        List<Map.Entry<String, Long>> exactTop = exact.getTopIps(3);
+        assertEquals(3, approximateTop.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("高频IP排名应该与精确模式一致", exactTop.get(i).getKey(), approximateTop.get(i).getKey());
+            assertTrue("估计次数不应该小于真实次数", approximateTop.get(i).getValue() >= exactTop.get(i).getValue());
+        }
+    }
+    
+    @Test
+    public void testSerializationRoundTrip() throws Exception {
+        for (LogStatistics statistics : new LogStatistics[]{new LogStatistics(), LogStatistics.approximate(10)}) {
+            accept(statistics, "10.0.0.1 - - [25/Dec/2023:10:00:01 +0800] \"GET / HTTP/1.1\" 200 100");
+            accept(statistics, "0.0.0.0 - - [25/Dec/2023:10:00:02 +0800] \"PROPFIND /dav HTTP/1.1\" 207 10");
+            accept(statistics, "::1 - - [25/Dec/2023:10:00:03 +0800] \"POST /api HTTP/1.1\" 500 -");
+            
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            statistics.write(new DataOutputStream(bytes));
+            LogStatistics restored = LogStatistics.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            
+            assertEquals(statistics.isApproximate(), restored.isApproximate());
+            assertEquals(new HashSet<>(statistics.getTopIps(10)), new HashSet<>(restored.getTopIps(10)));
+            assertEquals(statistics.getDistinctIpCount(), restored.getDistinctIpCount());
+            assertEquals(statistics.getStatusCount(), restored.getStatusCount());
+            assertEquals(statistics.getMethodCount(), restored.getMethodCount());
+            assertEquals(statistics.getTotalRequests(), restored.getTotalRequests());
+            assertEquals(statistics.getTotalBytes(), restored.getTotalBytes());
+            
+            // 恢复的结果可以继续累计
+            accept(restored, "10.0.0.1 - - [25/Dec/2023:10:00:04 +0800] \"GET / HTTP/1.1\" 200 100");
+            assertEquals(Long.valueOf(2), restored.getTopIps(1).get(0).getValue());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentModes() {
+        new LogStatistics().merge(LogStatistics.approximate(10));
+    }
+    
+    private static void accept(LogStatistics statistics, String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        statistics.accept(bytes, bytes.length);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bigdata.hdfs.project;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 按时间分桶的日志统计单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogTimeSeriesTest {
+    
+    // 2023-12-25T02:00:00Z
+    private static final long BASE = 1703469600L;
+    
+    @Test
+    public void testTumblingWindows() {
+        LogStatistics statistics = new LogStatistics().withTimeSeries(60);
+        accept(statistics, "10:00:01", 200, 100);
+        accept(statistics, "10:00:59", 404, 10);
+        accept(statistics, "10:02:30", 500, 1);
+        accept(statistics, "11:00:00", 301, 5);
+        
+        List<LogTimeSeries.Window> minutes = statistics.getTimeSeries().getWindows(60, 60);
+        assertEquals("只输出有请求的分钟", 3, minutes.size());
+        assertEquals(BASE, minutes.get(0).getStart());
+        assertEquals(BASE + 60, minutes.get(0).getEnd());
+        assertEquals(2, minutes.get(0).getRequests());
+        assertEquals(110, minutes.get(0).getBytes());
+        assertEquals(1, minutes.get(0).getStatusClassCount(2));
+        assertEquals(1, minutes.get(0).getStatusClassCount(4));
+        assertEquals(BASE + 120, minutes.get(1).getStart());
+        assertEquals(1, minutes.get(1).getStatusClassCount(5));
+        assertEquals(BASE + 3600, minutes.get(2).getStart());
+        assertEquals(1, minutes.get(2).getStatusClassCount(3));
+        
+        List<LogTimeSeries.Window> hours = statistics.getTimeSeries().getWindows(3600, 3600);
+        assertEquals(2, hours.size());
+        assertEquals(3, hours.get(0).getRequests());
+        assertEquals(1, hours.get(1).getRequests());
+    }
+    
+    @Test
+    public void testSlidingWindows() {
+        LogStatistics statistics = new LogStatistics().withTimeSeries(60);
+        for (int minute = 0; minute < 10; minute++) {
+            for (int i = 0; i <= minute; i++) {
+                accept(statistics, String.format("10:%02d:00", minute), 200, 1);
+            }
+        }
+        
+        // 5分钟窗口每分钟滑动一次，第一个窗口从第一条日志之前4分钟开始
+        List<LogTimeSeries.Window> windows = statistics.getTimeSeries().getWindows(300, 60);
+        assertEquals(14, windows.size());
+        assertEquals(BASE - 240, windows.get(0).getStart());
+        assertEquals(1, windows.get(0).getRequests());
+        for (int i = 4; i < 10; i++) {
+            // 第 i-4 ~ i 分钟，每分钟 minute+1 次请求
+            long expected = 0;
+            for (int minute = i - 4; minute <= i; minute++) {
+                expected += minute + 1;
+            }
+            assertEquals(expected, windows.get(i).getRequests());
+        }
+        assertEquals(10, windows.get(13).getRequests());
+    }
+    
+    @Test
+    public void testMergeAndInvalidTimestamp() {
+        LogStatistics first = new LogStatistics().withTimeSeries(60);
+        LogStatistics second = new LogStatistics().withTimeSeries(60);
+        accept(first, "10:00:01", 200, 1);
+        accept(second, "10:00:30", 200, 2);
+        accept(second, "10:01:00", 200, 3);
+        byte[] line = "10.0.0.1 - - [25/Dec/2023:10:00:01] \"GET / HTTP/1.1\" 200 1".getBytes(StandardCharsets.UTF_8);
+        second.accept(line, line.length);
+        
+        first.merge(second);
+        List<LogTimeSeries.Window> minutes = first.getTimeSeries().getWindows(60, 60);
+        assertEquals(2, minutes.size());
+        assertEquals(3, minutes.get(0).getBytes());
+        assertEquals(3, minutes.get(1).getBytes());
+        assertEquals(1, first.getTimeSeries().getInvalidTimestamps());
+    }
+    
+    @Test
+    public void testStrayTimestampIsDiscarded() {
+        LogStatistics statistics = new LogStatistics().withTimeSeries(60);
+        accept(statistics, "10:00:01", 200, 1);
+        accept(statistics, "10:30:00", 200, 1);
+        byte[] line = "10.0.0.1 - - [01/Jan/0001:00:00:00 +0800] \"GET / HTTP/1.1\" 200 1".getBytes(StandardCharsets.UTF_8);
+        statistics.accept(line, line.length);
+        LogTimeSeries series = statistics.getTimeSeries();
+        
+        // 跨度两千年也只输出有数据的窗口
+        List<LogTimeSeries.Window> minutes = series.getWindows(60, 60);
+        assertEquals(3, minutes.size());
+        assertEquals(3, series.getWindows(300, 60).size() / 5);
+        
+        assertEquals(1, series.discardOutliers(366L * 24 * 3600));
+        assertEquals(1, series.getInvalidTimestamps());
+        minutes = series.getWindows(60, 60);
+        assertEquals(2, minutes.size());
+        assertEquals(BASE, minutes.get(0).getStart());
+        assertEquals(BASE + 1800, minutes.get(1).getStart());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowMustBeMultipleOfBucket() {
+        new LogTimeSeries(60).getWindows(90, 60);
+    }
+    
+    private static void accept(LogStatistics statistics, String time, int status, long bytes) {
+        String line = "10.0.0.1 - - [25/Dec/2023:" + time + " +0800] \"GET / HTTP/1.1\" " + status + " " + bytes;
+        byte[] data = line.getBytes(StandardCharsets.UTF_8);
+        statistics.accept(data, data.length);
+    }
+}
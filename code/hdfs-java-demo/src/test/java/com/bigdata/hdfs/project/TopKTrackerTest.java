@@ -0,0 +1,84 @@
+package com.bigdata.hdfs.project;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Top-K高频键跟踪单元测试（同时覆盖Count-Min草图）
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class TopKTrackerTest {
+    
+    @Test
+    public void testCountMinNeverUnderestimates() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+        long[] truth = new long[5000];
+        Random random = new Random(3);
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(truth.length);
+            sketch.add(key, 1);
+            truth[key]++;
+        }
+        for (int key = 0; key < truth.length; key++) {
+            long estimate = sketch.estimate(key);
+            assertTrue("估计值不应该小于真实值", estimate >= truth[key]);
+            // ε·N = 200，以99%的概率成立，这里放宽到2倍
+            assertTrue("估计值超出误差界", estimate - truth[key] <= 400);
+        }
+    }
+    
+    @Test
+    public void testHeavyHittersFound() {
+        TopKTracker tracker = new TopKTracker(10, 0.0001, 0.01);
+        Random random = new Random(5);
+        // 5个高频键各出现10000次，混入10万个只出现1~2次的键
+        for (int round = 0; round < 10000; round++) {
+            for (int hot = 1; hot <= 5; hot++) {
+                tracker.add(hot, null);
+            }
+            for (int i = 0; i < 15; i++) {
+                tracker.add(1000 + random.nextInt(100000), null);
+            }
+        }
+        
+        List<Map.Entry<String, Long>> top = tracker.getTopK();
+        assertEquals(10, top.size());
+        for (int i = 0; i < 5; i++) {
+            String key = top.get(i).getKey();
+            assertTrue("前5名应该是高频键: " + key, key.matches("0\\.0\\.0\\.[1-5]"));
+            assertTrue("高频键的估计次数不应该小于真实次数", top.get(i).getValue() >= 10000);
+        }
+    }
+    
+    @Test
+    public void testMergeKeepsHeavyHittersFromBothSides() {
+        TopKTracker first = new TopKTracker(3, 0.001, 0.01);
+        TopKTracker second = new TopKTracker(3, 0.001, 0.01);
+        for (int i = 0; i < 100; i++) {
+            first.add(1, null);
+        }
+        for (int i = 0; i < 80; i++) {
+            second.add(2, "host-b");
+        }
+        for (int i = 0; i < 60; i++) {
+            first.add(3, null);
+            second.add(3, null);
+        }
+        first.add(4, null);
+        
+        first.merge(second);
+        List<Map.Entry<String, Long>> top = first.getTopK();
+        assertEquals(3, top.size());
+        assertEquals("0.0.0.3", top.get(0).getKey());
+        assertEquals(120L, (long) top.get(0).getValue());
+        assertEquals("0.0.0.1", top.get(1).getKey());
+        assertEquals("自定义名称应该在合并后保留", "host-b", top.get(2).getKey());
+    }
+}
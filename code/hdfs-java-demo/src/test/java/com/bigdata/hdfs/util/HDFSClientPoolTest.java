@@ -0,0 +1,150 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * HDFS客户端连接池单元测试
+ * 使用本地文件系统URI，不依赖HDFS集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class HDFSClientPoolTest {
+    
+    private static final String LOCAL_URI = "file:///";
+    private static final String SLOW_URI = "slow:///";
+    
+    @After
+    public void tearDown() {
+        SlowFileSystem.release();
+        HDFSClientPool.closeIdle();
+    }
+    
+    @Test
+    public void testSameUriAndUserShareFileSystem() throws Exception {
+        try (HDFSClientPool.Lease first = HDFSClientPool.acquire(LOCAL_URI, "alice");
+             HDFSClientPool.Lease second = HDFSClientPool.acquire(LOCAL_URI, "alice")) {
+            assertSame("相同URI和用户应该共享同一个FileSystem", first.getFileSystem(), second.getFileSystem());
+            assertEquals("引用数应该为2", 2, HDFSClientPool.getReferenceCount(LOCAL_URI, "alice"));
+        }
+        assertEquals("全部释放后引用数应该为0", 0, HDFSClientPool.getReferenceCount(LOCAL_URI, "alice"));
+    }
+    
+    @Test
+    public void testDifferentUsersUseDifferentFileSystems() throws Exception {
+        try (HDFSClientPool.Lease alice = HDFSClientPool.acquire(LOCAL_URI, "alice");
+             HDFSClientPool.Lease bob = HDFSClientPool.acquire(LOCAL_URI, "bob")) {
+            assertNotSame("不同用户应该使用不同的FileSystem", alice.getFileSystem(), bob.getFileSystem());
+        }
+    }
+    
+    @Test
+    public void testReleaseDoesNotAffectOtherHandles() throws Exception {
+        HDFSClientPool.Lease first = HDFSClientPool.acquire(LOCAL_URI, "alice");
+        HDFSClientPool.Lease second = HDFSClientPool.acquire(LOCAL_URI, "alice");
+        FileSystem shared = second.getFileSystem();
+        
+        first.close();
+        first.close(); // 重复关闭不应该重复释放引用
+        assertEquals("释放一个句柄后引用数应该为1", 1, HDFSClientPool.getReferenceCount(LOCAL_URI, "alice"));
+        assertTrue("其他句柄仍然可以正常使用", shared.exists(new org.apache.hadoop.fs.Path("/")));
+        
+        assertEquals("仍有引用的连接不应该被关闭", 0, HDFSClientPool.closeIdle());
+        second.close();
+        assertEquals("空闲连接应该被关闭", 1, HDFSClientPool.closeIdle());
+        assertEquals("关闭后连接应该从池中移除", -1, HDFSClientPool.getReferenceCount(LOCAL_URI, "alice"));
+    }
+    
+    @Test(timeout = 30000)
+    public void testCreatingClientDoesNotBlockPool() throws Exception {
+        HDFSClientPool.acquire(LOCAL_URI, "alice").close();
+        SlowFileSystem.block();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<HDFSClientPool.Lease> creator = executor.submit(() -> HDFSClientPool.acquire(SLOW_URI, "bob"));
+            assertTrue("应该开始创建连接", SlowFileSystem.initializing.await(10, TimeUnit.SECONDS));
+            Future<HDFSClientPool.Lease> waiter = executor.submit(() -> HDFSClientPool.acquire(SLOW_URI, "bob"));
+            
+            // 创建连接期间，其他用户仍然可以获取池中已有的连接
+            try (HDFSClientPool.Lease alice = HDFSClientPool.acquire(LOCAL_URI, "alice")) {
+                assertNotNull(alice.getFileSystem());
+            }
+            assertFalse("相同URI和用户应该等待创建完成", waiter.isDone());
+            
+            SlowFileSystem.release();
+            try (HDFSClientPool.Lease first = creator.get(); HDFSClientPool.Lease second = waiter.get()) {
+                assertSame("等待的线程应该复用新创建的连接", first.getFileSystem(), second.getFileSystem());
+                assertEquals(2, HDFSClientPool.getReferenceCount(SLOW_URI, "bob"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testFailedCreationIsNotPooled() throws Exception {
+        try {
+            HDFSClientPool.acquire("unknown-scheme:///", "alice");
+            fail("不支持的文件系统应该抛出IOException");
+        } catch (IOException expected) {
+            // 没有对应的FileSystem实现
+        }
+        assertEquals("创建失败的连接不应该留在池中", -1, HDFSClientPool.getReferenceCount("unknown-scheme:///", "alice"));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testReleasedLeaseCannotBeUsed() throws Exception {
+        HDFSClientPool.Lease lease = HDFSClientPool.acquire(LOCAL_URI, "alice");
+        lease.close();
+        lease.getFileSystem();
+    }
+    
+    /**
+     * 初始化时可以被阻塞的本地文件系统，通过META-INF/services以slow协议注册
+     */
+    public static class SlowFileSystem extends RawLocalFileSystem {
+        
+        static volatile CountDownLatch initializing = new CountDownLatch(1);
+        private static volatile CountDownLatch released = new CountDownLatch(0);
+        
+        static void block() {
+            initializing = new CountDownLatch(1);
+            released = new CountDownLatch(1);
+        }
+        
+        static void release() {
+            released.countDown();
+        }
+        
+        @Override
+        public String getScheme() {
+            return "slow";
+        }
+        
+        @Override
+        public void initialize(URI uri, Configuration conf) throws IOException {
+            initializing.countDown();
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("初始化被中断", e);
+            }
+            super.initialize(uri, conf);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.bigdata.hdfs.util;
+
+import com.bigdata.hdfs.config.HDFSConfig;
+import org.apache.hadoop.fs.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * HDFS工具类单元测试（批量传输、原子写入、压缩读写）
+ * 使用本地文件系统，不依赖HDFS集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class HDFSUtilLocalTest {
+    
+    private File tempDir;
+    private File localDir;
+    private HDFSUtil hdfsUtil;
+    
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("hdfs-util").toFile();
+        localDir = new File(tempDir, "local");
+        assertTrue(new File(localDir, "sub").mkdirs());
+        hdfsUtil = new HDFSUtil("file:///");
+    }
+    
+    @After
+    public void tearDown() {
+        hdfsUtil.close();
+        // 关闭池中空闲的本地连接，避免影响其他测试对连接池引用数的断言
+        HDFSClientPool.closeIdle();
+        FileUtil.fullyDelete(tempDir);
+    }
+    
+    @Test
+    public void testUploadFilesReport() throws Exception {
+        // 并发数为1时队列很快占满，其余任务由提交线程执行，所有文件仍应传输成功
+        List<String> files = new ArrayList<>();
+        long totalBytes = 0;
+        for (int i = 0; i < 20; i++) {
+            File file = write(new File(localDir, "file" + i + ".txt"), "批量传输测试文件 " + i);
+            files.add(file.getPath());
+            totalBytes += file.length();
+        }
+        String remoteDir = new File(tempDir, "remote").getAbsolutePath();
+        
+        BatchTransferReport report = hdfsUtil.uploadFiles(files, remoteDir, 1);
+        assertTrue("批量上传应该全部成功", report.isAllSuccess());
+        assertEquals(20, report.getSuccessCount());
+        assertEquals("总字节数应该等于所有文件大小之和", totalBytes, report.getTotalBytes());
+        assertEquals("每个文件一条结果", 20, report.getResults().size());
+        for (BatchTransferReport.FileResult result : report.getResults()) {
+            assertEquals("成功的文件只尝试一次", 1, result.getAttempts());
+            assertEquals(new File(result.getSource()).length(), result.getBytes());
+            assertEquals(new String(Files.readAllBytes(new File(result.getSource()).toPath()), StandardCharsets.UTF_8),
+                         hdfsUtil.readFile(result.getTarget()));
+        }
+    }
+    
+    @Test
+    public void testMissingSourceIsNotRetried() throws Exception {
+        File existing = write(new File(localDir, "file0.txt"), "存在的文件");
+        String missing = new File(localDir, "missing.txt").getPath();
+        
+        BatchTransferReport report = hdfsUtil.uploadFiles(Arrays.asList(existing.getPath(), missing),
+                                                          new File(tempDir, "remote").getAbsolutePath(), 2);
+        assertEquals(1, report.getSuccessCount());
+        assertEquals(1, report.getFailureCount());
+        BatchTransferReport.FileResult failure = report.getFailures().get(0);
+        assertEquals(missing, failure.getSource());
+        assertEquals("源文件不存在时不应该重试", 1, failure.getAttempts());
+        assertTrue(failure.getErrorMessage().contains("FileNotFoundException"));
+    }
+    
+    @Test
+    public void testFailedTransferIsRetried() throws Exception {
+        File source = write(new File(localDir, "file0.txt"), "重试测试");
+        // 目标目录的位置已经是一个普通文件，每次写入都会失败
+        File blocker = write(new File(tempDir, "remote"), "不是目录");
+        
+        BatchTransferReport report = hdfsUtil.uploadFiles(Arrays.asList(source.getPath()), blocker.getAbsolutePath(), 1);
+        assertEquals(1, report.getFailureCount());
+        assertEquals("应该按最大重试次数重试", HDFSConfig.getInstance().getMaxRetries() + 1,
+                     report.getFailures().get(0).getAttempts());
+        assertEquals(0, report.getTotalBytes());
+    }
+    
+    @Test
+    public void testDirectoryRoundTrip() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            write(new File(i % 2 == 0 ? localDir : new File(localDir, "sub"), "file" + i + ".txt"), "目录传输测试 " + i);
+        }
+        String remoteDir = new File(tempDir, "remote").getAbsolutePath();
+        File downloadDir = new File(tempDir, "downloaded");
+        
+        BatchTransferReport upload = hdfsUtil.uploadDirectory(localDir.getPath(), remoteDir, 4);
+        assertTrue("目录上传应该全部成功", upload.isAllSuccess());
+        assertEquals(10, upload.getSuccessCount());
+        assertNotNull("子目录结构应该保留", hdfsUtil.getFileStatus(remoteDir + "/sub/file1.txt"));
+        
+        BatchTransferReport download = hdfsUtil.downloadDirectory(remoteDir, downloadDir.getPath(), 4);
+        assertTrue("目录下载应该全部成功", download.isAllSuccess());
+        assertEquals(10, download.getSuccessCount());
+        assertEquals(upload.getTotalBytes(), download.getTotalBytes());
+        for (int i = 0; i < 10; i++) {
+            String relativePath = (i % 2 == 0 ? "" : "sub/") + "file" + i + ".txt";
+            assertArrayEquals(relativePath, Files.readAllBytes(new File(localDir, relativePath).toPath()),
+                              Files.readAllBytes(new File(downloadDir, relativePath).toPath()));
+        }
+        
+        // 按文件列表下载
+        File listDir = new File(tempDir, "list");
+        BatchTransferReport listed = hdfsUtil.downloadFiles(
+            Arrays.asList(remoteDir + "/file0.txt", remoteDir + "/sub/file1.txt"), listDir.getPath(), 2);
+        assertTrue(listed.isAllSuccess());
+        assertTrue(new File(listDir, "file0.txt").isFile());
+        assertTrue(new File(listDir, "file1.txt").isFile());
+    }
+    
+    @Test
+    public void testWriteOverwritesExistingFile() throws Exception {
+        String path = new File(tempDir, "overwrite.txt").getAbsolutePath();
+        assertTrue(hdfsUtil.writeFile(path, "旧内容，比新内容更长一些"));
+        
+        // 非原子写入由一次create覆盖，原子写入先写临时文件再重命名覆盖
+        assertTrue(hdfsUtil.writeFile(path, "新内容", (short) 1, false));
+        assertEquals("新内容", hdfsUtil.readFile(path));
+        assertTrue(hdfsUtil.writeFile(path, "原子写入的内容", (short) 1, true));
+        assertEquals("原子写入的内容", hdfsUtil.readFile(path));
+        assertNoTempFiles();
+    }
+    
+    @Test
+    public void testFailedAtomicWriteLeavesNoTempFile() throws Exception {
+        String path = new File(tempDir, "atomic.txt").getAbsolutePath();
+        assertTrue(hdfsUtil.writeFile(path, "原内容"));
+        
+        boolean result = hdfsUtil.writeFile(path, (short) 1, true, out -> {
+            out.write("写了一半".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("模拟写入失败");
+        });
+        assertFalse("写入逻辑抛出异常时应该返回false", result);
+        assertEquals("失败的原子写入不应该影响原文件", "原内容", hdfsUtil.readFile(path));
+        assertNoTempFiles();
+    }
+    
+    @Test
+    public void testCompressedRoundTrip() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("192.168.1.").append(i % 256).append(" - - [10/Oct/2023:13:55:36 +0800] \"GET /index.html HTTP/1.1\" 200 ")
+                   .append(i).append('\n');
+        }
+        String text = content.toString();
+        
+        // 按扩展名写入和读取，读取方法都应该识别出压缩格式
+        for (String extension : new String[] {".gz", ".bz2", ".deflate"}) {
+            String path = new File(tempDir, "access.log" + extension).getAbsolutePath();
+            assertTrue(extension + " 写入应该成功", hdfsUtil.writeFile(path, text));
+            assertTrue(extension + " 文件应该被压缩", new File(path).length() < text.length());
+            assertEquals(extension, text, hdfsUtil.readFile(path));
+            
+            StringBuilder lines = new StringBuilder();
+            assertEquals(1000, hdfsUtil.readLines(path, line -> lines.append(line).append('\n')));
+            assertEquals(extension, text, lines.toString());
+            
+            long[] bytes = {0};
+            assertEquals(1000, hdfsUtil.readLineBytes(path, (line, length) -> bytes[0] += length + 1));
+            assertEquals(extension, text.getBytes(StandardCharsets.UTF_8).length, bytes[0]);
+        }
+        
+        // 按压缩格式名称写入时补全扩展名
+        String base = new File(tempDir, "named").getAbsolutePath();
+        assertTrue(hdfsUtil.writeFile(base, text, (short) 1, false, "bzip2"));
+        assertEquals(text, hdfsUtil.readFile(base + ".bz2"));
+    }
+    
+    @Test
+    public void testUnavailableCodec() throws Exception {
+        // lz4依赖的lz4-java不在类路径上，写入失败且不留下文件
+        String base = new File(tempDir, "unavailable").getAbsolutePath();
+        assertFalse(hdfsUtil.writeFile(base, "内容", (short) 1, false, "lz4"));
+        assertFalse(new File(base + ".lz4").exists());
+        
+        // 读取时借用解压器失败，抛出IOException而不是LinkageError
+        File lz4File = write(new File(tempDir, "existing.lz4"), "并不是lz4数据");
+        IOException e = assertThrows(IOException.class,
+                                     () -> hdfsUtil.openInputStream(lz4File.getAbsolutePath()).close());
+        assertTrue(e.getMessage(), e.getMessage().contains("Lz4Codec"));
+        assertNull(hdfsUtil.readFile(lz4File.getAbsolutePath()));
+    }
+    
+    private void assertNoTempFiles() {
+        for (String name : tempDir.list()) {
+            assertFalse("不应该残留临时文件: " + name, name.contains("._COPYING_"));
+        }
+    }
+    
+    private static File write(File file, String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -9,6 +9,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -105,6 +109,132 @@ public class HDFSUtilTest {
         downloaded.delete();
     }
     
+    @Test
+    public void testReadLines() {
+        String content = "第一行\n第二行\n第三行";
+        hdfsUtil.writeFile(TEST_FILE, content);
+        
+        List<String> lines = new ArrayList<>();
+        long lineCount = hdfsUtil.readLines(TEST_FILE, lines::add);
+        assertEquals("应该读取到3行", 3, lineCount);
+        assertEquals("逐行读取的内容应该与写入的内容一致", Arrays.asList("第一行", "第二行", "第三行"), lines);
+    }
+    
+    @Test
+    public void testReadLinesNonExistentFile() {
+        long lineCount = hdfsUtil.readLines("/user/test/non_existent.txt", line -> { });
+        assertEquals("读取不存在的文件应该返回-1", -1, lineCount);
+    }
+    
+    @Test
+    public void testReadLineBytes() {
+        hdfsUtil.writeFile(TEST_FILE, "第一行\r\n第二行\n\n第四行");
+        
+        List<String> lines = new ArrayList<>();
+        long lineCount = hdfsUtil.readLineBytes(TEST_FILE,
+            (line, length) -> lines.add(new String(line, 0, length, StandardCharsets.UTF_8)));
+        assertEquals("应该读取4行", 4, lineCount);
+        assertEquals(Arrays.asList("第一行", "第二行", "", "第四行"), lines);
+    }
+    
+    @Test
+    public void testReadFileParallel() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            content.append("并行读取测试数据第 ").append(i).append(" 行\n");
+        }
+        hdfsUtil.writeFile(TEST_FILE, content.toString());
+        byte[] expected = content.toString().getBytes("UTF-8");
+        
+        // 有序模式下拼接的数据应该与原文件完全一致
+        java.io.ByteArrayOutputStream ordered = new java.io.ByteArrayOutputStream();
+        long orderedBytes = hdfsUtil.readFileParallel(TEST_FILE, 4, true,
+            (offset, buffer, length) -> ordered.write(buffer, 0, length));
+        assertEquals("有序读取的字节数应该正确", expected.length, orderedBytes);
+        assertArrayEquals("有序读取的内容应该与写入的内容一致", expected, ordered.toByteArray());
+        
+        // 无序模式下按偏移写回也应该得到完整内容
+        byte[] unordered = new byte[expected.length];
+        long unorderedBytes = hdfsUtil.readFileParallel(TEST_FILE, 4, false,
+            (offset, buffer, length) -> System.arraycopy(buffer, 0, unordered, (int) offset, length));
+        assertEquals("无序读取的字节数应该正确", expected.length, unorderedBytes);
+        assertArrayEquals("无序读取的内容应该与写入的内容一致", expected, unordered);
+    }
+    
+    @Test
+    public void testBatchUploadAndDownload() throws Exception {
+        File localDir = new File("batch_local");
+        File downloadDir = new File("batch_downloaded");
+        try {
+            File subDir = new File(localDir, "sub");
+            subDir.mkdirs();
+            for (int i = 0; i < 10; i++) {
+                File file = new File(i % 2 == 0 ? localDir : subDir, "file" + i + ".txt");
+                FileWriter writer = new FileWriter(file);
+                writer.write("批量传输测试文件 " + i);
+                writer.close();
+            }
+            
+            // 并发上传整个目录
+            BatchTransferReport uploadReport = hdfsUtil.uploadDirectory(localDir.getPath(), "/user/test/batch", 4);
+            assertTrue("批量上传应该全部成功", uploadReport.isAllSuccess());
+            assertEquals("应该上传10个文件", 10, uploadReport.getSuccessCount());
+            assertNotNull("子目录中的文件应该存在", hdfsUtil.getFileStatus("/user/test/batch/sub/file1.txt"));
+            
+            // 并发下载整个目录
+            BatchTransferReport downloadReport = hdfsUtil.downloadDirectory("/user/test/batch", downloadDir.getPath(), 4);
+            assertTrue("批量下载应该全部成功", downloadReport.isAllSuccess());
+            assertEquals("应该下载10个文件", 10, downloadReport.getSuccessCount());
+            assertTrue("下载的子目录文件应该存在", new File(downloadDir, "sub/file1.txt").exists());
+            
+            // 不存在的本地文件应该出现在失败列表中
+            BatchTransferReport mixedReport = hdfsUtil.uploadFiles(
+                Arrays.asList(new File(localDir, "file0.txt").getPath(), "non_existent_local.txt"), "/user/test/mixed", 2);
+            assertEquals("应该有1个文件上传成功", 1, mixedReport.getSuccessCount());
+            assertEquals("应该有1个文件上传失败", 1, mixedReport.getFailureCount());
+        } finally {
+            org.apache.hadoop.fs.FileUtil.fullyDelete(localDir);
+            org.apache.hadoop.fs.FileUtil.fullyDelete(downloadDir);
+        }
+    }
+    
+    @Test
+    public void testCloseDoesNotAffectOtherInstances() throws Exception {
+        HDFSUtil another = new HDFSUtil(HDFS_URI);
+        another.writeFile(TEST_FILE, "共享连接测试");
+        another.close();
+        
+        // 另一个实例关闭后，当前实例共享的连接仍然可用
+        assertEquals("关闭其他实例后仍然可以读取文件", "共享连接测试", hdfsUtil.readFile(TEST_FILE));
+    }
+    
+    @Test
+    public void testUploadFileWithReplication() {
+        String hdfsFile = "/user/test/uploaded_replication.txt";
+        
+        boolean uploadResult = hdfsUtil.uploadFile(LOCAL_TEST_FILE, hdfsFile, (short) 2);
+        assertTrue("上传文件应该成功", uploadResult);
+        
+        FileStatus status = hdfsUtil.getFileStatus(hdfsFile);
+        assertNotNull("上传的文件应该存在", status);
+        assertEquals("上传的文件大小应该与本地文件一致", new File(LOCAL_TEST_FILE).length(), status.getLen());
+        assertEquals("副本数应该在创建时生效", 2, status.getReplication());
+    }
+    
+    @Test
+    public void testAtomicWriteOverwritesExistingFile() {
+        hdfsUtil.writeFile(TEST_FILE, "旧内容");
+        
+        boolean writeResult = hdfsUtil.writeFile(TEST_FILE, "新内容", (short) 2, true);
+        assertTrue("原子写入应该成功", writeResult);
+        assertEquals("原子写入应该覆盖已存在的文件", "新内容", hdfsUtil.readFile(TEST_FILE));
+        
+        // 重命名完成后不应该残留临时文件
+        for (FileStatus status : hdfsUtil.listFiles(TEST_DIR)) {
+            assertFalse("不应该残留临时文件", status.getPath().getName().endsWith("._COPYING_"));
+        }
+    }
+    
     @Test
     public void testGetFileStatus() {
         String content = "测试文件状态";
@@ -142,6 +272,47 @@ public class HDFSUtilTest {
         assertNull("删除后读取文件应该返回null", content);
     }
     
+    @Test
+    public void testBatchReplicationDryRunAndApply() {
+        hdfsUtil.createDirectory("/user/test/replication/sub");
+        hdfsUtil.writeFile("/user/test/replication/file1.txt", "0123456789", (short) 1);
+        hdfsUtil.writeFile("/user/test/replication/sub/file2.txt", "0123456789", (short) 1);
+        hdfsUtil.writeFile("/user/test/replication/file3.txt", "0123456789", (short) 2);
+        
+        // 演练模式只统计，不修改副本数
+        ReplicationReport dryRun = hdfsUtil.setBatchReplication("/user/test/replication", (short) 2, true, 4, 0, true);
+        assertEquals("应该扫描3个文件", 3, dryRun.getScannedFiles());
+        assertEquals("应该有2个文件需要修改", 2, dryRun.getChangedFiles());
+        assertEquals("需要新增复制20字节", 20, dryRun.getBytesToReplicate());
+        assertEquals("演练模式不应修改副本数", 1, hdfsUtil.getFileReplication("/user/test/replication/file1.txt"));
+        
+        ReplicationReport report = hdfsUtil.setBatchReplication("/user/test/replication", (short) 2, true, 4, 50, false);
+        assertEquals("应该修改2个文件", 2, report.getChangedFiles());
+        assertEquals("已达到目标副本数的文件应该跳过", 1, report.getUnchangedFiles());
+        assertEquals("子目录中的文件副本数应该被修改", 2, hdfsUtil.getFileReplication("/user/test/replication/sub/file2.txt"));
+    }
+    
+    @Test
+    public void testCompressedWriteAndRead() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("192.168.1.1 - - [10/Oct/2023:13:55:36 +0800] \"GET /index.html HTTP/1.1\" 200 1024\n");
+        }
+        
+        // 扩展名为.gz时自动按gzip压缩写入，读取时自动解压
+        assertTrue("gzip写入应该成功", hdfsUtil.writeFile("/user/test/compressed.log.gz", content.toString()));
+        assertEquals("读取内容应该与原内容一致", content.toString(), hdfsUtil.readFile("/user/test/compressed.log.gz"));
+        FileStatus status = hdfsUtil.getFileStatus("/user/test/compressed.log.gz");
+        assertTrue("压缩后的文件应该更小", status.getLen() < content.length());
+        
+        // 指定压缩格式时自动补全扩展名
+        assertTrue("bzip2写入应该成功", hdfsUtil.writeFile("/user/test/compressed", content.toString(), (short) 1, false, "bzip2"));
+        assertEquals("应该读取到1000行", 1000, hdfsUtil.readLines("/user/test/compressed.bz2", line -> { }));
+        
+        assertFalse("不支持的压缩格式应该写入失败",
+                    hdfsUtil.writeFile("/user/test/compressed", content.toString(), (short) 1, false, "unknown"));
+    }
+    
     @Test
     public void testDeleteNonExistentFile() {
         String nonExistentFile = "/user/test/non_existent.txt";
@@ -0,0 +1,168 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 按字节区间并行逐行读取单元测试
+ * 使用本地文件系统，不依赖HDFS集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class ParallelLineReaderTest {
+    
+    private File tempDir;
+    private FileSystem localFs;
+    
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("parallel-lines").toFile();
+        localFs = FileSystem.getLocal(new Configuration());
+    }
+    
+    @After
+    public void tearDown() {
+        FileUtil.fullyDelete(tempDir);
+    }
+    
+    @Test
+    public void testEveryLineReadExactlyOnce() throws Exception {
+        // 随机长度的行（包括空行和\r\n结尾），区间边界会落在行中间、换行符上和行首
+        Random random = new Random(7);
+        List<String> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder line = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                line.append((char) ('a' + random.nextInt(26)));
+            }
+            line.append('#').append(i);
+            expected.add(line.toString());
+            content.append(line).append(i % 5 == 0 ? "\r\n" : "\n");
+        }
+        Path file = writeFile("lines.txt", content.toString());
+        
+        for (long minSplitSize : new long[]{1, 7, 64, 1000, 1 << 20}) {
+            ParallelLineReader reader = new ParallelLineReader(localFs, 4, 4096, minSplitSize);
+            List<CollectingConsumer> consumers = reader.read(file, CollectingConsumer::new);
+            
+            // 按区间顺序拼接各区间读取到的行，应该与原文件的行完全一致
+            List<String> actual = new ArrayList<>();
+            for (CollectingConsumer consumer : consumers) {
+                actual.addAll(consumer.lines);
+            }
+            assertEquals("区间最小大小为 " + minSplitSize + " 时每一行应该恰好读取一次", expected, actual);
+        }
+    }
+    
+    @Test
+    public void testFileWithoutTrailingNewline() throws Exception {
+        Path file = writeFile("no_newline.txt", "first\nsecond\nthird");
+        List<CollectingConsumer> consumers = new ParallelLineReader(localFs, 3, 4096, 1).read(file, CollectingConsumer::new);
+        
+        List<String> actual = new ArrayList<>();
+        for (CollectingConsumer consumer : consumers) {
+            actual.addAll(consumer.lines);
+        }
+        assertEquals(Arrays.asList("first", "second", "third"), actual);
+    }
+    
+    @Test
+    public void testEmptyFile() throws Exception {
+        Path file = writeFile("empty.txt", "");
+        List<CollectingConsumer> consumers = new ParallelLineReader(localFs, 4, 4096).read(file, CollectingConsumer::new);
+        assertEquals("空文件应该返回一个消费者", 1, consumers.size());
+        assertTrue("空文件不应该读取到任何行", consumers.get(0).lines.isEmpty());
+    }
+    
+    @Test
+    public void testReadRangeStopsAtLastCompleteLine() throws Exception {
+        // 模拟正在追加的日志：最后一行只写了一半
+        Path file = writeFile("tail.log", "old-1\nold-2\nnew-1\nnew-2\nnew-3\npartial");
+        long start = "old-1\nold-2\n".length();
+        ParallelLineReader reader = new ParallelLineReader(localFs, 3, 4096, 1);
+        
+        long end = reader.findLastLineEnd(file, start, localFs.getFileStatus(file).getLen());
+        assertEquals("应该停在最后一个换行符之后", "old-1\nold-2\nnew-1\nnew-2\nnew-3\n".length(), end);
+        assertEquals("范围内没有换行符时返回起始偏移", end, reader.findLastLineEnd(file, end, end + "partial".length()));
+        
+        List<String> actual = new ArrayList<>();
+        for (CollectingConsumer consumer : reader.read(file, start, end, CollectingConsumer::new)) {
+            actual.addAll(consumer.lines);
+        }
+        assertEquals("起始偏移处的行不应该被当作半行跳过", Arrays.asList("new-1", "new-2", "new-3"), actual);
+    }
+    
+    @Test
+    public void testSplitsCappedByBlockSize() {
+        ParallelLineReader reader = new ParallelLineReader(localFs, 2, 4096, 10);
+        List<long[]> splits = reader.computeSplits(1000, 100);
+        assertEquals("区间大小不应超过块大小", 10, splits.size());
+        assertEquals(0, splits.get(0)[0]);
+        assertEquals(1000, splits.get(splits.size() - 1)[1]);
+    }
+    
+    @Test
+    public void testReadFilesSharesWorkers() throws Exception {
+        List<String> expected = new ArrayList<>();
+        List<FileStatus> files = new ArrayList<>();
+        for (int f = 0; f < 5; f++) {
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 100 * (f + 1); i++) {
+                String line = "file" + f + "-line" + i;
+                expected.add(line);
+                content.append(line).append('\n');
+            }
+            files.add(localFs.getFileStatus(writeFile("part-" + f + ".txt", content.toString())));
+        }
+        files.add(localFs.getFileStatus(writeFile("empty.txt", "")));
+        
+        // 偶数编号的文件按区间切分，其余文件整体读取
+        ParallelLineReader reader = new ParallelLineReader(localFs, 3, 4096, 64);
+        List<CollectingConsumer> consumers = reader.readFiles(files,
+            path -> path.getName().matches("part-[024].txt"), path -> localFs.open(path), CollectingConsumer::new);
+        
+        assertEquals("每个工作线程一个消费者", 3, consumers.size());
+        List<String> actual = new ArrayList<>();
+        for (CollectingConsumer consumer : consumers) {
+            actual.addAll(consumer.lines);
+        }
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals("所有文件的每一行应该恰好读取一次", expected, actual);
+    }
+    
+    private Path writeFile(String name, String content) throws Exception {
+        File file = new File(tempDir, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return new Path(file.toURI());
+    }
+    
+    private static class CollectingConsumer implements HDFSUtil.ByteLineConsumer {
+        final List<String> lines = new ArrayList<>();
+        
+        @Override
+        public void accept(byte[] line, int length) {
+            lines.add(new String(line, 0, length, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 随机访问读取器单元测试
+ * 使用本地文件系统，不依赖HDFS集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class RangeReaderTest {
+    
+    private File dataFile;
+    private byte[] data;
+    private FileSystem localFs;
+    
+    @Before
+    public void setUp() throws Exception {
+        data = new byte[1024 * 1024];
+        new Random(42).nextBytes(data);
+        dataFile = File.createTempFile("range_reader", ".bin");
+        try (FileOutputStream out = new FileOutputStream(dataFile)) {
+            out.write(data);
+        }
+        localFs = FileSystem.getLocal(new Configuration());
+    }
+    
+    @After
+    public void tearDown() {
+        dataFile.delete();
+    }
+    
+    @Test
+    public void testCoalesceNearbyRanges() {
+        List<ByteRange> ranges = Arrays.asList(
+            new ByteRange(1000, 10),
+            new ByteRange(0, 100),
+            new ByteRange(150, 50),
+            new ByteRange(500000, 20));
+        
+        List<RangeReader.RangeGroup> groups = RangeReader.coalesce(ranges, 100, 1024);
+        assertEquals("间隔较小的区间应该合并，远处的区间单独读取", 3, groups.size());
+        assertEquals("第一组应该覆盖[0, 200)", 0, groups.get(0).start);
+        assertEquals("第一组应该覆盖[0, 200)", 200, groups.get(0).end);
+        assertEquals("第一组应该包含两个区间", Arrays.asList(1, 2), groups.get(0).members);
+    }
+    
+    @Test
+    public void testCoalesceRespectsMaxMergedSize() {
+        List<ByteRange> ranges = Arrays.asList(new ByteRange(0, 600), new ByteRange(600, 600));
+        
+        List<RangeReader.RangeGroup> groups = RangeReader.coalesce(ranges, 100, 1000);
+        assertEquals("超过最大合并长度时不应该合并", 2, groups.size());
+    }
+    
+    @Test
+    public void testReadRanges() throws Exception {
+        List<ByteRange> ranges = Arrays.asList(
+            new ByteRange(900000, 4096),
+            new ByteRange(0, 16),
+            new ByteRange(20, 16),
+            new ByteRange(10, 30),
+            new ByteRange(512 * 1024, 0),
+            new ByteRange(data.length - 8, 8));
+        
+        try (RangeReader reader = new RangeReader(localFs.open(new Path(dataFile.toURI())), 4)) {
+            List<byte[]> results = reader.readRanges(ranges);
+            assertEquals("结果数量应该与区间数量一致", ranges.size(), results.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                ByteRange range = ranges.get(i);
+                byte[] expected = Arrays.copyOfRange(data, (int) range.getOffset(), (int) range.getEnd());
+                assertArrayEquals("区间 " + range + " 的内容应该正确", expected, results.get(i));
+            }
+        }
+    }
+    
+    @Test
+    public void testRepeatedRangeResultsAreIndependent() throws Exception {
+        List<ByteRange> ranges = Arrays.asList(new ByteRange(100, 64), new ByteRange(100, 64));
+        
+        try (RangeReader reader = new RangeReader(localFs.open(new Path(dataFile.toURI())), 2)) {
+            List<byte[]> results = reader.readRanges(ranges);
+            assertNotSame("相同区间的结果不应该共享同一个数组", results.get(0), results.get(1));
+            results.get(0)[0]++;
+            assertEquals("修改一个结果不应该影响另一个结果", data[100], results.get(1)[0]);
+        }
+    }
+    
+    @Test(expected = EOFException.class)
+    public void testReadRangeBeyondEndOfFile() throws Exception {
+        try (RangeReader reader = new RangeReader(localFs.open(new Path(dataFile.toURI())), 2)) {
+            reader.readRanges(Arrays.asList(new ByteRange(0, 10), new ByteRange(data.length - 4, 8)));
+        }
+    }
+}
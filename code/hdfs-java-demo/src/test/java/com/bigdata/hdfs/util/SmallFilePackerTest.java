@@ -0,0 +1,158 @@
+package com.bigdata.hdfs.util;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 小文件打包器单元测试
+ * 使用本地文件系统，不依赖HDFS集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class SmallFilePackerTest {
+    
+    private File tempDir;
+    private FileSystem localFs;
+    private Path containerDir;
+    
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("packer").toFile();
+        localFs = FileSystem.getLocal(new Configuration());
+        containerDir = new Path(tempDir.toURI().toString(), "packed");
+    }
+    
+    @After
+    public void tearDown() {
+        FileUtil.fullyDelete(tempDir);
+    }
+    
+    @Test
+    public void testPackAndReadEntries() throws Exception {
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, containerDir, (short) 1, 100)) {
+            for (int i = 0; i < 20; i++) {
+                packer.add("/small/file" + i + ".txt", "内容 " + i);
+            }
+            packer.add("/small/large.txt", new byte[500]);
+            assertEquals("应该打包21个条目", 21, packer.getEntryCount());
+        }
+        
+        // 容器大小上限为100字节，应该切分为多个容器文件
+        FileStatus[] parts = localFs.globStatus(new Path(containerDir, "part-*.pack"));
+        assertTrue("应该生成多个容器文件", parts.length > 1);
+        
+        try (PackedFileReader reader = PackedFileReader.open(localFs, containerDir)) {
+            assertEquals("索引应该包含21个条目", 21, reader.getNames().size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals("条目内容应该正确", "内容 " + i,
+                    new String(reader.read("/small/file" + i + ".txt"), StandardCharsets.UTF_8));
+            }
+            assertEquals("超过容器大小的条目应该完整保存", 500, reader.read("/small/large.txt").length);
+        }
+    }
+    
+    @Test
+    public void testContainersAreLineSeparated() throws Exception {
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, containerDir, (short) 1)) {
+            packer.add("a.txt", "hello world");
+            packer.add("b.txt", "hello hadoop");
+        }
+        
+        // 按行读取容器文件时，每个条目应该是独立的行
+        List<String> lines = Files.readAllLines(new File(new File(tempDir, "packed"), "part-00000.pack").toPath());
+        assertEquals("每个条目之后应该有换行分隔", 2, lines.size());
+        assertEquals("hello world", lines.get(0));
+        assertEquals("hello hadoop", lines.get(1));
+    }
+    
+    @Test
+    public void testDuplicateNameIsRejected() throws Exception {
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, containerDir, (short) 1)) {
+            packer.add("a.txt", "hello world");
+            try {
+                packer.add("a.txt", "hello again");
+                fail("重复的条目名称应该抛出IOException");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("a.txt"));
+            }
+            packer.add("b.txt", "hello hadoop");
+            assertEquals(2, packer.getEntryCount());
+        }
+        
+        // 被拒绝的条目不应该写入容器文件
+        List<String> lines = Files.readAllLines(new File(new File(tempDir, "packed"), "part-00000.pack").toPath());
+        assertEquals(2, lines.size());
+        assertEquals("hello hadoop", lines.get(1));
+        try (PackedFileReader reader = PackedFileReader.open(localFs, containerDir)) {
+            assertEquals("hello world", new String(reader.read("a.txt"), StandardCharsets.UTF_8));
+        }
+    }
+    
+    @Test
+    public void testRepackReplacesPreviousContainers() throws Exception {
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, containerDir, (short) 1, 100)) {
+            for (int i = 0; i < 20; i++) {
+                packer.add("/first/file" + i + ".txt", "第一次打包 " + i);
+            }
+        }
+        assertTrue("第一次打包应该生成多个容器文件",
+            localFs.globStatus(new Path(containerDir, "part-*.pack")).length > 1);
+        
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, containerDir, (short) 1, 100)) {
+            packer.add("/second/a.txt", "第二次打包");
+        }
+        
+        // 只保留第二次打包的容器文件和条目，临时目录已经被重命名
+        FileStatus[] parts = localFs.globStatus(new Path(containerDir, "part-*.pack"));
+        assertEquals("上一次编号更大的容器文件不应该残留", 1, parts.length);
+        List<String> lines = Files.readAllLines(new File(new File(tempDir, "packed"), "part-00000.pack").toPath());
+        assertEquals(Arrays.asList("第二次打包"), lines);
+        assertEquals("不应该残留临时目录", 1, tempDir.list().length);
+        try (PackedFileReader reader = PackedFileReader.open(localFs, containerDir)) {
+            assertEquals(1, reader.getNames().size());
+            assertFalse(reader.contains("/first/file0.txt"));
+            assertEquals("第二次打包", new String(reader.read("/second/a.txt"), StandardCharsets.UTF_8));
+        }
+    }
+    
+    @Test
+    public void testRefuseDirectoryWithOtherFiles() throws Exception {
+        File dir = new File(tempDir, "packed");
+        assertTrue(dir.mkdirs());
+        Files.write(new File(dir, "data.txt").toPath(), "其他数据".getBytes(StandardCharsets.UTF_8));
+        try {
+            new SmallFilePacker(localFs, containerDir, (short) 1).close();
+            fail("包含非打包文件的目录应该拒绝覆盖");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("data.txt"));
+        }
+        assertTrue("已存在的数据不应该被删除", new File(dir, "data.txt").isFile());
+    }
+    
+    @Test(expected = FileNotFoundException.class)
+    public void testReadMissingEntry() throws Exception {
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, containerDir, (short) 1)) {
+            packer.add("a.txt", "hello");
+        }
+        try (PackedFileReader reader = PackedFileReader.open(localFs, containerDir)) {
+            reader.read("missing.txt");
+        }
+    }
+}
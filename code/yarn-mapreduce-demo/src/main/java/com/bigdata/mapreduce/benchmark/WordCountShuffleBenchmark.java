@@ -0,0 +1,224 @@
+package com.bigdata.mapreduce.benchmark;
+
+import com.bigdata.mapreduce.wordcount.WordCountDriver;
+import com.bigdata.mapreduce.wordcount.WordKey;
+import com.bigdata.mapreduce.wordcount.WordTokenizer;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.RawComparator;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.mapreduce.lib.reduce.IntSumReducer;
+import org.apache.hadoop.util.IndexedSortable;
+import org.apache.hadoop.util.QuickSort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * WordCount Shuffle性能对比测试
+ * 对比原来的Text + IntWritable与WordKey + VIntWritable两种Map输出类型：
+ * <ul>
+ *   <li>Map端排序：把语料中的单词序列化后用与MapTask相同的QuickSort和注册的原始比较器排序，统计排序耗时</li>
+ *   <li>Shuffle数据量：用LocalJobRunner分别运行两种类型的作业（关闭Map内合并，突出每条记录的开销），
+ *       输出Map输出字节数、落盘字节数（MAP_OUTPUT_MATERIALIZED_BYTES）和作业耗时</li>
+ * </ul>
+ * 
+ * 用法: WordCountShuffleBenchmark [行数] [轮数]
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordCountShuffleBenchmark {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WordCountShuffleBenchmark.class);
+    
+    public static void main(String[] args) throws Exception {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        Text[] lines = WordCountMapperBenchmark.generateCorpus(lineCount);
+        logger.info("=== WordCount Shuffle性能对比测试: {} 行, {} 轮 ===", lineCount, rounds);
+        
+        compareSort(lines, rounds);
+        
+        File tempDir = Files.createTempDirectory("word-count-shuffle-benchmark").toFile();
+        try {
+            File input = new File(tempDir, "input");
+            if (!input.mkdirs()) {
+                throw new IOException("无法创建目录: " + input);
+            }
+            try (OutputStream out = Files.newOutputStream(new File(input, "corpus.txt").toPath())) {
+                for (Text line : lines) {
+                    out.write(line.getBytes(), 0, line.getLength());
+                    out.write('\n');
+                }
+            }
+            runJob("Text + IntWritable", baselineJob(localConf(), input, new File(tempDir, "baseline")));
+            Configuration conf = localConf();
+            conf.setBoolean(WordCountDriver.IN_MAPPER_COMBINE_KEY, false);
+            runJob("WordKey + VIntWritable", WordCountDriver.createJob(conf, input.getAbsolutePath(),
+                                                                       new File(tempDir, "wordkey").getAbsolutePath()));
+            runJob("WordKey + VIntWritable + Map内合并", WordCountDriver.createJob(localConf(), input.getAbsolutePath(),
+                                                                              new File(tempDir, "combined").getAbsolutePath()));
+        } finally {
+            FileUtil.fullyDelete(tempDir);
+        }
+    }
+    
+    /**
+     * 序列化语料中的所有单词，分别用两种键的原始比较器排序
+     */
+    private static void compareSort(Text[] lines, int rounds) throws IOException {
+        WordTokenizer tokenizer = new WordTokenizer();
+        Text text = new Text();
+        WordKey wordKey = new WordKey();
+        SerializedKeys textKeys = new SerializedKeys(WritableComparator.get(Text.class));
+        SerializedKeys wordKeys = new SerializedKeys(WritableComparator.get(WordKey.class));
+        for (Text line : lines) {
+            tokenizer.reset(line);
+            while (tokenizer.next()) {
+                text.set(tokenizer.getBytes(), 0, tokenizer.getLength());
+                textKeys.add(text);
+                wordKey.set(tokenizer.getBytes(), 0, tokenizer.getLength());
+                wordKeys.add(wordKey);
+            }
+        }
+        logger.info(String.format("序列化后每条记录的字节数（键 + 计数为1的值）: Text + IntWritable %.2f, WordKey + VIntWritable %.2f",
+            (double) textKeys.buffer.getLength() / textKeys.size + 4, (double) wordKeys.buffer.getLength() / wordKeys.size + 1));
+        
+        // 预热
+        textKeys.sort();
+        wordKeys.sort();
+        long textNanos = 0;
+        long wordKeyNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            textNanos += textKeys.sort();
+            wordKeyNanos += wordKeys.sort();
+        }
+        logger.info(String.format("Map端排序 %d 条记录: Text %.1f ms, WordKey %.1f ms, 加速比 %.2fx",
+            textKeys.size, textNanos / 1e6 / rounds, wordKeyNanos / 1e6 / rounds, (double) textNanos / wordKeyNanos));
+    }
+    
+    private static void runJob(String name, Job job) throws Exception {
+        long start = System.nanoTime();
+        if (!job.waitForCompletion(false)) {
+            logger.error("{} 作业失败", name);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Counters counters = job.getCounters();
+        logger.info(String.format("%s: 作业 %.1f 秒, Map输出 %d 条 / %d 字节, 落盘 %d 字节, 溢写记录 %d",
+            name, seconds,
+            counters.findCounter(TaskCounter.MAP_OUTPUT_RECORDS).getValue(),
+            counters.findCounter(TaskCounter.MAP_OUTPUT_BYTES).getValue(),
+            counters.findCounter(TaskCounter.MAP_OUTPUT_MATERIALIZED_BYTES).getValue(),
+            counters.findCounter(TaskCounter.SPILLED_RECORDS).getValue()));
+    }
+    
+    private static Configuration localConf() {
+        Configuration conf = new Configuration();
+        conf.set("fs.defaultFS", "file:///");
+        conf.set("mapreduce.framework.name", "local");
+        return conf;
+    }
+    
+    /**
+     * 原来的作业类型：Text + IntWritable，分词方式相同，Combiner与Reducer为IntSumReducer
+     */
+    private static Job baselineJob(Configuration conf, File input, File output) throws IOException {
+        Job job = WordCountDriver.createJob(conf, input.getAbsolutePath(), output.getAbsolutePath());
+        job.setMapperClass(BaselineMapper.class);
+        job.setCombinerClass(IntSumReducer.class);
+        job.setReducerClass(IntSumReducer.class);
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(IntWritable.class);
+        return job;
+    }
+    
+    public static class BaselineMapper extends Mapper<LongWritable, Text, Text, IntWritable> {
+        
+        private static final IntWritable ONE = new IntWritable(1);
+        private final WordTokenizer tokenizer = new WordTokenizer();
+        private final Text word = new Text();
+        
+        @Override
+        protected void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+            tokenizer.reset(value);
+            while (tokenizer.next(word)) {
+                context.write(word, ONE);
+            }
+        }
+    }
+    
+    /**
+     * 连续存放的序列化键，按偏移数组排序，与MapTask的排序缓冲区相同
+     */
+    private static class SerializedKeys implements IndexedSortable {
+        
+        private final RawComparator<?> comparator;
+        private final DataOutputBuffer buffer = new DataOutputBuffer();
+        private int[] offsets = new int[1024];
+        private int[] lengths = new int[1024];
+        private int[] order;
+        private int size;
+        
+        SerializedKeys(RawComparator<?> comparator) {
+            this.comparator = comparator;
+        }
+        
+        void add(Writable key) throws IOException {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            int start = buffer.getLength();
+            key.write(buffer);
+            offsets[size] = start;
+            lengths[size] = buffer.getLength() - start;
+            size++;
+        }
+        
+        /**
+         * 从输入顺序开始排序一次
+         * 
+         * @return 耗时（纳秒）
+         */
+        long sort() {
+            order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            long start = System.nanoTime();
+            new QuickSort().sort(this, 0, size);
+            return System.nanoTime() - start;
+        }
+        
+        @Override
+        public int compare(int i, int j) {
+            int a = order[i];
+            int b = order[j];
+            return comparator.compare(buffer.getData(), offsets[a], lengths[a], buffer.getData(), offsets[b], lengths[b]);
+        }
+        
+        @Override
+        public void swap(int i, int j) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.bigdata.mapreduce.loganalysis;
+
+import com.bigdata.config.HadoopConfigManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.util.GenericOptionsParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 日志分析 Driver类
+ * 与hdfs-java-demo中LogAnalyzer相同的统计（总请求数、响应字节数、IP排行、不同IP数、状态码分布），
+ * 以MapReduce作业的方式在集群上并行执行，适合单机无法在可接受时间内处理的日志量。
+ * 
+ * 作业输出每行一个 维度\t取值\t请求数\t响应字节数，作业完成后由writeReport汇总为与LogAnalyzer相同格式的报告。
+ * 汇总时只保留Top-N的小顶堆，不会把所有IP读入内存
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogAnalysisDriver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogAnalysisDriver.class);
+    
+    /**
+     * Reduce任务数配置项，通过 -D loganalysis.reduce.tasks=N 设置
+     */
+    public static final String REDUCE_TASKS_KEY = "loganalysis.reduce.tasks";
+    public static final int DEFAULT_REDUCE_TASKS = 4;
+    
+    /**
+     * 报告中IP排行的条数，通过 -D loganalysis.top.ips=N 设置
+     */
+    public static final String TOP_IPS_KEY = "loganalysis.top.ips";
+    public static final int DEFAULT_TOP_IPS = 10;
+    
+    // 报告文件名，以下划线开头，后续作业以该目录为输入时会被FileInputFormat忽略
+    static final String REPORT_FILE_NAME = "_log_analysis_report.txt";
+    
+    /**
+     * 主方法：程序入口
+     * 
+     * @param args 命令行参数 [输入路径] [输出路径]
+     * @throws Exception 异常
+     */
+    public static void main(String[] args) throws Exception {
+        
+        Configuration conf = new Configuration();
+        String[] otherArgs = new GenericOptionsParser(conf, args).getRemainingArgs();
+        
+        if (otherArgs.length != 2) {
+            System.err.println("Usage: LogAnalysisDriver [-D loganalysis.reduce.tasks=N] <input path> <output path>");
+            System.err.println("Example: LogAnalysisDriver /user/bigdata/logs /output/loganalysis");
+            System.exit(2);
+        }
+        
+        String inputPath = otherArgs[0];
+        String outputPath = otherArgs[1];
+        
+        logger.info("Starting LogAnalysis job with input: {} and output: {}", inputPath, outputPath);
+        
+        // 设置YARN相关配置
+        configureYarn(conf);
+        
+        boolean success = runLogAnalysisJob(conf, inputPath, outputPath);
+        
+        System.exit(success ? 0 : 1);
+    }
+    
+    /**
+     * 运行日志分析作业并生成报告
+     * 使用传入配置中的fs.defaultFS和mapreduce.framework.name，不修改集群配置，
+     * 设置mapreduce.framework.name=local即可用LocalJobRunner在本地运行
+     * 
+     * @param conf 配置对象
+     * @param inputPath 输入路径（文件、目录或通配符）
+     * @param outputPath 输出路径，已存在时会被删除
+     * @return 作业和报告是否都成功
+     * @throws Exception 异常
+     */
+    public static boolean runLogAnalysisJob(Configuration conf, String inputPath, String outputPath)
+            throws Exception {
+        
+        Job job = createJob(conf, inputPath, outputPath);
+        
+        logger.info("Submitting LogAnalysis job...");
+        boolean success = job.waitForCompletion(true);
+        
+        if (!success) {
+            logger.error("LogAnalysis job failed!");
+            return false;
+        }
+        
+        logger.info("LogAnalysis job completed successfully!");
+        printJobStatistics(job);
+        
+        Path reportPath = new Path(outputPath, REPORT_FILE_NAME);
+        return writeReport(conf, new Path(outputPath), reportPath,
+                           conf.getInt(TOP_IPS_KEY, DEFAULT_TOP_IPS));
+    }
+    
+    /**
+     * 创建日志分析作业
+     * 
+     * @param conf 配置对象
+     * @param inputPath 输入路径
+     * @param outputPath 输出路径，已存在时会被删除
+     * @return 尚未提交的作业
+     * @throws IOException IO异常
+     */
+    public static Job createJob(Configuration conf, String inputPath, String outputPath) throws IOException {
+        Job job = Job.getInstance(conf, "log analysis");
+        job.setJarByClass(LogAnalysisDriver.class);
+        
+        // Reducer只做求和，输入输出类型相同，直接用作Combiner
+        job.setMapperClass(LogAnalysisMapper.class);
+        job.setCombinerClass(LogAnalysisReducer.class);
+        job.setReducerClass(LogAnalysisReducer.class);
+        
+        job.setMapOutputKeyClass(Text.class);
+        job.setMapOutputValueClass(LogMetricsWritable.class);
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(LogMetricsWritable.class);
+        
+        job.setInputFormatClass(TextInputFormat.class);
+        job.setOutputFormatClass(TextOutputFormat.class);
+        
+        FileInputFormat.addInputPath(job, new Path(inputPath));
+        
+        // 检查并删除已存在的输出目录
+        Path outputDir = new Path(outputPath);
+        FileSystem fs = outputDir.getFileSystem(conf);
+        if (fs.exists(outputDir)) {
+            logger.info("Output directory {} already exists, deleting it...", outputPath);
+            fs.delete(outputDir, true);
+        }
+        FileOutputFormat.setOutputPath(job, outputDir);
+        
+        job.setNumReduceTasks(conf.getInt(REDUCE_TASKS_KEY, DEFAULT_REDUCE_TASKS));
+        return job;
+    }
+    
+    /**
+     * 汇总作业输出并写入报告
+     * 报告格式与LogAnalyzer.saveAnalysisResult相同
+     * 
+     * @param conf 配置对象
+     * @param outputDir 作业输出目录
+     * @param reportPath 报告文件路径
+     * @param topN IP排行条数
+     * @return 是否成功
+     */
+    public static boolean writeReport(Configuration conf, Path outputDir, Path reportPath, int topN) {
+        try {
+            FileSystem fs = outputDir.getFileSystem(conf);
+            
+            long totalRequests = 0;
+            long totalBytes = 0;
+            long distinctIps = 0;
+            Map<String, Long> statusCount = new HashMap<>();
+            PriorityQueue<Map.Entry<String, Long>> topIps =
+                new PriorityQueue<>(topN + 1, Map.Entry.comparingByValue());
+            
+            for (FileStatus status : fs.globStatus(new Path(outputDir, "part-r-*"))) {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(fs.open(status.getPath()), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String[] fields = line.split("\t");
+                        if (fields.length != 4) {
+                            continue;
+                        }
+                        long requests = Long.parseLong(fields[2]);
+                        switch (fields[0]) {
+                            case LogAnalysisMapper.DIMENSION_TOTAL:
+                                totalRequests += requests;
+                                totalBytes += Long.parseLong(fields[3]);
+                                break;
+                            case LogAnalysisMapper.DIMENSION_IP:
+                                distinctIps++;
+                                if (topIps.size() < topN || requests > topIps.peek().getValue()) {
+                                    topIps.offer(new AbstractMap.SimpleImmutableEntry<>(fields[1], requests));
+                                    if (topIps.size() > topN) {
+                                        topIps.poll();
+                                    }
+                                }
+                                break;
+                            case LogAnalysisMapper.DIMENSION_STATUS:
+                                statusCount.merge(fields[1], requests, Long::sum);
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                }
+            }
+            
+            List<Map.Entry<String, Long>> sortedIps = new ArrayList<>(topIps);
+            sortedIps.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            
+            StringBuilder result = new StringBuilder();
+            result.append("=== 日志分析报告 ===\n");
+            result.append("分析时间: ").append(new Date()).append("\n\n");
+            
+            result.append("总体统计:\n");
+            result.append("总请求数: ").append(totalRequests).append("\n");
+            result.append("总响应字节数: ").append(totalBytes).append("\n");
+            result.append("平均响应大小: ").append(totalRequests > 0 ? totalBytes / totalRequests : 0).append(" 字节\n");
+            result.append("不同IP数: ").append(distinctIps).append("\n\n");
+            
+            result.append("IP访问排行:\n");
+            sortedIps.forEach(entry -> result.append(entry.getKey()).append(": ").append(entry.getValue()).append(" 次\n"));
+            
+            result.append("\n状态码统计:\n");
+            statusCount.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> result.append(entry.getKey()).append(": ").append(entry.getValue()).append(" 次\n"));
+            
+            try (FSDataOutputStream out = fs.create(reportPath, true)) {
+                out.write(result.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            logger.info("分析结果已保存到: {}", reportPath);
+            return true;
+            
+        } catch (Exception e) {
+            logger.error("保存分析结果异常", e);
+            return false;
+        }
+    }
+    
+    /**
+     * 配置YARN相关参数
+     * 使用配置管理器从配置文件中读取配置
+     * 
+     * @param conf 配置对象
+     */
+    private static void configureYarn(Configuration conf) {
+        logger.info("开始配置YARN环境...");
+        
+        HadoopConfigManager.configureHadoop(conf);
+        
+        if (HadoopConfigManager.isDevelopmentEnvironment()) {
+            HadoopConfigManager.printConfiguration();
+        }
+        
+        logger.info("YARN配置完成");
+    }
+    
+    /**
+     * 打印作业统计信息
+     * Combine输出记录数远小于Map输出记录数说明Combiner在Map端有效合并了重复的IP和状态码
+     * 
+     * @param job 作业对象
+     * @throws Exception 异常
+     */
+    private static void printJobStatistics(Job job) throws Exception {
+        Counters counters = job.getCounters();
+        
+        logger.info("=== Job Statistics ===");
+        logger.info("Job ID: {}", job.getJobID());
+        
+        if (counters != null) {
+            logger.info("Map Input Records: {}", counters.findCounter(TaskCounter.MAP_INPUT_RECORDS).getValue());
+            logger.info("Map Output Records: {}", counters.findCounter(TaskCounter.MAP_OUTPUT_RECORDS).getValue());
+            logger.info("Combine Output Records: {}", counters.findCounter(TaskCounter.COMBINE_OUTPUT_RECORDS).getValue());
+            logger.info("Reduce Input Records: {}", counters.findCounter(TaskCounter.REDUCE_INPUT_RECORDS).getValue());
+            logger.info("Map Output Materialized Bytes: {}",
+                        counters.findCounter(TaskCounter.MAP_OUTPUT_MATERIALIZED_BYTES).getValue());
+            logger.info("Malformed Lines: {}",
+                        counters.findCounter(LogAnalysisMapper.LogAnalysisCounter.MALFORMED_LINES).getValue());
+            logger.info("Fallback Lines: {}",
+                        counters.findCounter(LogAnalysisMapper.LogAnalysisCounter.FALLBACK_LINES).getValue());
+        }
+        
+        logger.info("=== End of Statistics ===");
+    }
+}
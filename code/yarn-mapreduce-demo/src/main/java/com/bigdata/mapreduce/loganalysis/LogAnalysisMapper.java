@@ -0,0 +1,116 @@
+package com.bigdata.mapreduce.loganalysis;
+
+import com.bigdata.hdfs.project.ApacheLogParser;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 日志分析Mapper类
+ * 直接在输入行的字节上解析访问日志，每行输出 <维度\t取值, (1, 响应字节数)>，
+ * 维度包括总计（total）、客户端IP（ip）、状态码（status）和请求方法（method）。
+ * 输出键在复用的Text中按字节拼接，解析和输出过程不创建字符串
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogAnalysisMapper extends Mapper<LongWritable, Text, Text, LogMetricsWritable> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogAnalysisMapper.class);
+    
+    // 输出键的维度前缀
+    static final String DIMENSION_TOTAL = "total";
+    static final String DIMENSION_IP = "ip";
+    static final String DIMENSION_STATUS = "status";
+    static final String DIMENSION_METHOD = "method";
+    
+    private static final byte[] IP_PREFIX = (DIMENSION_IP + "\t").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STATUS_PREFIX = (DIMENSION_STATUS + "\t").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] METHOD_PREFIX = (DIMENSION_METHOD + "\t").getBytes(StandardCharsets.UTF_8);
+    
+    /**
+     * 日志分析计数器
+     */
+    public enum LogAnalysisCounter {
+        // 无法解析的行
+        MALFORMED_LINES,
+        // 通过正则回退路径解析的格式不规范的行
+        FALLBACK_LINES
+    }
+    
+    private final ApacheLogParser parser = new ApacheLogParser();
+    private final Text totalKey = new Text(DIMENSION_TOTAL + "\tall");
+    private final Text outputKey = new Text();
+    private final LogMetricsWritable metrics = new LogMetricsWritable();
+    private final byte[] statusDigits = new byte[3];
+    
+    /**
+     * Map方法：解析一行日志并按维度输出指标
+     * 
+     * @param key 输入键（行偏移量）
+     * @param value 输入值（一行日志）
+     * @param context 上下文对象，用于输出结果
+     * @throws IOException IO异常
+     * @throws InterruptedException 中断异常
+     */
+    @Override
+    public void map(LongWritable key, Text value, Context context)
+            throws IOException, InterruptedException {
+        
+        long fallbackBefore = parser.getFallbackCount();
+        if (!parser.parse(value.getBytes(), 0, value.getLength())) {
+            context.getCounter(LogAnalysisCounter.MALFORMED_LINES).increment(1);
+            return;
+        }
+        if (parser.getFallbackCount() != fallbackBefore) {
+            context.getCounter(LogAnalysisCounter.FALLBACK_LINES).increment(1);
+        }
+        
+        metrics.set(1, parser.getResponseSize());
+        byte[] buffer = parser.getBuffer();
+        
+        context.write(totalKey, metrics);
+        
+        writeDimension(context, IP_PREFIX, buffer, parser.getIpStart(), parser.getIpEnd());
+        
+        int status = parser.getStatus();
+        statusDigits[0] = (byte) ('0' + status / 100);
+        statusDigits[1] = (byte) ('0' + status / 10 % 10);
+        statusDigits[2] = (byte) ('0' + status % 10);
+        writeDimension(context, STATUS_PREFIX, statusDigits, 0, statusDigits.length);
+        
+        writeDimension(context, METHOD_PREFIX, buffer, parser.getMethodStart(), parser.getMethodEnd());
+    }
+    
+    private void writeDimension(Context context, byte[] prefix, byte[] buffer, int start, int end)
+            throws IOException, InterruptedException {
+        outputKey.clear();
+        outputKey.append(prefix, 0, prefix.length);
+        outputKey.append(buffer, start, end - start);
+        context.write(outputKey, metrics);
+    }
+    
+    /**
+     * setup方法：在Map任务开始前调用
+     */
+    @Override
+    protected void setup(Context context) throws IOException, InterruptedException {
+        super.setup(context);
+        logger.info("LogAnalysisMapper started for task: {}", context.getTaskAttemptID());
+    }
+    
+    /**
+     * cleanup方法：在Map任务结束后调用
+     */
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        super.cleanup(context);
+        logger.info("LogAnalysisMapper completed for task: {}, fallback lines: {}",
+                   context.getTaskAttemptID(), parser.getFallbackCount());
+    }
+}
@@ -0,0 +1,48 @@
+package com.bigdata.mapreduce.loganalysis;
+
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * 日志分析Reducer类
+ * 汇总同一维度取值的请求数和响应字节数。输入输出类型相同，同时用作Combiner，
+ * 在Map端先把同一分片内重复的IP、状态码和请求方法合并为一条记录
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogAnalysisReducer extends Reducer<Text, LogMetricsWritable, Text, LogMetricsWritable> {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogAnalysisReducer.class);
+    
+    // 可重用的输出对象
+    private final LogMetricsWritable result = new LogMetricsWritable();
+    
+    /**
+     * Reduce方法：汇总相同键的所有指标
+     * 
+     * @param key 输入键（维度\t取值）
+     * @param values 输入值列表（该取值的所有指标）
+     * @param context 上下文对象，用于输出结果
+     * @throws IOException IO异常
+     * @throws InterruptedException 中断异常
+     */
+    @Override
+    public void reduce(Text key, Iterable<LogMetricsWritable> values, Context context)
+            throws IOException, InterruptedException {
+        
+        result.set(0, 0);
+        for (LogMetricsWritable value : values) {
+            result.add(value);
+        }
+        context.write(key, result);
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("Reduced key: {} -> {}", key, result);
+        }
+    }
+}
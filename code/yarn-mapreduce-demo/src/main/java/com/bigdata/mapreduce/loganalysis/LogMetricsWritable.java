@@ -0,0 +1,78 @@
+package com.bigdata.mapreduce.loganalysis;
+
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 日志统计指标
+ * 一个维度取值（如某个IP、某个状态码）的请求数和响应字节数。
+ * 两个字段都使用变长编码序列化，Combiner合并前的单行记录只占2~4个字节，减少Map输出的溢写和Shuffle数据量
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogMetricsWritable implements Writable {
+    
+    private long requests;
+    private long bytes;
+    
+    public LogMetricsWritable() {
+    }
+    
+    public LogMetricsWritable(long requests, long bytes) {
+        set(requests, bytes);
+    }
+    
+    /**
+     * 设置指标
+     * 
+     * @param requests 请求数
+     * @param bytes 响应字节数
+     */
+    public void set(long requests, long bytes) {
+        this.requests = requests;
+        this.bytes = bytes;
+    }
+    
+    /**
+     * 累加另一个指标
+     * 
+     * @param other 另一个指标
+     */
+    public void add(LogMetricsWritable other) {
+        this.requests += other.requests;
+        this.bytes += other.bytes;
+    }
+    
+    public long getRequests() {
+        return requests;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    @Override
+    public void write(DataOutput out) throws IOException {
+        WritableUtils.writeVLong(out, requests);
+        WritableUtils.writeVLong(out, bytes);
+    }
+    
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        requests = WritableUtils.readVLong(in);
+        bytes = WritableUtils.readVLong(in);
+    }
+    
+    /**
+     * 文本输出格式：请求数\t响应字节数
+     */
+    @Override
+    public String toString() {
+        return requests + "\t" + bytes;
+    }
+}
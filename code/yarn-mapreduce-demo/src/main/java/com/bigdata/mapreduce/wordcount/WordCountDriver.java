@@ -2,18 +2,26 @@ package com.bigdata.mapreduce.wordcount;
 
 import com.bigdata.config.HadoopConfigManager;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.io.IntWritable;
-import org.apache.hadoop.io.Text;
+import org.apache.hadoop.fs.PathFilter;
+import org.apache.hadoop.io.VIntWritable;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.CombineTextInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
 import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+import org.apache.hadoop.mapreduce.lib.partition.TotalOrderPartitioner;
 import org.apache.hadoop.util.GenericOptionsParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * WordCount Driver类
  * MapReduce作业的主入口，负责配置和提交作业到YARN集群
@@ -25,6 +33,50 @@ public class WordCountDriver {
     
     private static final Logger logger = LoggerFactory.getLogger(WordCountDriver.class);
     
+    // 与FileInputFormat相同，跳过以_或.开头的隐藏文件
+    private static final PathFilter HIDDEN_FILE_FILTER =
+        path -> !path.getName().startsWith("_") && !path.getName().startsWith(".");
+    
+    /**
+     * 是否开启Map内合并，通过 -D wordcount.inmapper.combine=false 关闭
+     */
+    public static final String IN_MAPPER_COMBINE_KEY = "wordcount.inmapper.combine";
+    public static final boolean DEFAULT_IN_MAPPER_COMBINE = true;
+    
+    /**
+     * Map内合并计数表的内存上限（MB），需小于Map任务堆内存减去mapreduce.task.io.sort.mb，
+     * 通过 -D wordcount.inmapper.memory.mb=N 设置
+     */
+    public static final String IN_MAPPER_MEMORY_MB_KEY = "wordcount.inmapper.memory.mb";
+    public static final int DEFAULT_IN_MAPPER_MEMORY_MB = 64;
+    
+    /**
+     * Reduce任务数，通过 -D wordcount.reduce.tasks=N 设置；不设置时按输入大小计算：
+     * 每 wordcount.bytes.per.reducer 字节一个，最多 wordcount.reduce.tasks.max 个
+     */
+    public static final String REDUCE_TASKS_KEY = "wordcount.reduce.tasks";
+    public static final String BYTES_PER_REDUCER_KEY = "wordcount.bytes.per.reducer";
+    public static final long DEFAULT_BYTES_PER_REDUCER = 256L * 1024 * 1024;
+    public static final String MAX_REDUCE_TASKS_KEY = "wordcount.reduce.tasks.max";
+    public static final int DEFAULT_MAX_REDUCE_TASKS = 64;
+    
+    /**
+     * 是否全局排序输出，通过 -D wordcount.total.order=true 开启：
+     * 采样输入生成分区文件，用TotalOrderPartitioner按字典序分区，part-r-00000、part-r-00001……依次拼接即为有序结果
+     */
+    public static final String TOTAL_ORDER_KEY = "wordcount.total.order";
+    public static final boolean DEFAULT_TOTAL_ORDER = false;
+    
+    /**
+     * 是否把多个小文件合并到同一个分片，通过 -D wordcount.combine.input=true 开启：
+     * 使用CombineTextInputFormat，先把同一节点上的文件块打包到不超过 wordcount.combine.split.mb 的分片中，
+     * 剩余的块再按机架打包，输入为大量小文件时Map任务数从文件数降到 输入总大小 / 分片大小
+     */
+    public static final String COMBINE_INPUT_KEY = "wordcount.combine.input";
+    public static final boolean DEFAULT_COMBINE_INPUT = false;
+    public static final String COMBINE_SPLIT_MB_KEY = "wordcount.combine.split.mb";
+    public static final int DEFAULT_COMBINE_SPLIT_MB = 128;
+    
     /**
      * 主方法：程序入口
      * 
@@ -41,7 +93,8 @@ public class WordCountDriver {
         
         // 检查参数数量
         if (otherArgs.length != 2) {
-            System.err.println("Usage: WordCountDriver <input path> <output path>");
+            System.err.println("Usage: WordCountDriver [-D wordcount.inmapper.combine=false] [-D wordcount.total.order=true] "
+                               + "[-D wordcount.reduce.tasks=N] [-D wordcount.combine.input=true] <input path> <output path>");
             System.err.println("Example: WordCountDriver /input/text /output/wordcount");
             System.exit(2);
         }
@@ -74,39 +127,7 @@ public class WordCountDriver {
         configureYarn(conf);
         
         // 创建作业对象
-        Job job = Job.getInstance(conf, "word count");
-        
-        // 设置作业的主类
-        job.setJarByClass(WordCountDriver.class);
-        
-        // 设置Mapper和Reducer类
-        job.setMapperClass(WordCountMapper.class);
-        job.setCombinerClass(WordCountReducer.class);  // 使用Reducer作为Combiner
-        job.setReducerClass(WordCountReducer.class);
-        
-        // 设置输出键值类型
-        job.setOutputKeyClass(Text.class);
-        job.setOutputValueClass(IntWritable.class);
-        
-        // 设置输入输出格式
-        job.setInputFormatClass(TextInputFormat.class);
-        job.setOutputFormatClass(TextOutputFormat.class);
-        
-        // 设置输入输出路径
-        FileInputFormat.addInputPath(job, new Path(inputPath));
-        
-        // 检查并删除已存在的输出目录
-        Path outputDir = new Path(outputPath);
-        org.apache.hadoop.fs.FileSystem fs = org.apache.hadoop.fs.FileSystem.get(conf);
-        if (fs.exists(outputDir)) {
-            logger.info("Output directory {} already exists, deleting it...", outputPath);
-            fs.delete(outputDir, true);
-        }
-        
-        FileOutputFormat.setOutputPath(job, outputDir);
-        
-        // 设置Reduce任务数量
-        job.setNumReduceTasks(2);
+        Job job = createJob(conf, inputPath, outputPath);
         
         // 设置作业优先级
         job.setPriority(org.apache.hadoop.mapreduce.JobPriority.NORMAL);
@@ -120,7 +141,16 @@ public class WordCountDriver {
         // 提交作业并等待完成
         logger.info("Submitting WordCount job to YARN cluster...");
         
-        boolean success = job.waitForCompletion(true);
+        boolean success;
+        try {
+            success = job.waitForCompletion(true);
+        } finally {
+            // 分区文件只在作业运行期间使用，作业失败或等待被中断时也删除
+            if (conf.getBoolean(TOTAL_ORDER_KEY, DEFAULT_TOTAL_ORDER)) {
+                Path partitionFile = new Path(TotalOrderPartitioner.getPartitionFile(job.getConfiguration()));
+                partitionFile.getFileSystem(conf).delete(partitionFile, false);
+            }
+        }
         
         if (success) {
             logger.info("WordCount job completed successfully!");
@@ -147,6 +177,136 @@ public class WordCountDriver {
         return success;
     }
     
+    /**
+     * 创建WordCount作业
+     * 使用传入配置中的fs.defaultFS和mapreduce.framework.name，设置mapreduce.framework.name=local即可在本地运行
+     * 
+     * @param conf 配置对象
+     * @param inputPath 输入路径
+     * @param outputPath 输出路径，已存在时会被删除
+     * @return 尚未提交的作业
+     * @throws IOException IO异常
+     */
+    public static Job createJob(Configuration conf, String inputPath, String outputPath) throws IOException {
+        Job job = Job.getInstance(conf, "word count");
+        
+        // 设置作业的主类
+        job.setJarByClass(WordCountDriver.class);
+        
+        // 设置Mapper和Reducer类
+        job.setMapperClass(WordCountMapper.class);
+        // 使用Reducer作为Combiner：关闭Map内合并，或计数表多次刷出同一单词时仍能在Map端合并
+        job.setCombinerClass(WordCountReducer.class);
+        job.setReducerClass(WordCountReducer.class);
+        
+        // 设置输出键值类型：WordKey注册了原始字节比较器，TextOutputFormat按toString输出，结果文件格式不变
+        job.setOutputKeyClass(WordKey.class);
+        job.setOutputValueClass(VIntWritable.class);
+        
+        // 设置输入输出格式
+        if (conf.getBoolean(COMBINE_INPUT_KEY, DEFAULT_COMBINE_INPUT)) {
+            long maxSplitSize = conf.getInt(COMBINE_SPLIT_MB_KEY, DEFAULT_COMBINE_SPLIT_MB) * 1024L * 1024;
+            job.setInputFormatClass(CombineTextInputFormat.class);
+            CombineTextInputFormat.setMaxInputSplitSize(job, maxSplitSize);
+            logger.info("Combining small input files into splits of up to {} MB",
+                       conf.getInt(COMBINE_SPLIT_MB_KEY, DEFAULT_COMBINE_SPLIT_MB));
+        } else {
+            job.setInputFormatClass(TextInputFormat.class);
+        }
+        job.setOutputFormatClass(TextOutputFormat.class);
+        
+        // 设置输入输出路径
+        FileInputFormat.addInputPath(job, new Path(inputPath));
+        
+        // 检查并删除已存在的输出目录
+        Path outputDir = new Path(outputPath);
+        org.apache.hadoop.fs.FileSystem fs = outputDir.getFileSystem(conf);
+        if (fs.exists(outputDir)) {
+            logger.info("Output directory {} already exists, deleting it...", outputPath);
+            fs.delete(outputDir, true);
+        }
+        
+        FileOutputFormat.setOutputPath(job, outputDir);
+        
+        // 设置Reduce任务数量和分区方式：只列出一次输入文件，估算Reduce数和采样共用，
+        // 不在客户端计算分片（分片只在提交作业时计算一次，CombineTextInputFormat的节点/机架打包也只做一次）
+        int reduceTasks = conf.getInt(REDUCE_TASKS_KEY, 0);
+        boolean totalOrder = conf.getBoolean(TOTAL_ORDER_KEY, DEFAULT_TOTAL_ORDER);
+        List<FileStatus> inputFiles = reduceTasks <= 0 || totalOrder ? listInputFiles(job) : null;
+        if (reduceTasks <= 0) {
+            reduceTasks = estimateReduceTasks(conf, inputFiles);
+        }
+        if (totalOrder) {
+            Path partitionFile = new Path(outputDir.getParent(), "_" + outputDir.getName() + "_partitions.lst");
+            reduceTasks = WordSampler.writePartitionFile(job, inputFiles, partitionFile, reduceTasks);
+            // runWordCountJob在作业结束后删除；直接使用createJob时在JVM退出（关闭文件系统）时删除
+            partitionFile.getFileSystem(conf).deleteOnExit(partitionFile);
+            TotalOrderPartitioner.setPartitionFile(job.getConfiguration(), partitionFile);
+            job.setPartitionerClass(TotalOrderPartitioner.class);
+            logger.info("Total order partitioning enabled, partition file: {}", partitionFile);
+        }
+        job.setNumReduceTasks(reduceTasks);
+        logger.info("Reduce tasks: {}", reduceTasks);
+        
+        if (conf.getBoolean(IN_MAPPER_COMBINE_KEY, DEFAULT_IN_MAPPER_COMBINE)) {
+            logger.info("In-mapper combining enabled, memory limit: {} MB",
+                       conf.getInt(IN_MAPPER_MEMORY_MB_KEY, DEFAULT_IN_MAPPER_MEMORY_MB));
+        }
+        
+        return job;
+    }
+    
+    /**
+     * 列出作业的输入文件
+     * 与FileInputFormat相同：展开通配符，目录只列出第一层文件，跳过以_或.开头的文件；
+     * 只调用listStatus，不获取块位置
+     * 
+     * @param job 已设置输入路径的作业
+     * @return 输入文件
+     * @throws IOException IO异常
+     */
+    static List<FileStatus> listInputFiles(Job job) throws IOException {
+        Configuration conf = job.getConfiguration();
+        List<FileStatus> files = new ArrayList<>();
+        for (Path path : FileInputFormat.getInputPaths(job)) {
+            FileSystem fs = path.getFileSystem(conf);
+            FileStatus[] matches = fs.globStatus(path, HIDDEN_FILE_FILTER);
+            if (matches == null) {
+                // 输入不存在，提交作业时由FileInputFormat报错
+                continue;
+            }
+            for (FileStatus match : matches) {
+                if (!match.isDirectory()) {
+                    files.add(match);
+                    continue;
+                }
+                for (FileStatus child : fs.listStatus(match.getPath(), HIDDEN_FILE_FILTER)) {
+                    if (child.isFile()) {
+                        files.add(child);
+                    }
+                }
+            }
+        }
+        return files;
+    }
+    
+    /**
+     * 按输入大小计算Reduce任务数
+     * 
+     * @param conf 配置对象
+     * @param inputFiles 输入文件
+     * @return Reduce任务数，至少为1
+     */
+    private static int estimateReduceTasks(Configuration conf, List<FileStatus> inputFiles) {
+        long inputBytes = 0;
+        for (FileStatus file : inputFiles) {
+            inputBytes += file.getLen();
+        }
+        long bytesPerReducer = Math.max(1, conf.getLong(BYTES_PER_REDUCER_KEY, DEFAULT_BYTES_PER_REDUCER));
+        long reduceTasks = (inputBytes + bytesPerReducer - 1) / bytesPerReducer;
+        return (int) Math.max(1, Math.min(reduceTasks, conf.getInt(MAX_REDUCE_TASKS_KEY, DEFAULT_MAX_REDUCE_TASKS)));
+    }
+    
     /**
      * 配置YARN相关参数
      * 使用配置管理器从配置文件中读取配置
@@ -227,5 +387,5 @@ public class WordCountDriver {
         logger.info("=== End of Statistics ===");
     }
     
-
+    
 }
\ No newline at end of file
@@ -1,29 +1,48 @@
 package com.bigdata.mapreduce.wordcount;
 
-import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
 import org.apache.hadoop.mapreduce.Mapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.StringTokenizer;
 
 /**
  * WordCount Mapper类
- * 负责将输入文本分词并输出<单词, 1>键值对
+ * 负责将输入文本分词并输出<单词, 计数>键值对
+ * 键为WordKey（前8字节前缀在最前，排序时大多只需一次long比较），计数为变长编码的VIntWritable，通常只占1个字节
+ * 
+ * 默认开启Map内合并（in-mapper combining）：单词先在WordCountTable中累加，表达到内存上限时和任务结束时
+ * 才输出<单词, 累计次数>，自然语言文本中的重复单词不再逐个序列化、排序和溢写。
+ * 设置 -D wordcount.inmapper.combine=false 时逐个输出<单词, 1>，由Combiner合并
  * 
  * @author BigData Team
  * @version 1.0.0
  */
-public class WordCountMapper extends Mapper<LongWritable, Text, Text, IntWritable> {
+public class WordCountMapper extends Mapper<LongWritable, Text, WordKey, VIntWritable> {
     
     private static final Logger logger = LoggerFactory.getLogger(WordCountMapper.class);
     
     // 可重用的输出对象，避免频繁创建对象
-    private final static IntWritable one = new IntWritable(1);
-    private Text word = new Text();
+    private final static VIntWritable one = new VIntWritable(1);
+    private final WordKey word = new WordKey();
+    private final WordTokenizer tokenizer = new WordTokenizer();
+    private final WordKey tableWord = new WordKey();
+    private final VIntWritable count = new VIntWritable();
+    
+    // Map内合并的计数表，关闭Map内合并时为null
+    private WordCountTable table;
+    
+    /**
+     * WordCount计数器
+     */
+    public enum WordCountCounter {
+        // 计数表达到内存上限后提前输出的次数
+        IN_MAPPER_FLUSHES
+    }
     
     /**
      * Map方法：处理输入的每一行文本
@@ -38,60 +57,70 @@ public class WordCountMapper extends Mapper<LongWritable, Text, Text, IntWritabl
     public void map(LongWritable key, Text value, Context context) 
             throws IOException, InterruptedException {
         
-        // 将输入文本转换为小写并分词
-        String line = value.toString().toLowerCase();
-        
-        // 使用StringTokenizer进行分词
-        StringTokenizer tokenizer = new StringTokenizer(line);
-        
-        // 遍历每个单词
-        while (tokenizer.hasMoreTokens()) {
-            String token = tokenizer.nextToken();
+        // 直接在Text的字节上切分，小写化和去除标点写入复用缓冲区，不解码为字符串
+        tokenizer.reset(value);
+        while (tokenizer.next()) {
+            byte[] bytes = tokenizer.getBytes();
+            int length = tokenizer.getLength();
+            if (table != null) {
+                if (table.add(bytes, 0, length)) {
+                    continue;
+                }
+                // 计数表已满：输出并清空后重试，单个单词仍放不下时直接输出
+                flush(context);
+                context.getCounter(WordCountCounter.IN_MAPPER_FLUSHES).increment(1);
+                if (table.add(bytes, 0, length)) {
+                    continue;
+                }
+            }
             
-            // 简单的单词清理：移除标点符号
-            token = cleanWord(token);
+            // 输出<单词, 1>键值对
+            word.set(bytes, 0, length);
+            context.write(word, one);
             
-            // 过滤空字符串和长度小于2的单词
-            if (token.length() >= 2) {
-                word.set(token);
-                // 输出<单词, 1>键值对
-                context.write(word, one);
-                
-                // 记录处理的单词（仅在调试模式下）
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Mapped word: {}", token);
-                }
+            // 记录处理的单词（仅在调试模式下）
+            if (logger.isDebugEnabled()) {
+                logger.debug("Mapped word: {}", word);
             }
         }
     }
     
     /**
-     * 清理单词：移除标点符号和特殊字符
-     * 
-     * @param word 原始单词
-     * @return 清理后的单词
+     * 输出计数表中的全部单词并清空
      */
-    private String cleanWord(String word) {
-        // 移除标点符号，只保留字母和数字
-        return word.replaceAll("[^a-zA-Z0-9]", "");
+    private void flush(Context context) throws IOException, InterruptedException {
+        for (int i = 0; i < table.size(); i++) {
+            table.getWord(i, tableWord);
+            count.set(table.getCount(i));
+            context.write(tableWord, count);
+        }
+        table.clear();
     }
     
     /**
      * setup方法：在Map任务开始前调用
-     * 可以用于初始化资源
+     * 开启Map内合并时创建计数表
      */
     @Override
     protected void setup(Context context) throws IOException, InterruptedException {
         super.setup(context);
+        Configuration conf = context.getConfiguration();
+        if (conf.getBoolean(WordCountDriver.IN_MAPPER_COMBINE_KEY, WordCountDriver.DEFAULT_IN_MAPPER_COMBINE)) {
+            int memoryMb = conf.getInt(WordCountDriver.IN_MAPPER_MEMORY_MB_KEY, WordCountDriver.DEFAULT_IN_MAPPER_MEMORY_MB);
+            table = new WordCountTable(memoryMb * 1024L * 1024L);
+        }
         logger.info("WordCountMapper started for task: {}", context.getTaskAttemptID());
     }
     
     /**
      * cleanup方法：在Map任务结束后调用
-     * 可以用于清理资源
+     * 输出计数表中剩余的单词
      */
     @Override
     protected void cleanup(Context context) throws IOException, InterruptedException {
+        if (table != null) {
+            flush(context);
+        }
         super.cleanup(context);
         logger.info("WordCountMapper completed for task: {}", context.getTaskAttemptID());
     }
@@ -1,7 +1,6 @@
 package com.bigdata.mapreduce.wordcount;
 
-import org.apache.hadoop.io.IntWritable;
-import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.VIntWritable;
 import org.apache.hadoop.mapreduce.Reducer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,17 +9,17 @@ import java.io.IOException;
 
 /**
  * WordCount Reducer类
- * 负责汇总相同单词的计数
+ * 负责汇总相同单词的计数，输入输出类型相同，同时用作Combiner
  * 
  * @author BigData Team
  * @version 1.0.0
  */
-public class WordCountReducer extends Reducer<Text, IntWritable, Text, IntWritable> {
+public class WordCountReducer extends Reducer<WordKey, VIntWritable, WordKey, VIntWritable> {
     
     private static final Logger logger = LoggerFactory.getLogger(WordCountReducer.class);
     
     // 可重用的输出对象
-    private IntWritable result = new IntWritable();
+    private VIntWritable result = new VIntWritable();
     
     /**
      * Reduce方法：汇总相同键的所有值
@@ -32,13 +31,13 @@ public class WordCountReducer extends Reducer<Text, IntWritable, Text, IntWritab
      * @throws InterruptedException 中断异常
      */
     @Override
-    public void reduce(Text key, Iterable<IntWritable> values, Context context)
+    public void reduce(WordKey key, Iterable<VIntWritable> values, Context context)
             throws IOException, InterruptedException {
         
         int sum = 0;
         
         // 遍历所有值并求和
-        for (IntWritable value : values) {
+        for (VIntWritable value : values) {
             sum += value.get();
         }
         
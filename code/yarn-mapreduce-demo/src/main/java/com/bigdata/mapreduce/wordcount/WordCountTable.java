@@ -0,0 +1,218 @@
+package com.bigdata.mapreduce.wordcount;
+
+import java.util.Arrays;
+
+/**
+ * Map端单词计数哈希表
+ * 开放寻址（线性探测）哈希表，键为单词的UTF-8字节，值为int计数。
+ * 所有单词依次追加到同一个字节数组中，每个单词只占用 字节数 + 12 字节（结束偏移、计数、哈希值），
+ * 槽位数组只存条目序号，不为每个单词创建对象，也不产生装箱的Integer。
+ * 
+ * 内存上限按已分配数组的大小计算，扩容会超过上限时add返回false，
+ * 调用方输出全部条目（flush）并clear后继续，表本身占用的数组在clear后保留复用
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordCountTable {
+    
+    // 槽位数始终是条目容量的2倍，装载因子不超过1/2，线性探测的平均探测长度很短
+    private static final int INITIAL_ENTRIES = 1024;
+    private static final int INITIAL_KEY_BYTES = 16 * 1024;
+    
+    // 每个条目在entryEnds、counts、hashes中各占一个int
+    private static final int ENTRY_BYTES = 12;
+    
+    private final long maxBytes;
+    
+    // 槽位中存放 条目序号 + 1，0表示空槽
+    private int[] slots;
+    private int mask;
+    
+    private byte[] keys;
+    private int keyBytes;
+    private int[] entryEnds;
+    private int[] counts;
+    private int[] hashes;
+    private int size;
+    
+    /**
+     * 构造函数
+     * 
+     * @param maxBytes 内存上限（字节），至少能容纳初始大小的数组
+     */
+    public WordCountTable(long maxBytes) {
+        this.maxBytes = maxBytes;
+        slots = new int[INITIAL_ENTRIES * 2];
+        mask = slots.length - 1;
+        keys = new byte[INITIAL_KEY_BYTES];
+        entryEnds = new int[INITIAL_ENTRIES];
+        counts = new int[INITIAL_ENTRIES];
+        hashes = new int[INITIAL_ENTRIES];
+    }
+    
+    /**
+     * 单词计数加一
+     * 
+     * @param bytes 单词字节
+     * @param start 起始偏移
+     * @param length 字节数
+     * @return 成功返回true；表已达到内存上限或计数将要溢出时返回false，此时表的内容不变
+     */
+    public boolean add(byte[] bytes, int start, int length) {
+        int hash = hash(bytes, start, length);
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int entry = slots[slot] - 1;
+            if (hashes[entry] == hash && keyEquals(entry, bytes, start, length)) {
+                if (counts[entry] == Integer.MAX_VALUE) {
+                    return false;
+                }
+                counts[entry]++;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        int[] oldSlots = slots;
+        if (!ensureCapacity(length)) {
+            return false;
+        }
+        if (slots != oldSlots) {
+            // 扩容后槽位变化，重新查找空槽
+            slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        System.arraycopy(bytes, start, keys, keyBytes, length);
+        keyBytes += length;
+        entryEnds[size] = keyBytes;
+        counts[size] = 1;
+        hashes[size] = hash;
+        slots[slot] = ++size;
+        return true;
+    }
+    
+    /**
+     * 为新条目和length字节的单词预留空间，超过内存上限时返回false
+     */
+    private boolean ensureCapacity(int length) {
+        boolean growEntries = size == entryEnds.length;
+        long newKeyCapacity = keys.length;
+        while (newKeyCapacity < (long) keyBytes + length) {
+            newKeyCapacity *= 2;
+        }
+        if (!growEntries && newKeyCapacity == keys.length) {
+            return true;
+        }
+        long entryCapacity = growEntries ? entryEnds.length * 2L : entryEnds.length;
+        // 单词字节 + 条目数组 + 2倍条目容量的槽位数组
+        long required = newKeyCapacity + entryCapacity * ENTRY_BYTES + entryCapacity * 2 * 4;
+        if (required > maxBytes || newKeyCapacity > Integer.MAX_VALUE - 8) {
+            return false;
+        }
+        if (newKeyCapacity != keys.length) {
+            byte[] newKeys = new byte[(int) newKeyCapacity];
+            System.arraycopy(keys, 0, newKeys, 0, keyBytes);
+            keys = newKeys;
+        }
+        if (growEntries) {
+            growEntries((int) entryCapacity);
+        }
+        return true;
+    }
+    
+    private void growEntries(int capacity) {
+        entryEnds = copyOf(entryEnds, capacity);
+        counts = copyOf(counts, capacity);
+        hashes = copyOf(hashes, capacity);
+        slots = new int[capacity * 2];
+        mask = slots.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hashes[entry] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+    }
+    
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+    
+    private boolean keyEquals(int entry, byte[] bytes, int start, int length) {
+        int keyStart = entry == 0 ? 0 : entryEnds[entry - 1];
+        if (entryEnds[entry] - keyStart != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keys[keyStart + i] != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * FNV-1a哈希，再混合高位，使线性探测使用的低位分布均匀
+     */
+    private static int hash(byte[] bytes, int start, int length) {
+        int h = 0x811C9DC5;
+        for (int i = start; i < start + length; i++) {
+            h = (h ^ bytes[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+    
+    /**
+     * 获取不同单词的数量
+     * 
+     * @return 条目数
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 将第index个条目的单词写入输出键
+     * 
+     * @param index 条目序号，0 ~ size()-1，按首次出现的顺序
+     * @param word 输出单词
+     */
+    public void getWord(int index, WordKey word) {
+        int keyStart = index == 0 ? 0 : entryEnds[index - 1];
+        word.set(keys, keyStart, entryEnds[index] - keyStart);
+    }
+    
+    /**
+     * 获取第index个条目的计数
+     * 
+     * @param index 条目序号
+     * @return 计数
+     */
+    public int getCount(int index) {
+        return counts[index];
+    }
+    
+    /**
+     * 获取当前已分配的内存（字节）
+     * 
+     * @return 内存占用
+     */
+    public long getMemoryBytes() {
+        return keys.length + (long) entryEnds.length * ENTRY_BYTES + slots.length * 4L;
+    }
+    
+    /**
+     * 清空所有条目，保留已分配的数组
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        keyBytes = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.bigdata.mapreduce.wordcount;
+
+import org.apache.hadoop.io.BinaryComparable;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * WordCount的Map输出键
+ * 排序结果与Text相同（按UTF-8字节的字典序），序列化格式把单词的前8个字节放在最前面，
+ * 注册的原始比较器先比较两个键固定位置的8字节前缀，大多数比较只需要一次long比较就能得出结果，
+ * 不需要像Text那样先解码两个变长长度。
+ * 
+ * 序列化格式：
+ * <pre>
+ * 前缀:  8字节，单词的前8个字节（大端），不足8字节时补0
+ * 剩余:  仅当单词不少于8字节时存在，变长整数（单词长度 - 8）+ 第8字节之后的内容
+ * </pre>
+ * 不足8字节的单词只占8个字节，长度由补0的个数得出，因此单词的前8个字节中不能包含0字节
+ * （WordTokenizer切出的单词只包含小写字母和数字）。
+ * hashCode与Text相同，HashPartitioner的分区结果不变
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordKey extends BinaryComparable implements WritableComparable<BinaryComparable> {
+    
+    private static final int PREFIX_BYTES = 8;
+    
+    private static final byte[] EMPTY = new byte[0];
+    
+    private byte[] bytes = EMPTY;
+    private int length;
+    
+    public WordKey() {
+    }
+    
+    public WordKey(String word) {
+        byte[] utf8 = word.getBytes(StandardCharsets.UTF_8);
+        set(utf8, 0, utf8.length);
+    }
+    
+    /**
+     * 设置单词内容
+     * 
+     * @param word 单词字节
+     * @param start 起始偏移
+     * @param len 字节数
+     * @throws IllegalArgumentException 前8个字节中包含0字节
+     */
+    public void set(byte[] word, int start, int len) {
+        for (int i = 0; i < Math.min(len, PREFIX_BYTES); i++) {
+            if (word[start + i] == 0) {
+                throw new IllegalArgumentException("单词的前8个字节中不能包含0字节");
+            }
+        }
+        ensureCapacity(len);
+        System.arraycopy(word, start, bytes, 0, len);
+        length = len;
+    }
+    
+    private void ensureCapacity(int capacity) {
+        if (bytes.length < capacity) {
+            bytes = new byte[Math.max(capacity, Math.min(bytes.length * 2, 1024))];
+        }
+    }
+    
+    /**
+     * 获取单词字节，有效内容为前getLength()个字节
+     */
+    @Override
+    public byte[] getBytes() {
+        return bytes;
+    }
+    
+    @Override
+    public int getLength() {
+        return length;
+    }
+    
+    @Override
+    public void write(DataOutput out) throws IOException {
+        long prefix = 0;
+        for (int i = 0; i < PREFIX_BYTES; i++) {
+            prefix = (prefix << 8) | (i < length ? bytes[i] & 0xFF : 0);
+        }
+        out.writeLong(prefix);
+        if (length >= PREFIX_BYTES) {
+            WritableUtils.writeVInt(out, length - PREFIX_BYTES);
+            out.write(bytes, PREFIX_BYTES, length - PREFIX_BYTES);
+        }
+    }
+    
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        long prefix = in.readLong();
+        if ((prefix & 0xFF) != 0) {
+            int remaining = WritableUtils.readVInt(in);
+            ensureCapacity(PREFIX_BYTES + remaining);
+            in.readFully(bytes, PREFIX_BYTES, remaining);
+            length = PREFIX_BYTES + remaining;
+        } else {
+            // 末尾补0的字节数即为不足8字节的部分；prefix为0时长度为0
+            length = PREFIX_BYTES - Long.numberOfTrailingZeros(prefix) / 8;
+            ensureCapacity(length);
+        }
+        for (int i = 0; i < Math.min(length, PREFIX_BYTES); i++) {
+            bytes[i] = (byte) (prefix >>> (56 - 8 * i));
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 原始字节比较器：先比较8字节前缀，前缀相同且两个单词都不少于8字节时再比较剩余字节
+     */
+    public static class Comparator extends WritableComparator {
+        
+        public Comparator() {
+            super(WordKey.class);
+        }
+        
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            // compareBytes对8字节的比较由FastByteComparisons一次读取long完成，与按无符号长整数比较前缀等价
+            int result = compareBytes(b1, s1, PREFIX_BYTES, b2, s2, PREFIX_BYTES);
+            if (result != 0 || b1[s1 + PREFIX_BYTES - 1] == 0) {
+                // 前缀不同，或前缀相同且都不足8字节
+                return result;
+            }
+            int n1 = WritableUtils.decodeVIntSize(b1[s1 + PREFIX_BYTES]);
+            int n2 = WritableUtils.decodeVIntSize(b2[s2 + PREFIX_BYTES]);
+            return compareBytes(b1, s1 + PREFIX_BYTES + n1, l1 - PREFIX_BYTES - n1,
+                                b2, s2 + PREFIX_BYTES + n2, l2 - PREFIX_BYTES - n2);
+        }
+    }
+    
+    static {
+        WritableComparator.define(WordKey.class, new Comparator());
+    }
+}
@@ -0,0 +1,176 @@
+package com.bigdata.mapreduce.wordcount;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * WordCount全局排序的分区采样器
+ * 与InputSampler.SplitSampler类似，从输入中均匀间隔的若干个位置各读取若干行，但采样的是切分出的单词而不是输入键，
+ * 按单词在Reduce端产生的记录数估计权重，据此选出分区边界写入TotalOrderPartitioner的分区文件。
+ * 采样直接读取驱动程序列出的输入文件，不调用InputFormat.getSplits，分片只在提交作业时计算一次。
+ * 
+ * <ul>
+ *   <li>权重：开启Map内合并时，每个Map任务对一个单词只输出一条记录，权重为出现该单词的采样位置数；
+ *       关闭时为采样中的出现次数</li>
+ *   <li>边界：按字典序累加权重，每累计到 剩余权重 / 剩余分区数 就切一个分区，各Reduce的输入记录数大致相等</li>
+ *   <li>热点单词：权重不低于平均每个分区权重的单词前后各切一刀，单独占一个分区，不会和相邻的大量单词挤在同一个Reduce中</li>
+ * </ul>
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordSampler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WordSampler.class);
+    
+    // 采样位置数和每个位置读取的行数
+    private static final int MAX_SAMPLES = 20;
+    private static final int MAX_LINES_PER_SAMPLE = 10000;
+    
+    private WordSampler() {
+    }
+    
+    /**
+     * 采样输入并写入分区文件
+     * 
+     * @param job 已设置输入路径的作业
+     * @param inputFiles 作业的输入文件
+     * @param partitionFile 分区文件路径
+     * @param reduceTasks 期望的Reduce任务数
+     * @return 实际的Reduce任务数，不同单词太少时小于期望值
+     * @throws IOException IO异常
+     */
+    public static int writePartitionFile(Job job, List<FileStatus> inputFiles, Path partitionFile, int reduceTasks)
+            throws IOException {
+        Configuration conf = job.getConfiguration();
+        boolean inMapperCombine = conf.getBoolean(WordCountDriver.IN_MAPPER_COMBINE_KEY,
+                                                  WordCountDriver.DEFAULT_IN_MAPPER_COMBINE);
+        TreeMap<WordKey, Long> weights = sample(conf, inputFiles, inMapperCombine);
+        List<WordKey> splitPoints = splitPoints(weights, reduceTasks);
+        
+        partitionFile.getFileSystem(conf).delete(partitionFile, false);
+        try (SequenceFile.Writer writer = SequenceFile.createWriter(conf,
+                SequenceFile.Writer.file(partitionFile),
+                SequenceFile.Writer.keyClass(WordKey.class),
+                SequenceFile.Writer.valueClass(NullWritable.class))) {
+            for (WordKey splitPoint : splitPoints) {
+                writer.append(splitPoint, NullWritable.get());
+            }
+        }
+        logger.info("Sampled {} distinct words, wrote {} split points to {}",
+                   weights.size(), splitPoints.size(), partitionFile);
+        return splitPoints.size() + 1;
+    }
+    
+    /**
+     * 在输入文件中均匀间隔的位置各读取若干行，统计每个单词的权重
+     * 把所有输入文件首尾相接，按总字节数等间隔取采样位置，从位置之后的第一个完整行开始读取；
+     * 压缩文件无法定位，只从文件开头采样一次。直接读取文件，不计算分片，也不获取块位置
+     * 
+     * @return 单词 -> 权重，按字典序排列
+     */
+    static TreeMap<WordKey, Long> sample(Configuration conf, List<FileStatus> inputFiles, boolean inMapperCombine)
+            throws IOException {
+        long totalBytes = 0;
+        for (FileStatus file : inputFiles) {
+            totalBytes += file.getLen();
+        }
+        
+        CompressionCodecFactory codecs = new CompressionCodecFactory(conf);
+        Map<WordKey, Long> weights = new HashMap<>();
+        WordTokenizer tokenizer = new WordTokenizer();
+        TaskAttemptContext context = new TaskAttemptContextImpl(conf, new TaskAttemptID());
+        Set<String> sampledStarts = new HashSet<>();
+        int fileIndex = 0;
+        long fileStart = 0;
+        for (int i = 0; i < MAX_SAMPLES && totalBytes > 0; i++) {
+            long position = totalBytes * i / MAX_SAMPLES;
+            while (fileStart + inputFiles.get(fileIndex).getLen() <= position) {
+                fileStart += inputFiles.get(fileIndex).getLen();
+                fileIndex++;
+            }
+            FileStatus file = inputFiles.get(fileIndex);
+            long offset = codecs.getCodec(file.getPath()) == null ? position - fileStart : 0;
+            if (!sampledStarts.add(file.getPath() + "@" + offset)) {
+                continue;
+            }
+            
+            Set<WordKey> seenInSample = new HashSet<>();
+            try (LineRecordReader reader = new LineRecordReader()) {
+                reader.initialize(new FileSplit(file.getPath(), offset, file.getLen() - offset, null), context);
+                for (int lines = 0; lines < MAX_LINES_PER_SAMPLE && reader.nextKeyValue(); lines++) {
+                    tokenizer.reset(reader.getCurrentValue());
+                    while (tokenizer.next()) {
+                        WordKey word = new WordKey();
+                        word.set(tokenizer.getBytes(), 0, tokenizer.getLength());
+                        if (!inMapperCombine || seenInSample.add(word)) {
+                            weights.merge(word, 1L, Long::sum);
+                        }
+                    }
+                }
+            }
+        }
+        return new TreeMap<>(weights);
+    }
+    
+    /**
+     * 按权重选出分区边界
+     * 分区i包含 边界[i-1] &lt;= 单词 &lt; 边界[i] 的单词
+     * 
+     * @param weights 单词 -> 权重，按字典序排列
+     * @param reduceTasks 期望的分区数
+     * @return 严格递增的边界，最多 reduceTasks - 1 个
+     */
+    static List<WordKey> splitPoints(TreeMap<WordKey, Long> weights, int reduceTasks) {
+        List<WordKey> words = new ArrayList<>(weights.keySet());
+        long remaining = 0;
+        for (long weight : weights.values()) {
+            remaining += weight;
+        }
+        
+        List<WordKey> splitPoints = new ArrayList<>();
+        long current = 0;
+        for (int i = 0; i < words.size() && splitPoints.size() < reduceTasks - 1; i++) {
+            long weight = weights.get(words.get(i));
+            double target = (double) remaining / (reduceTasks - splitPoints.size());
+            if (weight >= target && current > 0) {
+                // 热点单词单独成为一个分区的开头
+                splitPoints.add(words.get(i));
+                remaining -= current;
+                current = 0;
+                if (splitPoints.size() == reduceTasks - 1) {
+                    break;
+                }
+                target = (double) remaining / (reduceTasks - splitPoints.size());
+            }
+            current += weight;
+            if (current >= target && i + 1 < words.size()) {
+                splitPoints.add(words.get(i + 1));
+                remaining -= current;
+                current = 0;
+            }
+        }
+        return splitPoints;
+    }
+}
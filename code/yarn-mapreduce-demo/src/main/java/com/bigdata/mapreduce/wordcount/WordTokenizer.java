@@ -0,0 +1,135 @@
+package com.bigdata.mapreduce.wordcount;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ * 字节级单词切分器
+ * 直接扫描Text的UTF-8字节：按空白字符切分，大写字母转小写，丢弃字母数字以外的字节，
+ * 结果写入复用的缓冲区后通过Text.set输出，整个过程不创建String。
+ * 
+ * 与原来 toLowerCase + StringTokenizer + replaceAll("[^a-zA-Z0-9]", "") 的结果一致（非土耳其语等特殊区域设置下）：
+ * 多字节UTF-8字符的每个字节都不小于0x80，不是ASCII字母数字，和原实现一样被整体移除。
+ * 只有两个非ASCII字符转小写后会得到ASCII字母：U+0130（İ，转为 i 加组合附加符）和开尔文符号U+212A（转为 k），
+ * 这两个字符按原实现的结果分别映射为 i 和 k
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordTokenizer {
+    
+    // 清理后长度小于该值的单词不输出
+    public static final int MIN_WORD_LENGTH = 2;
+    
+    // U+0130 和 U+212A 的UTF-8编码
+    private static final byte CAPITAL_I_DOT_LEAD = (byte) 0xC4;
+    private static final byte CAPITAL_I_DOT_TRAIL = (byte) 0xB0;
+    private static final byte KELVIN_LEAD = (byte) 0xE2;
+    private static final byte KELVIN_SECOND = (byte) 0x84;
+    private static final byte KELVIN_TRAIL = (byte) 0xAA;
+    
+    private byte[] bytes;
+    private int length;
+    private int position;
+    
+    // 清理后的单词，长度不超过所在行的长度
+    private byte[] buffer = new byte[64];
+    private int wordLength;
+    
+    /**
+     * 开始切分一行文本
+     * 
+     * @param line 一行文本，切分期间不能修改
+     */
+    public void reset(Text line) {
+        reset(line.getBytes(), line.getLength());
+    }
+    
+    /**
+     * 开始切分字节数组的前length个字节
+     * 
+     * @param bytes UTF-8字节
+     * @param length 有效长度
+     */
+    public void reset(byte[] bytes, int length) {
+        this.bytes = bytes;
+        this.length = length;
+        this.position = 0;
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+    }
+    
+    /**
+     * 取出下一个单词写入Text
+     * 
+     * @param word 输出单词
+     * @return 还有单词返回true，本行已切分完返回false
+     */
+    public boolean next(Text word) {
+        if (!next()) {
+            return false;
+        }
+        word.set(buffer, 0, wordLength);
+        return true;
+    }
+    
+    /**
+     * 切分出下一个单词，单词内容通过getBytes()和getLength()读取，调用下一次next前有效
+     * 
+     * @return 还有单词返回true，本行已切分完返回false
+     */
+    public boolean next() {
+        byte[] b = bytes;
+        while (position < length) {
+            // 跳过空白
+            while (position < length && isDelimiter(b[position])) {
+                position++;
+            }
+            wordLength = 0;
+            while (position < length && !isDelimiter(b[position])) {
+                byte c = b[position++];
+                if (c >= 'A' && c <= 'Z') {
+                    buffer[wordLength++] = (byte) (c + ('a' - 'A'));
+                } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                    buffer[wordLength++] = c;
+                } else if (c == CAPITAL_I_DOT_LEAD && position < length && b[position] == CAPITAL_I_DOT_TRAIL) {
+                    buffer[wordLength++] = 'i';
+                    position++;
+                } else if (c == KELVIN_LEAD && position + 1 < length
+                        && b[position] == KELVIN_SECOND && b[position + 1] == KELVIN_TRAIL) {
+                    buffer[wordLength++] = 'k';
+                    position += 2;
+                }
+            }
+            if (wordLength >= MIN_WORD_LENGTH) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 获取当前单词的字节，有效内容为前getLength()个字节
+     * 
+     * @return 复用的缓冲区
+     */
+    public byte[] getBytes() {
+        return buffer;
+    }
+    
+    /**
+     * 获取当前单词的字节数
+     * 
+     * @return 字节数
+     */
+    public int getLength() {
+        return wordLength;
+    }
+    
+    /**
+     * 与StringTokenizer默认分隔符相同：空格、\t、\n、\r、\f
+     */
+    private static boolean isDelimiter(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+}
@@ -0,0 +1,92 @@
+package com.bigdata.mapreduce.loganalysis;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 日志分析MapReduce作业单元测试
+ * 使用LocalJobRunner和本地文件系统，不依赖YARN集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class LogAnalysisJobTest {
+    
+    private File tempDir;
+    private Configuration conf;
+    
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("log-analysis-job").toFile();
+        conf = new Configuration();
+        conf.set("fs.defaultFS", "file:///");
+        conf.set("mapreduce.framework.name", "local");
+        conf.setInt(LogAnalysisDriver.REDUCE_TASKS_KEY, 2);
+    }
+    
+    @After
+    public void tearDown() {
+        FileUtil.fullyDelete(tempDir);
+    }
+    
+    @Test
+    public void testJobProducesReport() throws Exception {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            // 10.0.0.1出现150次，10.0.0.2出现100次，10.0.0.3出现50次
+            String ip = i % 2 == 0 ? "10.0.0.1" : (i % 3 != 0 ? "10.0.0.2" : "10.0.0.3");
+            int status = i % 10 == 0 ? 404 : 200;
+            log.append(ip).append(" - - [25/Dec/2023:10:00:01 +0800] \"GET /index.html HTTP/1.1\" ")
+               .append(status).append(' ').append(100).append('\n');
+        }
+        log.append("not a log line\n");
+        log.append("\n");
+        File input = new File(tempDir, "input");
+        assertTrue(input.mkdirs());
+        Files.write(new File(input, "access.log").toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+        
+        String output = new File(tempDir, "output").getAbsolutePath();
+        Job job = LogAnalysisDriver.createJob(conf, input.getAbsolutePath(), output);
+        assertTrue("作业应该成功", job.waitForCompletion(false));
+        
+        Counters counters = job.getCounters();
+        assertEquals(2, counters.findCounter(LogAnalysisMapper.LogAnalysisCounter.MALFORMED_LINES).getValue());
+        long mapOutput = counters.findCounter(TaskCounter.MAP_OUTPUT_RECORDS).getValue();
+        assertEquals("每行输出总计、IP、状态码、请求方法四条记录", 300 * 4, mapOutput);
+        assertTrue("Combiner应该在Map端合并重复的键",
+                   counters.findCounter(TaskCounter.COMBINE_OUTPUT_RECORDS).getValue() < mapOutput);
+        
+        Path reportPath = new Path(output, LogAnalysisDriver.REPORT_FILE_NAME);
+        assertTrue(LogAnalysisDriver.writeReport(conf, new Path(output), reportPath, 2));
+        List<String> report = Files.readAllLines(new File(reportPath.toUri().getPath()).toPath(), StandardCharsets.UTF_8);
+        
+        assertEquals("=== 日志分析报告 ===", report.get(0));
+        assertTrue(report.contains("总请求数: 300"));
+        assertTrue(report.contains("总响应字节数: 30000"));
+        assertTrue(report.contains("平均响应大小: 100 字节"));
+        assertTrue(report.contains("不同IP数: 3"));
+        
+        int ranking = report.indexOf("IP访问排行:");
+        assertEquals("10.0.0.1: 150 次", report.get(ranking + 1));
+        assertEquals("10.0.0.2: 100 次", report.get(ranking + 2));
+        assertEquals("只输出Top-N", "", report.get(ranking + 3));
+        
+        int status = report.indexOf("状态码统计:");
+        assertEquals("200: 270 次", report.get(status + 1));
+        assertEquals("404: 30 次", report.get(status + 2));
+    }
+}
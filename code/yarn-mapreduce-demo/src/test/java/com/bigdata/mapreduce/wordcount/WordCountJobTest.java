@@ -0,0 +1,228 @@
+package com.bigdata.mapreduce.wordcount;
+
+import com.bigdata.hdfs.util.SmallFilePacker;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * WordCount MapReduce作业单元测试
+ * 使用LocalJobRunner和本地文件系统，不依赖YARN集群
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordCountJobTest {
+    
+    private static final String[] WORDS = {"the", "of", "and", "hadoop", "yarn", "mapreduce", "word", "count"};
+    
+    private File tempDir;
+    private File input;
+    private Map<String, Integer> expected;
+    private int totalWords;
+    
+    @Before
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("word-count-job").toFile();
+        input = new File(tempDir, "input");
+        assertTrue(input.mkdirs());
+        
+        Random random = new Random(42);
+        expected = new HashMap<>();
+        StringBuilder text = new StringBuilder();
+        for (int line = 0; line < 2000; line++) {
+            for (int i = 0; i < 10; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                text.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word)
+                    .append(i == 9 ? ".\n" : " ");
+                expected.merge(word, 1, Integer::sum);
+                totalWords++;
+            }
+        }
+        Files.write(new File(input, "text.txt").toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @After
+    public void tearDown() {
+        FileUtil.fullyDelete(tempDir);
+    }
+    
+    @Test
+    public void testInMapperCombining() throws Exception {
+        Job job = runJob(true, "combined");
+        Counters counters = job.getCounters();
+        assertEquals("每个不同单词只输出一次", expected.size(),
+                     counters.findCounter(TaskCounter.MAP_OUTPUT_RECORDS).getValue());
+        assertEquals(0, counters.findCounter(WordCountMapper.WordCountCounter.IN_MAPPER_FLUSHES).getValue());
+        assertEquals(expected, readOutput(new File(tempDir, "combined")));
+    }
+    
+    @Test
+    public void testWithoutInMapperCombining() throws Exception {
+        Job job = runJob(false, "plain");
+        assertEquals("逐个输出<单词, 1>", totalWords,
+                     job.getCounters().findCounter(TaskCounter.MAP_OUTPUT_RECORDS).getValue());
+        assertEquals(expected, readOutput(new File(tempDir, "plain")));
+    }
+    
+    @Test
+    public void testTotalOrderOutput() throws Exception {
+        Configuration conf = localConf();
+        conf.setBoolean(WordCountDriver.TOTAL_ORDER_KEY, true);
+        conf.setInt(WordCountDriver.REDUCE_TASKS_KEY, 4);
+        conf.setBoolean(WordCountDriver.IN_MAPPER_COMBINE_KEY, false);
+        File output = new File(tempDir, "sorted");
+        Job job = WordCountDriver.createJob(conf, input.getAbsolutePath(), output.getAbsolutePath());
+        assertEquals(4, job.getNumReduceTasks());
+        assertTrue("作业应该成功", job.waitForCompletion(false));
+        
+        // 按分区顺序拼接后整体有序
+        List<String> words = new ArrayList<>();
+        for (int partition = 0; partition < 4; partition++) {
+            File part = new File(output, String.format("part-r-%05d", partition));
+            List<String> lines = Files.readAllLines(part.toPath(), StandardCharsets.UTF_8);
+            assertFalse("每个分区都有单词", lines.isEmpty());
+            for (String line : lines) {
+                words.add(line.split("\t")[0]);
+            }
+        }
+        List<String> sorted = new ArrayList<>(words);
+        Collections.sort(sorted);
+        assertEquals(sorted, words);
+        assertEquals(expected, readOutput(output));
+    }
+    
+    @Test
+    public void testReduceTasksFromInputSize() throws Exception {
+        Configuration conf = localConf();
+        conf.setLong(WordCountDriver.BYTES_PER_REDUCER_KEY, input.listFiles()[0].length() / 3 + 1);
+        Job job = WordCountDriver.createJob(conf, input.getAbsolutePath(), new File(tempDir, "sized").getAbsolutePath());
+        assertEquals(3, job.getNumReduceTasks());
+        
+        conf.setInt(WordCountDriver.MAX_REDUCE_TASKS_KEY, 2);
+        job = WordCountDriver.createJob(conf, input.getAbsolutePath(), new File(tempDir, "sized").getAbsolutePath());
+        assertEquals("不超过上限", 2, job.getNumReduceTasks());
+    }
+    
+    @Test
+    public void testListInputFilesSkipsHiddenFiles() throws Exception {
+        Files.write(new File(input, "_SUCCESS").toPath(), new byte[0]);
+        Files.write(new File(input, ".text.txt.crc").toPath(), new byte[16]);
+        assertTrue(new File(input, "nested").mkdir());
+        Job job = Job.getInstance(localConf());
+        FileInputFormat.addInputPath(job, new Path(input.getAbsolutePath()));
+        
+        List<FileStatus> files = WordCountDriver.listInputFiles(job);
+        assertEquals(1, files.size());
+        assertEquals("text.txt", files.get(0).getPath().getName());
+    }
+    
+    @Test
+    public void testCombineSmallInputFiles() throws Exception {
+        // 把输入按行拆成50个小文件
+        File smallFiles = new File(tempDir, "small");
+        assertTrue(smallFiles.mkdirs());
+        List<String> lines = Files.readAllLines(new File(input, "text.txt").toPath(), StandardCharsets.UTF_8);
+        int files = 50;
+        for (int i = 0; i < files; i++) {
+            List<String> part = lines.subList(i * lines.size() / files, (i + 1) * lines.size() / files);
+            Files.write(new File(smallFiles, "part-" + i + ".txt").toPath(), part, StandardCharsets.UTF_8);
+        }
+        
+        Configuration conf = localConf();
+        Job plain = WordCountDriver.createJob(conf, smallFiles.getAbsolutePath(), new File(tempDir, "plain").getAbsolutePath());
+        assertEquals("每个小文件一个分片", files, countSplits(plain));
+        
+        conf.setBoolean(WordCountDriver.COMBINE_INPUT_KEY, true);
+        conf.setInt(WordCountDriver.COMBINE_SPLIT_MB_KEY, 1);
+        File output = new File(tempDir, "combined-input");
+        Job job = WordCountDriver.createJob(conf, smallFiles.getAbsolutePath(), output.getAbsolutePath());
+        assertEquals("所有小文件合并到一个分片", 1, countSplits(job));
+        assertTrue("作业应该成功", job.waitForCompletion(false));
+        assertEquals(expected, readOutput(output));
+    }
+    
+    @Test
+    public void testPackedInputDirectory() throws Exception {
+        // 先打包一组无关内容，再把输入按行打包到同一目录，作业只应该看到第二次打包的条目
+        LocalFileSystem localFs = FileSystem.getLocal(new Configuration());
+        Path packed = new Path(new File(tempDir, "packed").toURI());
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, packed, (short) 1, 1024)) {
+            for (int i = 0; i < 100; i++) {
+                packer.add("stale" + i + ".txt", "stale words " + i);
+            }
+        }
+        List<String> lines = Files.readAllLines(new File(input, "text.txt").toPath(), StandardCharsets.UTF_8);
+        int files = 50;
+        try (SmallFilePacker packer = new SmallFilePacker(localFs, packed, (short) 1, 64 * 1024)) {
+            for (int i = 0; i < files; i++) {
+                List<String> part = lines.subList(i * lines.size() / files, (i + 1) * lines.size() / files);
+                packer.add("file" + i + ".txt", String.join("\n", part));
+            }
+        }
+        
+        // 索引文件以下划线开头，不会作为输入
+        File output = new File(tempDir, "packed-output");
+        Job job = WordCountDriver.createJob(localConf(), packed.toString(), output.getAbsolutePath());
+        assertTrue("作业应该成功", job.waitForCompletion(false));
+        assertEquals(expected, readOutput(output));
+    }
+    
+    private static int countSplits(Job job) throws Exception {
+        InputFormat<?, ?> inputFormat = ReflectionUtils.newInstance(job.getInputFormatClass(), job.getConfiguration());
+        return inputFormat.getSplits(job).size();
+    }
+    
+    private Job runJob(boolean inMapperCombine, String outputName) throws Exception {
+        Configuration conf = localConf();
+        conf.setBoolean(WordCountDriver.IN_MAPPER_COMBINE_KEY, inMapperCombine);
+        Job job = WordCountDriver.createJob(conf, input.getAbsolutePath(),
+                                            new File(tempDir, outputName).getAbsolutePath());
+        assertTrue("作业应该成功", job.waitForCompletion(false));
+        return job;
+    }
+    
+    private static Configuration localConf() {
+        Configuration conf = new Configuration();
+        conf.set("fs.defaultFS", "file:///");
+        conf.set("mapreduce.framework.name", "local");
+        return conf;
+    }
+    
+    private static Map<String, Integer> readOutput(File outputDir) throws Exception {
+        Map<String, Integer> counts = new HashMap<>();
+        File[] parts = outputDir.listFiles((dir, name) -> name.startsWith("part-"));
+        assertNotNull(parts);
+        for (File part : parts) {
+            for (String line : Files.readAllLines(part.toPath(), StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                assertNull("单词只出现在一个分区", counts.put(fields[0], Integer.parseInt(fields[1])));
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bigdata.mapreduce.wordcount;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Map端单词计数哈希表单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordCountTableTest {
+    
+    @Test
+    public void testCountsAcrossGrowth() {
+        WordCountTable table = new WordCountTable(64L * 1024 * 1024);
+        Map<String, Integer> expected = new HashMap<>();
+        // 超过初始条目容量和初始字节数组，触发多次扩容
+        for (int i = 0; i < 50000; i++) {
+            String word = "word" + (i % 7919);
+            assertTrue(add(table, word));
+            expected.merge(word, 1, Integer::sum);
+        }
+        assertEquals(expected, toMap(table));
+        
+        table.clear();
+        assertEquals(0, table.size());
+        assertTrue(add(table, "again"));
+        assertEquals(1, toMap(table).get("again").intValue());
+    }
+    
+    @Test
+    public void testRejectsWhenFull() {
+        WordCountTable table = new WordCountTable(64 * 1024);
+        int added = 0;
+        while (add(table, "distinct-word-" + added)) {
+            added++;
+        }
+        assertTrue("达到上限前应能容纳初始容量的单词", added >= 1024);
+        assertEquals("拒绝的单词不会写入表", added, table.size());
+        assertTrue(table.getMemoryBytes() <= 64 * 1024);
+        assertTrue("已有单词仍可计数", add(table, "distinct-word-0"));
+        assertEquals(2, toMap(table).get("distinct-word-0").intValue());
+    }
+    
+    private static boolean add(WordCountTable table, String word) {
+        byte[] bytes = ("#" + word).getBytes(StandardCharsets.UTF_8);
+        // 从偏移1开始，验证按起始偏移读取
+        return table.add(bytes, 1, bytes.length - 1);
+    }
+    
+    private static Map<String, Integer> toMap(WordCountTable table) {
+        Map<String, Integer> result = new HashMap<>();
+        WordKey word = new WordKey();
+        for (int i = 0; i < table.size(); i++) {
+            table.getWord(i, word);
+            assertNull("单词不应重复", result.put(word.toString(), table.getCount(i)));
+        }
+        return result;
+    }
+}
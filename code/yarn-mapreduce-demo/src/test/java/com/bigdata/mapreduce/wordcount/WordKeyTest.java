@@ -0,0 +1,82 @@
+package com.bigdata.mapreduce.wordcount;
+
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * WordCount输出键单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordKeyTest {
+    
+    @Test
+    public void testRoundTrip() throws Exception {
+        for (String word : new String[] {"", "a", "hadoop", "abcdefg", "abcdefgh", "abcdefghi", "mapreducewordcount"}) {
+            DataOutputBuffer out = new DataOutputBuffer();
+            new WordKey(word).write(out);
+            assertEquals("不足8字节只写前缀", word.length() < 8 ? 8 : 9 + word.length() - 8, out.getLength());
+            
+            DataInputBuffer in = new DataInputBuffer();
+            in.reset(out.getData(), out.getLength());
+            WordKey key = new WordKey("previous-longer-value");
+            key.readFields(in);
+            assertEquals(word, key.toString());
+            assertEquals(word.length(), key.getLength());
+            assertEquals("hashCode与Text相同", new Text(word).hashCode(), key.hashCode());
+        }
+    }
+    
+    @Test
+    public void testRawComparatorMatchesTextOrder() throws Exception {
+        WritableComparator comparator = WritableComparator.get(WordKey.class);
+        assertTrue("应使用注册的原始比较器", comparator instanceof WordKey.Comparator);
+        
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        words.add("");
+        for (int i = 0; i < 300; i++) {
+            // 字母表很小，使大量单词共享8字节前缀
+            StringBuilder word = new StringBuilder("prefixab".substring(0, random.nextInt(9)));
+            int extra = random.nextInt(6);
+            for (int j = 0; j < extra; j++) {
+                word.append((char) ('a' + random.nextInt(3)));
+            }
+            words.add(word.toString());
+        }
+        
+        for (String a : words) {
+            byte[] serializedA = serialize(a);
+            for (String b : words) {
+                byte[] serializedB = serialize(b);
+                int expected = Integer.signum(new Text(a).compareTo(new Text(b)));
+                assertEquals(a + " vs " + b, expected, Integer.signum(comparator.compare(
+                    serializedA, 0, serializedA.length, serializedB, 0, serializedB.length)));
+                assertEquals(expected, Integer.signum(new WordKey(a).compareTo(new WordKey(b))));
+            }
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsZeroByteInPrefix() {
+        new WordKey().set(new byte[] {'a', 0, 'b'}, 0, 3);
+    }
+    
+    private static byte[] serialize(String word) throws Exception {
+        DataOutputBuffer out = new DataOutputBuffer();
+        new WordKey(word).write(out);
+        byte[] bytes = new byte[out.getLength()];
+        System.arraycopy(out.getData(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+}
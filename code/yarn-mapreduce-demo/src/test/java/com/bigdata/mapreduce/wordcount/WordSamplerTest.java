@@ -0,0 +1,54 @@
+package com.bigdata.mapreduce.wordcount;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * WordCount分区采样器单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordSamplerTest {
+    
+    @Test
+    public void testBalancedSplitPoints() {
+        TreeMap<WordKey, Long> weights = new TreeMap<>();
+        for (char c = 'a'; c <= 'h'; c++) {
+            weights.put(new WordKey(c + "x"), 10L);
+        }
+        assertEquals(Arrays.asList("cx", "ex", "gx"), toStrings(WordSampler.splitPoints(weights, 4)));
+    }
+    
+    @Test
+    public void testHotWordGetsOwnPartition() {
+        TreeMap<WordKey, Long> weights = new TreeMap<>();
+        for (char c = 'a'; c <= 'h'; c++) {
+            weights.put(new WordKey(c + "x"), 10L);
+        }
+        weights.put(new WordKey("dz"), 200L);
+        List<String> splitPoints = toStrings(WordSampler.splitPoints(weights, 3));
+        assertEquals("热点单词前后各有一个边界", Arrays.asList("dz", "ex"), splitPoints);
+    }
+    
+    @Test
+    public void testFewerWordsThanReducers() {
+        TreeMap<WordKey, Long> weights = new TreeMap<>();
+        weights.put(new WordKey("only"), 5L);
+        weights.put(new WordKey("two"), 5L);
+        assertEquals(Arrays.asList("two"), toStrings(WordSampler.splitPoints(weights, 8)));
+    }
+    
+    private static List<String> toStrings(List<WordKey> keys) {
+        String[] strings = new String[keys.size()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = keys.get(i).toString();
+        }
+        return Arrays.asList(strings);
+    }
+}
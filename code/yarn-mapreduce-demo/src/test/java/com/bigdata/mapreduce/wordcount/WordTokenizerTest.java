@@ -0,0 +1,99 @@
+package com.bigdata.mapreduce.wordcount;
+
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import static org.junit.Assert.*;
+
+/**
+ * 字节级单词切分器单元测试
+ * 
+ * @author BigData Team
+ * @version 1.0.0
+ */
+public class WordTokenizerTest {
+    
+    @Test
+    public void testLowercaseAndStripPunctuation() {
+        assertEquals(Arrays.asList("hello", "world", "its", "42"),
+                     tokenize("Hello,   WORLD!\tIt's a 42 -- x"));
+        assertEquals("没有有效单词", new ArrayList<String>(), tokenize("  ... ?! a "));
+        assertEquals(new ArrayList<String>(), tokenize(""));
+    }
+    
+    @Test
+    public void testSameAsStringTokenizer() {
+        String[] lines = {
+            "The quick (brown) fox jumps over the lazy dog.",
+            "MapReduce中文混合text, e-mail: user@example.com\r",
+            "tabs\tand\fform\nfeeds été café naïve",
+            "x1 2y \"quoted\" [bracket] {brace} 3.14159 100%"
+        };
+        for (String line : lines) {
+            assertEquals(line, legacyTokenize(line), tokenize(line));
+        }
+    }
+    
+    @Test
+    public void testNonAsciiLowercasingToAscii() {
+        // İ转小写为 i + U+0307，开尔文符号转小写为 k，原实现保留其中的ASCII字母
+        assertEquals(Arrays.asList("istanbul", "273k", "ok"), tokenize("\u0130STANBUL 273\u212A O\u212A \u0130"));
+        // 其他字符转小写后仍然不是ASCII，和原实现一样被移除
+        assertEquals(Arrays.asList("ngstrom"), tokenize("\u212BNGSTROM \u00C9"));
+    }
+    
+    @Test
+    public void testReuseAcrossLines() {
+        WordTokenizer tokenizer = new WordTokenizer();
+        Text word = new Text();
+        Text line = new Text("short");
+        tokenizer.reset(line);
+        assertTrue(tokenizer.next(word));
+        
+        // 第二行比内部缓冲区长，Text复用的底层数组比有效长度长
+        StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            longWord.append('A');
+        }
+        line.set(longWord.toString());
+        tokenizer.reset(line);
+        assertTrue(tokenizer.next(word));
+        assertEquals(longWord.toString().toLowerCase(), word.toString());
+        line.set("ab");
+        tokenizer.reset(line);
+        assertTrue(tokenizer.next(word));
+        assertEquals("只读取Text的有效长度", "ab", word.toString());
+        assertFalse(tokenizer.next(word));
+    }
+    
+    private static List<String> tokenize(String line) {
+        WordTokenizer tokenizer = new WordTokenizer();
+        Text word = new Text();
+        List<String> words = new ArrayList<>();
+        tokenizer.reset(new Text(line));
+        while (tokenizer.next(word)) {
+            words.add(word.toString());
+        }
+        return words;
+    }
+    
+    /**
+     * 原WordCountMapper的分词方式
+     */
+    private static List<String> legacyTokenize(String line) {
+        List<String> words = new ArrayList<>();
+        StringTokenizer tokenizer = new StringTokenizer(line.toLowerCase());
+        while (tokenizer.hasMoreTokens()) {
+            String token = tokenizer.nextToken().replaceAll("[^a-zA-Z0-9]", "");
+            if (token.length() >= 2) {
+                words.add(token);
+            }
+        }
+        return words;
+    }
+}